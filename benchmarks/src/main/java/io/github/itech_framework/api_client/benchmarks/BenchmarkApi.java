@@ -0,0 +1,57 @@
+package io.github.itech_framework.api_client.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import io.github.itech_framework.api_client.annotations.ApiClient;
+import io.github.itech_framework.api_client.annotations.authentications.ApiKey;
+import io.github.itech_framework.api_client.annotations.authentications.Authenticated;
+import io.github.itech_framework.api_client.annotations.authentications.BasicAuth;
+import io.github.itech_framework.api_client.annotations.authentications.BearerToken;
+import io.github.itech_framework.api_client.annotations.authentications.OAuth2;
+import io.github.itech_framework.api_client.annotations.methods.GET;
+import io.github.itech_framework.api_client.annotations.methods.Header;
+import io.github.itech_framework.api_client.annotations.parameters.Headers;
+import io.github.itech_framework.api_client.annotations.parameters.Path;
+import io.github.itech_framework.api_client.annotations.parameters.Query;
+import io.github.itech_framework.api_client.utils.enums.AuthType;
+
+/**
+ * Client of the {@link StubServer} used by all benchmarks. The authenticated
+ * methods differ only in how credentials are applied.
+ */
+@ApiClient(baseUrl = StubServer.BASE_URL)
+public interface BenchmarkApi {
+	@GET("/items/{count}")
+	List<Payloads.Item> items(@Path("count") int count);
+
+	@GET("/items/{count}")
+	CompletableFuture<List<Payloads.Item>> itemsAsync(@Path("count") int count);
+
+	@GET("/items/{count}")
+	@Header(name = "Accept", value = "application/json")
+	@Header(name = "X-Client", value = "benchmark")
+	List<Payloads.Item> search(@Path("count") int count, @Query("q") String query, @Query("tag") List<String> tags,
+			@Headers Map<String, String> headers);
+
+	@GET("/items/{count}")
+	@Authenticated(AuthType.BASIC)
+	@BasicAuth(username = "benchmark", password = "secret")
+	List<Payloads.Item> basic(@Path("count") int count);
+
+	@GET("/items/{count}")
+	@Authenticated(AuthType.API_KEY)
+	@ApiKey(name = "X-Api-Key", value = "benchmark-key")
+	List<Payloads.Item> apiKey(@Path("count") int count);
+
+	@GET("/items/{count}")
+	@Authenticated(AuthType.BEARER)
+	@BearerToken(token = "benchmark-token")
+	List<Payloads.Item> bearer(@Path("count") int count);
+
+	@GET("/items/{count}")
+	@Authenticated(AuthType.OAUTH2)
+	@OAuth2(clientId = "benchmark", clientSecret = "secret", tokenUrl = StubServer.TOKEN_URL)
+	List<Payloads.Item> oauth2(@Path("count") int count);
+}
@@ -0,0 +1,165 @@
+package io.github.itech_framework.api_client.benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.itech_framework.api_client.events.ApiEventListener;
+import io.github.itech_framework.api_client.events.ApiEvents;
+import io.github.itech_framework.api_client.handlers.ApiClientInvocationHandler;
+import io.github.itech_framework.api_client.handlers.GeneratedApiClient;
+
+/**
+ * Whole calls through the client proxy, from {@code invoke} to the decoded
+ * response, against the {@link StubServer}. {@link #dispatch} isolates the
+ * overhead every call pays around the I/O: finding the method plan, the
+ * handler's dispatch, request building and status handling, with the HTTP
+ * transport replaced by one that answers {@code 204 No Content} in memory.
+ * The client is either the proxy or the implementation generated at build
+ * time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class InvocationBenchmark {
+	@Param({ "1", "100" })
+	private int count;
+
+	@Param({ "proxy", "generated" })
+	private String client;
+
+	/** Registers a no-op event listener, which makes every call track its phases. */
+	@Param({ "false", "true" })
+	private boolean events;
+
+	private final ApiEventListener listener = new ApiEventListener() {
+	};
+
+	private StubServer server;
+	private ApiClientInvocationHandler handler;
+	private BenchmarkApi api;
+	private ApiClientInvocationHandler stubbedHandler;
+	private BenchmarkApi stubbedApi;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		server = StubServer.start();
+		handler = new ApiClientInvocationHandler(BenchmarkApi.class);
+		api = create(handler);
+		stubbedHandler = new ApiClientInvocationHandler(BenchmarkApi.class);
+		Field httpClient = ApiClientInvocationHandler.class.getDeclaredField("httpClient");
+		httpClient.setAccessible(true);
+		((CloseableHttpClient) httpClient.get(stubbedHandler)).close();
+		httpClient.set(stubbedHandler, new NoContentTransport());
+		stubbedApi = create(stubbedHandler);
+		if (events) {
+			ApiEvents.addListener(listener);
+		}
+	}
+
+	private BenchmarkApi create(ApiClientInvocationHandler handler) throws ReflectiveOperationException {
+		return client.equals("generated")
+				? (BenchmarkApi) Class.forName(GeneratedApiClient.implementationName(BenchmarkApi.class))
+						.getConstructor(ApiClientInvocationHandler.class).newInstance(handler)
+				: (BenchmarkApi) Proxy.newProxyInstance(BenchmarkApi.class.getClassLoader(),
+						new Class<?>[] { BenchmarkApi.class }, handler);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		ApiEvents.removeListener(listener);
+		stubbedHandler.close();
+		handler.close();
+		server.close();
+	}
+
+	@Benchmark
+	public List<Payloads.Item> dispatch() {
+		return stubbedApi.items(count);
+	}
+
+	@Benchmark
+	public List<Payloads.Item> sync() {
+		return api.items(count);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public List<Payloads.Item> syncContended() {
+		return api.items(count);
+	}
+
+	@Benchmark
+	public List<Payloads.Item> async() {
+		return api.itemsAsync(count).join();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public List<Payloads.Item> asyncContended() {
+		return api.itemsAsync(count).join();
+	}
+
+	/** Answers every request with an empty response without any I/O. */
+	@SuppressWarnings("deprecation")
+	private static final class NoContentTransport extends CloseableHttpClient {
+		@Override
+		protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context) {
+			return new NoContentResponse();
+		}
+
+		@Override
+		public HttpParams getParams() {
+			return new BasicHttpParams();
+		}
+
+		@Override
+		public ClientConnectionManager getConnectionManager() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	private static final class NoContentResponse extends BasicHttpResponse implements CloseableHttpResponse {
+		NoContentResponse() {
+			super(HttpVersion.HTTP_1_1, HttpStatus.SC_NO_CONTENT, "No Content");
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package io.github.itech_framework.api_client.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import io.github.itech_framework.api_client.utils.JsonUtils;
+
+/**
+ * {@link JsonUtils} on small, medium and large documents, both through
+ * intermediate strings and streamed the way request and response bodies are.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+	private static final TypeReference<List<Payloads.Item>> ITEMS = new TypeReference<>() {
+	};
+
+	@Param({ "1", "100", "10000" })
+	private int count;
+
+	private List<Payloads.Item> items;
+	private String json;
+	private byte[] bytes;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		items = Payloads.items(count);
+		json = JsonUtils.toJson(items);
+		bytes = json.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public String serialize() {
+		return JsonUtils.toJson(items);
+	}
+
+	@Benchmark
+	public void serializeStreaming() throws IOException {
+		try (JsonGenerator generator = JsonUtils.createGenerator(OutputStream.nullOutputStream())) {
+			JsonUtils.writeValue(generator, items);
+		}
+	}
+
+	@Benchmark
+	public List<Payloads.Item> deserialize() {
+		return JsonUtils.fromJson(json, ITEMS);
+	}
+
+	@Benchmark
+	public List<Payloads.Item> deserializeStreaming() throws IOException {
+		return JsonUtils.fromJson(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8, ITEMS);
+	}
+}
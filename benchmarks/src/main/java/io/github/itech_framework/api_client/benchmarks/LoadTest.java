@@ -0,0 +1,355 @@
+package io.github.itech_framework.api_client.benchmarks;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+import io.github.itech_framework.api_client.handlers.ApiClientInvocationHandler;
+import io.github.itech_framework.api_client.metrics.LatencyHistogram;
+import io.github.itech_framework.api_client.utils.JsonUtils;
+
+/**
+ * Open-loop load test of the client against the {@link StubServer}. Requests
+ * are due on a fixed schedule whether or not earlier ones have completed, and
+ * the response time of each is measured from when it was due rather than from
+ * when it was sent. A client that stalls therefore shows the stall in its
+ * percentiles instead of quietly sending fewer requests (coordinated
+ * omission). The service time, measured from the actual send, is reported
+ * next to it; a growing gap between the two means the client cannot keep up
+ * with the rate.
+ * <p>
+ * Every mode runs a warmup and then a measured period. Settings are system
+ * properties:
+ * <ul>
+ * <li>{@code load.modes}: comma separated {@code sync}, {@code async} (executor
+ * transport) and {@code nonblocking}, default all three</li>
+ * <li>{@code load.rate}: requests per second, default 1000</li>
+ * <li>{@code load.warmup} and {@code load.duration}: seconds, default 10 and 30</li>
+ * <li>{@code load.threads}: caller threads of the sync mode, default 64</li>
+ * <li>{@code load.count}: items per response, default 100</li>
+ * <li>{@code load.result}: JSON file the results are written to, optional</li>
+ * <li>{@code load.externalStub}: {@code true} when the stub runs in another
+ * process, see {@link StubServer#main}; otherwise it is started here with the
+ * {@code stub.*} {@link StubServer.Profile} properties and its allocations
+ * are included in the allocation rate</li>
+ * </ul>
+ */
+public final class LoadTest {
+	private static final double[] QUANTILES = { 0.5, 0.99, 0.999 };
+
+	private LoadTest() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		Settings settings = Settings.fromSystemProperties();
+		StubServer server = settings.externalStub ? null : StubServer.start(StubServer.Profile.fromSystemProperties());
+		try {
+			List<Result> results = new ArrayList<>();
+			for (Mode mode : settings.modes) {
+				Result result = run(mode, settings);
+				System.out.println(result.format());
+				results.add(result);
+			}
+			if (settings.result != null) {
+				Files.writeString(settings.result, JsonUtils.toPrettyJson(results));
+			}
+		} finally {
+			if (server != null) {
+				server.close();
+			}
+		}
+		System.exit(0);
+	}
+
+	/**
+	 * Load a mode puts on the client. Each mode runs with a client of its
+	 * own.
+	 */
+	public enum Mode {
+		/** Blocking calls from a pool of caller threads. */
+		SYNC,
+		/** Asynchronous calls on the client's executor. */
+		ASYNC,
+		/** Asynchronous calls over the non-blocking transport. */
+		NONBLOCKING
+	}
+
+	static Result run(Mode mode, Settings settings) throws InterruptedException {
+		Class<?> apiInterface = mode == Mode.NONBLOCKING ? NonBlockingBenchmarkApi.class : BenchmarkApi.class;
+		ApiClientInvocationHandler handler = new ApiClientInvocationHandler(apiInterface);
+		Object proxy = Proxy.newProxyInstance(apiInterface.getClassLoader(), new Class<?>[] { apiInterface },
+				handler);
+		try {
+			Schedule schedule = new Schedule(settings);
+			Recorder recorder = new Recorder(schedule.measureFrom);
+			Allocation allocation = new Allocation();
+			Thread sampler = new Thread(() -> {
+				LockSupport.parkNanos(schedule.measureFrom - System.nanoTime());
+				allocation.begin();
+			}, "load-allocation");
+			sampler.setDaemon(true);
+			sampler.start();
+			if (mode == Mode.SYNC) {
+				BenchmarkApi api = (BenchmarkApi) proxy;
+				runBlocking(schedule, recorder, settings.threads, () -> api.items(settings.count));
+			} else if (mode == Mode.ASYNC) {
+				BenchmarkApi api = (BenchmarkApi) proxy;
+				runAsync(schedule, recorder, () -> api.itemsAsync(settings.count));
+			} else {
+				NonBlockingBenchmarkApi api = (NonBlockingBenchmarkApi) proxy;
+				runAsync(schedule, recorder, () -> api.itemsAsync(settings.count));
+			}
+			sampler.join();
+			allocation.end();
+			return recorder.result(mode, settings.rate, allocation);
+		} finally {
+			handler.close();
+		}
+	}
+
+	// every caller thread takes the next due request, so requests queue up behind busy callers
+	private static void runBlocking(Schedule schedule, Recorder recorder, int threads, Runnable call)
+			throws InterruptedException {
+		ExecutorService callers = Executors.newFixedThreadPool(threads);
+		AtomicLong next = new AtomicLong();
+		for (int i = 0; i < threads; i++) {
+			callers.execute(() -> {
+				for (long n = next.getAndIncrement(); n < schedule.requests; n = next.getAndIncrement()) {
+					long due = schedule.awaitDue(n);
+					long sent = System.nanoTime();
+					Throwable error = null;
+					try {
+						call.run();
+					} catch (RuntimeException e) {
+						error = e;
+					}
+					recorder.record(due, sent, System.nanoTime(), error);
+				}
+			});
+		}
+		callers.shutdown();
+		callers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+	}
+
+	private static void runAsync(Schedule schedule, Recorder recorder,
+			Supplier<CompletableFuture<?>> call) throws InterruptedException {
+		LongAdder completed = new LongAdder();
+		for (long n = 0; n < schedule.requests; n++) {
+			long due = schedule.awaitDue(n);
+			long sent = System.nanoTime();
+			try {
+				call.get().whenComplete((result, error) -> {
+					recorder.record(due, sent, System.nanoTime(), error);
+					completed.increment();
+				});
+			} catch (RuntimeException e) {
+				recorder.record(due, sent, System.nanoTime(), e);
+				completed.increment();
+			}
+		}
+		// stragglers get as long as the measured period took, then count as lost
+		long deadline = System.nanoTime() + schedule.measureNanos;
+		while (completed.sum() < schedule.requests && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		recorder.lost(schedule.requests - completed.sum());
+	}
+
+	static final class Settings {
+		List<Mode> modes;
+		int rate;
+		int warmupSeconds;
+		int durationSeconds;
+		int threads;
+		int count;
+		Path result;
+		boolean externalStub;
+
+		static Settings fromSystemProperties() {
+			Settings settings = new Settings();
+			settings.modes = Arrays.stream(System.getProperty("load.modes", "sync,async,nonblocking").split(","))
+					.map(String::trim).filter(mode -> !mode.isEmpty()).map(mode -> Mode.valueOf(mode.toUpperCase()))
+					.toList();
+			settings.rate = Integer.getInteger("load.rate", 1000);
+			settings.warmupSeconds = Integer.getInteger("load.warmup", 10);
+			settings.durationSeconds = Integer.getInteger("load.duration", 30);
+			settings.threads = Integer.getInteger("load.threads", 64);
+			settings.count = Integer.getInteger("load.count", 100);
+			String result = System.getProperty("load.result", "");
+			settings.result = result.isEmpty() ? null : Path.of(result);
+			settings.externalStub = Boolean.getBoolean("load.externalStub");
+			return settings;
+		}
+	}
+
+	/**
+	 * Fixed rate timeline of a run, request {@code n} is due {@code n}
+	 * intervals after the start.
+	 */
+	private static final class Schedule {
+		final long start;
+		final double intervalNanos;
+		final long requests;
+		final long measureFrom;
+		final long measureNanos;
+
+		Schedule(Settings settings) {
+			this.start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+			this.intervalNanos = 1e9 / settings.rate;
+			this.requests = (long) settings.rate * (settings.warmupSeconds + settings.durationSeconds);
+			this.measureFrom = start + TimeUnit.SECONDS.toNanos(settings.warmupSeconds);
+			this.measureNanos = TimeUnit.SECONDS.toNanos(settings.durationSeconds);
+		}
+
+		// returns when request n is due, at once when it is overdue
+		long awaitDue(long n) {
+			long due = start + (long) (n * intervalNanos);
+			for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+				LockSupport.parkNanos(wait);
+			}
+			return due;
+		}
+	}
+
+	private static final class Recorder {
+		private final long measureFrom;
+		private final LatencyHistogram response = cumulative();
+		private final LatencyHistogram service = cumulative();
+		private final LongAdder errors = new LongAdder();
+		private final LongAccumulator lastEnd;
+		private long lost;
+
+		Recorder(long measureFrom) {
+			this.measureFrom = measureFrom;
+			this.lastEnd = new LongAccumulator(Math::max, measureFrom);
+		}
+
+		private static LatencyHistogram cumulative() {
+			return new LatencyHistogram(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		}
+
+		void record(long due, long sent, long end, Throwable error) {
+			if (due < measureFrom) {
+				return;
+			}
+			response.record(end - due);
+			service.record(end - sent);
+			lastEnd.accumulate(end);
+			if (error != null) {
+				errors.increment();
+			}
+		}
+
+		void lost(long requests) {
+			lost = requests;
+		}
+
+		Result result(Mode mode, int rate, Allocation allocation) {
+			long requests = response.getCount();
+			double seconds = Math.max(1, lastEnd.get() - measureFrom) / 1e9;
+			long[] responseTimes = response.percentiles(QUANTILES);
+			long[] serviceTimes = service.percentiles(QUANTILES);
+			return new Result(mode, rate, requests / seconds, requests, errors.sum(), lost,
+					millis(responseTimes[0]), millis(responseTimes[1]), millis(responseTimes[2]),
+					millis(response.getMaxNanos()), millis(serviceTimes[0]), millis(serviceTimes[1]),
+					millis(serviceTimes[2]), allocation.bytes / seconds / (1024 * 1024),
+					requests == 0 ? 0 : allocation.bytes / requests, allocation.gcCount, allocation.gcMillis);
+		}
+
+		private static double millis(long nanos) {
+			return nanos / 1e6;
+		}
+	}
+
+	/**
+	 * Heap allocation and garbage collection of the whole process during the
+	 * measured period. Allocation is the growth of the heap plus what every
+	 * collection in between freed, which is exact up to the allocation buffers
+	 * threads hold.
+	 */
+	private static final class Allocation implements NotificationListener {
+		private final LongAdder collected = new LongAdder();
+		private long heapUsed;
+		long bytes;
+		long gcCount;
+		long gcMillis;
+
+		void begin() {
+			for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+				((NotificationEmitter) gc).addNotificationListener(this, null, null);
+				gcCount -= gc.getCollectionCount();
+				gcMillis -= gc.getCollectionTime();
+			}
+			heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+		}
+
+		void end() {
+			long used = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+			for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+				try {
+					((NotificationEmitter) gc).removeNotificationListener(this);
+				} catch (ListenerNotFoundException e) {
+					// begin never ran
+				}
+				gcCount += gc.getCollectionCount();
+				gcMillis += gc.getCollectionTime();
+			}
+			bytes = used - heapUsed + collected.sum();
+		}
+
+		@Override
+		public void handleNotification(Notification notification, Object handback) {
+			if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+				return;
+			}
+			GcInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData())
+					.getGcInfo();
+			long before = info.getMemoryUsageBeforeGc().values().stream().mapToLong(MemoryUsage::getUsed).sum();
+			long after = info.getMemoryUsageAfterGc().values().stream().mapToLong(MemoryUsage::getUsed).sum();
+			collected.add(Math.max(0, before - after));
+		}
+	}
+
+	/**
+	 * Outcome of one mode. Times are milliseconds, response times count from
+	 * when a request was due and service times from when it was sent.
+	 */
+	public record Result(Mode mode, int targetRate, double throughput, long requests, long errors, long lost,
+			double p50, double p99, double p999, double max, double serviceP50, double serviceP99,
+			double serviceP999, double allocationMbPerSecond, long allocationBytesPerRequest, long gcCount,
+			long gcMillis) {
+
+		String format() {
+			return String.format("%-11s %6d/s target %8.1f/s achieved, %d requests, %d errors, %d lost%n"
+					+ "            response p50 %.3f p99 %.3f p99.9 %.3f max %.3f ms, service p50 %.3f p99 %.3f p99.9 %.3f ms%n"
+					+ "            allocation %.1f MB/s %d B/request, %d GCs %d ms",
+					mode.name().toLowerCase(), targetRate, throughput, requests, errors, lost, p50, p99, p999, max,
+					serviceP50, serviceP99, serviceP999, allocationMbPerSecond, allocationBytesPerRequest, gcCount,
+					gcMillis);
+		}
+	}
+}
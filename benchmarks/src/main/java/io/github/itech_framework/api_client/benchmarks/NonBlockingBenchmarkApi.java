@@ -0,0 +1,19 @@
+package io.github.itech_framework.api_client.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import io.github.itech_framework.api_client.annotations.ApiClient;
+import io.github.itech_framework.api_client.annotations.methods.GET;
+import io.github.itech_framework.api_client.annotations.parameters.Path;
+import io.github.itech_framework.api_client.utils.enums.AsyncTransport;
+
+/**
+ * The asynchronous call of {@link BenchmarkApi} over the non-blocking
+ * transport.
+ */
+@ApiClient(baseUrl = StubServer.BASE_URL, asyncTransport = AsyncTransport.NON_BLOCKING)
+public interface NonBlockingBenchmarkApi {
+	@GET("/items/{count}")
+	CompletableFuture<List<Payloads.Item>> itemsAsync(@Path("count") int count);
+}
@@ -0,0 +1,42 @@
+package io.github.itech_framework.api_client.benchmarks;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic JSON documents for the benchmarks. Item counts of 1, 100 and
+ * 10000 give payloads of roughly 150 bytes, 15 KB and 1.5 MB.
+ */
+public final class Payloads {
+	private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+	private Payloads() {
+	}
+
+	public static List<Item> items(int count) {
+		List<Item> items = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Item item = new Item();
+			item.id = i;
+			item.name = "item-" + i;
+			item.description = "Benchmark item number " + i + " with a short description";
+			item.price = i * 1.25;
+			item.available = i % 3 != 0;
+			item.tags = List.of("tag-" + i % 7, "tag-" + i % 11);
+			item.updated = EPOCH.plusSeconds(i);
+			items.add(item);
+		}
+		return items;
+	}
+
+	public static class Item {
+		public long id;
+		public String name;
+		public String description;
+		public double price;
+		public boolean available;
+		public List<String> tags;
+		public Instant updated;
+	}
+}
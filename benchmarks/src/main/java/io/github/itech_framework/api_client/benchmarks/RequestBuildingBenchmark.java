@@ -0,0 +1,112 @@
+package io.github.itech_framework.api_client.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.methods.HttpUriRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.itech_framework.api_client.handlers.MethodPlan;
+
+/**
+ * Turning call arguments into a request: URI expansion, then static,
+ * per-call and authentication headers. The OAuth2 variant includes the token
+ * lookup on the cache hit path; its token is fetched from the
+ * {@link StubServer} once during setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RequestBuildingBenchmark {
+	private final Object[] countArgs = { 100 };
+	private final Object[] searchArgs = { 100, "name with spaces & symbols", List.of("red", "green", "blue"),
+			Map.of("X-Request-Id", "0af7651916cd43dd8448eb211c80319c", "X-Tenant", "benchmark") };
+
+	private StubServer server;
+	private MethodPlan items;
+	private MethodPlan search;
+	private MethodPlan basic;
+	private MethodPlan apiKey;
+	private MethodPlan bearer;
+	private MethodPlan oauth2;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		server = StubServer.start();
+		items = compile("items", int.class);
+		search = compile("search", int.class, String.class, List.class, Map.class);
+		basic = compile("basic", int.class);
+		apiKey = compile("apiKey", int.class);
+		bearer = compile("bearer", int.class);
+		oauth2 = compile("oauth2", int.class);
+		build(oauth2, countArgs);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		server.close();
+	}
+
+	@Benchmark
+	public HttpUriRequest uri() {
+		return items.createRequest(countArgs);
+	}
+
+	@Benchmark
+	public HttpUriRequest uriWithQuery() {
+		return search.createRequest(searchArgs);
+	}
+
+	@Benchmark
+	public HttpUriRequest headers() throws IOException {
+		return build(search, searchArgs);
+	}
+
+	@Benchmark
+	public HttpUriRequest basicAuth() throws IOException {
+		return build(basic, countArgs);
+	}
+
+	@Benchmark
+	public HttpUriRequest apiKeyAuth() throws IOException {
+		return build(apiKey, countArgs);
+	}
+
+	@Benchmark
+	public HttpUriRequest bearerAuth() throws IOException {
+		return build(bearer, countArgs);
+	}
+
+	@Benchmark
+	public HttpUriRequest oauth2Auth() throws IOException {
+		return build(oauth2, countArgs);
+	}
+
+	private static HttpUriRequest build(MethodPlan plan, Object[] args) throws IOException {
+		HttpUriRequest request = plan.createRequest(args);
+		plan.bindBody(args, request);
+		plan.bindHeaders(args, request);
+		return request;
+	}
+
+	private static MethodPlan compile(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+		return MethodPlan.compile(BenchmarkApi.class, StubServer.BASE_URL,
+				BenchmarkApi.class.getMethod(name, parameterTypes));
+	}
+}
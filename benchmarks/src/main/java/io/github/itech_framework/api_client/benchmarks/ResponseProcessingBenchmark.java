@@ -0,0 +1,91 @@
+package io.github.itech_framework.api_client.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicHttpResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import io.github.itech_framework.api_client.events.ApiCallContext;
+import io.github.itech_framework.api_client.events.ApiEventListener;
+import io.github.itech_framework.api_client.handlers.ApiClientInvocationHandler;
+import io.github.itech_framework.api_client.handlers.MethodPlan;
+import io.github.itech_framework.api_client.utils.JsonUtils;
+
+/**
+ * The handler's {@code processResponse} on an in-memory response, which
+ * separates status, content type and charset handling plus decoding from the
+ * transport. {@link #processTimed} adds the body and decode timing done while
+ * event listeners are registered.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ResponseProcessingBenchmark {
+	@Param({ "1", "100", "10000" })
+	private int count;
+
+	private ApiClientInvocationHandler handler;
+	private MethodHandle processResponse;
+	private HttpResponse response;
+	private TypeReference<Object> responseType;
+	private Method method;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		handler = new ApiClientInvocationHandler(BenchmarkApi.class);
+		processResponse = MethodHandles.privateLookupIn(ApiClientInvocationHandler.class, MethodHandles.lookup())
+				.findVirtual(ApiClientInvocationHandler.class, "processResponse", MethodType.methodType(Object.class,
+						HttpResponse.class, TypeReference.class, ApiCallContext.class))
+				.bindTo(handler);
+		method = BenchmarkApi.class.getMethod("items", int.class);
+		responseType = MethodPlan.compile(BenchmarkApi.class, StubServer.BASE_URL, method).getResponseType();
+
+		// a repeatable entity, so the same response can be processed again and again
+		byte[] body = JsonUtils.toJson(Payloads.items(count)).getBytes(StandardCharsets.UTF_8);
+		response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+		response.setEntity(new ByteArrayEntity(body, ContentType.APPLICATION_JSON));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		handler.close();
+	}
+
+	@Benchmark
+	public Object process() throws Throwable {
+		return processResponse.invoke(response, responseType, (ApiCallContext) null);
+	}
+
+	@Benchmark
+	public Object processTimed() throws Throwable {
+		ApiCallContext call = new ApiCallContext(BenchmarkApi.class.getSimpleName(), method, "GET", "/items/{count}",
+				new ApiEventListener[0]);
+		return processResponse.invoke(response, responseType, call);
+	}
+}
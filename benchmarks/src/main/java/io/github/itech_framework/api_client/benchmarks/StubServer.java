@@ -0,0 +1,168 @@
+package io.github.itech_framework.api_client.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.itech_framework.api_client.utils.JsonUtils;
+
+/**
+ * In-process HTTP server the benchmarks call, so round trips include the
+ * client's transport without network noise. Listens on the loopback interface
+ * at {@link #PORT} and serves
+ * <ul>
+ * <li>{@code /items/{count}}: a JSON array of {@code count} {@link Payloads.Item}s,
+ * serialized once and cached, delayed and failed as the {@link Profile} says</li>
+ * <li>{@code /token}: an OAuth2 client credentials token valid for an hour</li>
+ * </ul>
+ * Run {@link #main} to serve from a separate process, which keeps the server's
+ * allocations and CPU time out of the client's measurements.
+ */
+public final class StubServer implements AutoCloseable {
+	public static final int PORT = 18080;
+	public static final String BASE_URL = "http://localhost:" + PORT;
+	public static final String TOKEN_URL = BASE_URL + "/token";
+
+	private static final byte[] TOKEN = "{\"access_token\":\"benchmark-token\",\"token_type\":\"Bearer\",\"expires_in\":3600}"
+			.getBytes(StandardCharsets.UTF_8);
+	private static final byte[] UNAVAILABLE = "{\"error\":\"unavailable\"}".getBytes(StandardCharsets.UTF_8);
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final Profile profile;
+	private final Map<Integer, byte[]> items = new ConcurrentHashMap<>();
+	private final AtomicInteger tokenRequests = new AtomicInteger();
+
+	private StubServer(HttpServer server, ExecutorService executor, Profile profile) {
+		this.server = server;
+		this.executor = executor;
+		this.profile = profile;
+	}
+
+	public static void main(String[] args) {
+		Profile profile = Profile.fromSystemProperties();
+		StubServer stub = start(profile);
+		Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+		System.out.println("Serving " + BASE_URL + " with " + profile);
+	}
+
+	public static StubServer start() {
+		return start(Profile.NONE);
+	}
+
+	public static StubServer start(Profile profile) {
+		// headers and body are written separately, with Nagle the body waits for the client's delayed ACK
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		try {
+			HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), PORT), 1024);
+			// delayed responses sleep, which needs a thread per request in flight
+			ExecutorService executor = profile.isDelayed() ? Executors.newCachedThreadPool()
+					: Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+			StubServer stub = new StubServer(server, executor, profile);
+			server.createContext("/items/", stub::items);
+			server.createContext("/token", stub::token);
+			server.setExecutor(executor);
+			server.start();
+			return stub;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot start stub server on port " + PORT, e);
+		}
+	}
+
+	/**
+	 * Number of requests the token endpoint has served.
+	 */
+	public int getTokenRequests() {
+		return tokenRequests.get();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void items(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		int count;
+		try {
+			count = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+		} catch (NumberFormatException e) {
+			send(exchange, 404, new byte[0]);
+			return;
+		}
+		if (profile.isDelayed()) {
+			try {
+				Thread.sleep(profile.nextDelayMillis());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				exchange.close();
+				return;
+			}
+		}
+		if (profile.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < profile.errorRate()) {
+			send(exchange, 503, UNAVAILABLE);
+			return;
+		}
+		send(exchange, 200, items.computeIfAbsent(count,
+				size -> JsonUtils.toJson(Payloads.items(size)).getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private void token(HttpExchange exchange) throws IOException {
+		tokenRequests.incrementAndGet();
+		send(exchange, 200, TOKEN);
+	}
+
+	private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+		try (exchange) {
+			try (InputStream in = exchange.getRequestBody()) {
+				in.transferTo(OutputStream.nullOutputStream());
+			}
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+			if (body.length > 0) {
+				exchange.getResponseBody().write(body);
+			}
+		}
+	}
+
+	/**
+	 * Behaviour of the item endpoint: every response waits a fixed latency plus
+	 * an exponentially distributed jitter with the given mean, then fails with
+	 * 503 at the given rate. Read from the system properties
+	 * {@code stub.latency} and {@code stub.jitter} in milliseconds and
+	 * {@code stub.errorRate} between 0 and 1.
+	 */
+	public record Profile(long latencyMillis, long jitterMillis, double errorRate) {
+		public static final Profile NONE = new Profile(0, 0, 0);
+
+		public static Profile fromSystemProperties() {
+			return new Profile(Long.getLong("stub.latency", 0), Long.getLong("stub.jitter", 0),
+					Double.parseDouble(System.getProperty("stub.errorRate", "0")));
+		}
+
+		boolean isDelayed() {
+			return latencyMillis > 0 || jitterMillis > 0;
+		}
+
+		long nextDelayMillis() {
+			if (jitterMillis == 0) {
+				return latencyMillis;
+			}
+			return latencyMillis + Math.round(-jitterMillis * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+		}
+	}
+}
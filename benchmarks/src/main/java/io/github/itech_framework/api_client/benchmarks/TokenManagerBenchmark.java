@@ -0,0 +1,64 @@
+package io.github.itech_framework.api_client.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.itech_framework.api_client.annotations.authentications.OAuth2;
+import io.github.itech_framework.api_client.auth.TokenManager;
+
+/**
+ * {@link TokenManager#getToken} with a cached token, alone and with many
+ * threads asking at once as they do when every call of a busy client needs the
+ * token. The token is fetched from the {@link StubServer} once during setup and
+ * stays valid for the whole run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TokenManagerBenchmark {
+	private StubServer server;
+	private OAuth2 config;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		server = StubServer.start();
+		config = BenchmarkApi.class.getMethod("oauth2", int.class).getAnnotation(OAuth2.class);
+		TokenManager.getToken(config);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if (server.getTokenRequests() != 1) {
+			throw new IllegalStateException("Expected one token request, the stub served "
+					+ server.getTokenRequests());
+		}
+		server.close();
+	}
+
+	@Benchmark
+	public String getToken() {
+		return TokenManager.getToken(config);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public String getTokenContended() {
+		return TokenManager.getToken(config);
+	}
+}
@@ -0,0 +1,360 @@
+package io.github.itech_framework.api_client.codegen;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.IntersectionType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates a plain implementation of every {@code @ApiClient} interface,
+ * named after the interface with the suffix {@code _Impl}. Each generated
+ * method passes its arguments straight to the compiled plan of the method, so
+ * calls skip the proxy, the reflective dispatch and the per-call method
+ * lookup while request binding, resilience, caching and metrics stay exactly
+ * as with the proxy.
+ * <p>
+ * Methods inherited from generic super-interfaces are implemented with their
+ * type arguments, and a method inherited from several super-interfaces is
+ * implemented once. Generic, private and non-interface types, and interfaces
+ * that inherit an HTTP method from more than one interface, are skipped and
+ * keep using the proxy.
+ */
+@SupportedAnnotationTypes(ApiClientGenerator.API_CLIENT)
+public class ApiClientGenerator extends AbstractProcessor {
+	static final String API_CLIENT = "io.github.itech_framework.api_client.annotations.ApiClient";
+
+	// must match GeneratedApiClient.SUFFIX
+	private static final String SUFFIX = "_Impl";
+	private static final String BASE = "io.github.itech_framework.api_client.handlers.GeneratedApiClient";
+	private static final String HANDLER = "io.github.itech_framework.api_client.handlers.ApiClientInvocationHandler";
+	private static final String PLAN = "io.github.itech_framework.api_client.handlers.MethodPlan";
+	private static final String HTTP_METHODS = "io.github.itech_framework.api_client.annotations.methods.";
+	private static final Set<String> HTTP_METHOD_ANNOTATIONS = Set.of(HTTP_METHODS + "GET", HTTP_METHODS + "POST",
+			HTTP_METHODS + "PUT", HTTP_METHODS + "DELETE", HTTP_METHODS + "OPTION");
+	private static final Set<String> OBJECT_METHODS = Set.of("toString", "hashCode", "equals");
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() != ElementKind.INTERFACE) {
+					continue;
+				}
+				TypeElement api = (TypeElement) element;
+				List<Member> members = new ArrayList<>();
+				String reason = unsupported(api);
+				if (reason == null) {
+					reason = collectMembers(api, members);
+				}
+				if (reason != null) {
+					processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+							"No client generated for " + api + " because " + reason + ", it uses a proxy", api);
+					continue;
+				}
+				try {
+					generate(api, members);
+				} catch (IOException e) {
+					processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+							"Cannot generate client for " + api + ": " + e.getMessage(), api);
+				}
+			}
+		}
+		return false;
+	}
+
+	private static String unsupported(TypeElement api) {
+		if (!api.getTypeParameters().isEmpty()) {
+			return "it is generic";
+		}
+		for (Element element = api; element instanceof TypeElement; element = element.getEnclosingElement()) {
+			if (element.getModifiers().contains(Modifier.PRIVATE)) {
+				return "it is not accessible from its package";
+			}
+		}
+		return null;
+	}
+
+	// methods typed as members of the API interface, one per signature; returns why there is no client, or null
+	private String collectMembers(TypeElement api, List<Member> members) {
+		Types types = processingEnv.getTypeUtils();
+		DeclaredType apiType = (DeclaredType) api.asType();
+		for (ExecutableElement method : ElementFilter
+				.methodsIn(processingEnv.getElementUtils().getAllMembers(api))) {
+			if (!isImplemented(method)) {
+				continue;
+			}
+			ExecutableType type = (ExecutableType) types.asMemberOf(apiType, method);
+			Member member = new Member(method, type, type.getReturnType(), List.copyOf(type.getThrownTypes()));
+			int same = -1;
+			for (int i = 0; i < members.size() && same < 0; i++) {
+				if (members.get(i).isOverrideEquivalent(member, types)) {
+					same = i;
+				}
+			}
+			if (same < 0) {
+				members.add(member);
+				continue;
+			}
+			Member other = members.get(same);
+			// reflection resolves the signature to only one of them, which need not be the HTTP method
+			if (isHttpMethod(method) || isHttpMethod(other.method())) {
+				return "it inherits " + method.getSimpleName() + " from more than one interface";
+			}
+			// neither is sent as a request, one implementation that returns the more specific type covers both
+			TypeMirror returnType = types.isSubtype(member.returnType(), other.returnType()) ? member.returnType()
+					: other.returnType();
+			members.set(same, new Member(other.method(), other.type(), returnType, commonExceptions(member, other)));
+		}
+		return null;
+	}
+
+	// the checked exceptions an implementation of both methods may throw
+	private List<TypeMirror> commonExceptions(Member first, Member second) {
+		List<TypeMirror> result = new ArrayList<>();
+		for (TypeMirror type : first.thrown()) {
+			if (isUnchecked(type) || second.thrown().stream().anyMatch(other -> isSubtype(type, other))) {
+				result.add(type);
+			}
+		}
+		for (TypeMirror type : second.thrown()) {
+			if (!isUnchecked(type) && first.thrown().stream().anyMatch(other -> isSubtype(type, other))
+					&& result.stream().noneMatch(other -> processingEnv.getTypeUtils().isSameType(type, other))) {
+				result.add(type);
+			}
+		}
+		return result;
+	}
+
+	private void generate(TypeElement api, List<Member> members) throws IOException {
+		PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(api);
+		String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(api).toString();
+		String className = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+				.replace('$', '_') + SUFFIX;
+		String apiName = api.getQualifiedName().toString();
+
+		String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+		try (PrintWriter out = new PrintWriter(
+				processingEnv.getFiler().createSourceFile(qualifiedName, api).openWriter())) {
+			if (!packageName.isEmpty()) {
+				out.println("package " + packageName + ";");
+				out.println();
+			}
+			out.println("// Generated from " + apiName + ", do not edit");
+			if (processingEnv.getElementUtils().getTypeElement("javax.annotation.processing.Generated") != null) {
+				out.println("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")");
+			}
+			out.println("@SuppressWarnings(\"unchecked\")");
+			out.println("public final class " + className + " extends " + BASE + " implements " + apiName + " {");
+			for (int i = 0; i < members.size(); i++) {
+				if (isHttpMethod(members.get(i).method())) {
+					out.println("\tprivate final " + PLAN + " plan" + i + ";");
+				}
+			}
+			out.println();
+			out.println("\tpublic " + className + "(" + HANDLER + " handler) {");
+			out.println("\t\tsuper(" + apiName + ".class, handler);");
+			for (int i = 0; i < members.size(); i++) {
+				ExecutableElement method = members.get(i).method();
+				if (isHttpMethod(method)) {
+					// reflection finds inherited methods by their declared, erased parameter types
+					out.println("\t\tthis.plan" + i + " = methodPlan(\"" + method.getSimpleName() + "\""
+							+ method.getParameters().stream()
+									.map(parameter -> ", " + erasure(parameter.asType()) + ".class")
+									.collect(Collectors.joining())
+							+ ");");
+				}
+			}
+			out.println("\t}");
+			for (int i = 0; i < members.size(); i++) {
+				out.println();
+				writeMethod(out, members.get(i), i);
+			}
+			out.println("}");
+		}
+	}
+
+	// abstract methods and default methods the proxy would have sent as requests
+	private boolean isImplemented(ExecutableElement method) {
+		if (method.getEnclosingElement().getKind() != ElementKind.INTERFACE
+				|| method.getModifiers().contains(Modifier.STATIC)) {
+			return false;
+		}
+		if (isHttpMethod(method)) {
+			return true;
+		}
+		// the base class implements the methods of Object
+		return method.getModifiers().contains(Modifier.ABSTRACT)
+				&& !OBJECT_METHODS.contains(method.getSimpleName().toString());
+	}
+
+	private static boolean isHttpMethod(ExecutableElement method) {
+		for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+			TypeElement type = (TypeElement) annotation.getAnnotationType().asElement();
+			if (HTTP_METHOD_ANNOTATIONS.contains(type.getQualifiedName().toString())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void writeMethod(PrintWriter out, Member member, int index) {
+		ExecutableElement method = member.method();
+		ExecutableType type = member.type();
+		List<? extends VariableElement> parameters = method.getParameters();
+		List<String> names = parameters.stream().map(parameter -> parameter.getSimpleName().toString())
+				.collect(Collectors.toList());
+		String caught = "e";
+		while (names.contains(caught)) {
+			caught = caught + "_";
+		}
+
+		StringBuilder signature = new StringBuilder("\tpublic ");
+		if (!type.getTypeVariables().isEmpty()) {
+			signature.append(type.getTypeVariables().stream().map(ApiClientGenerator::typeParameter)
+					.collect(Collectors.joining(", ", "<", "> ")));
+		}
+		signature.append(member.returnType()).append(' ').append(method.getSimpleName()).append('(');
+		for (int i = 0; i < parameters.size(); i++) {
+			TypeMirror parameterType = type.getParameterTypes().get(i);
+			if (i > 0) {
+				signature.append(", ");
+			}
+			if (method.isVarArgs() && i == parameters.size() - 1) {
+				signature.append(((ArrayType) parameterType).getComponentType()).append("...");
+			} else {
+				signature.append(parameterType);
+			}
+			signature.append(' ').append(names.get(i));
+		}
+		signature.append(')');
+		List<TypeMirror> thrown = declaredExceptions(member.thrown());
+		if (!member.thrown().isEmpty()) {
+			signature.append(member.thrown().stream().map(TypeMirror::toString)
+					.collect(Collectors.joining(", ", " throws ", "")));
+		}
+
+		out.println("\t@Override");
+		out.println(signature + " {");
+		if (!isHttpMethod(method)) {
+			out.println("\t\tthrow notAnHttpMethod(\"" + method.getSimpleName() + "\");");
+			out.println("\t}");
+			return;
+		}
+
+		// fields are qualified so parameters of the same name do not hide them
+		String arguments = names.isEmpty() ? "NO_ARGS"
+				: names.stream().collect(Collectors.joining(", ", "new Object[] { ", " }"));
+		String call = "this.handler.call(this.plan" + index + ", " + arguments + ")";
+		TypeMirror returnType = member.returnType();
+		out.println("\t\ttry {");
+		if (returnType.getKind() == TypeKind.VOID) {
+			out.println("\t\t\t" + call + ";");
+		} else if (returnType.getKind().isPrimitive()) {
+			out.println("\t\t\treturn (" + processingEnv.getTypeUtils().boxedClass((PrimitiveType) returnType)
+					.getQualifiedName() + ") " + call + ";");
+		} else {
+			out.println("\t\t\treturn (" + returnType + ") " + call + ";");
+		}
+		out.println("\t\t} catch (RuntimeException | Error " + caught + ") {");
+		out.println("\t\t\tthrow " + caught + ";");
+		boolean throwsAll = false;
+		for (TypeMirror exception : thrown) {
+			if (exception.toString().equals("java.lang.Throwable")) {
+				throwsAll = true;
+				continue;
+			}
+			out.println("\t\t} catch (" + exception + " " + caught + ") {");
+			out.println("\t\t\tthrow " + caught + ";");
+		}
+		// as the proxy does, checked exceptions the method does not declare are wrapped
+		out.println("\t\t} catch (Throwable " + caught + ") {");
+		out.println(throwsAll ? "\t\t\tthrow " + caught + ";"
+				: "\t\t\tthrow new java.lang.reflect.UndeclaredThrowableException(" + caught + ");");
+		out.println("\t\t}");
+		out.println("\t}");
+	}
+
+	// declared checked exceptions that need a catch of their own, leaving out those another one covers
+	private List<TypeMirror> declaredExceptions(List<TypeMirror> thrownTypes) {
+		Types types = processingEnv.getTypeUtils();
+		List<TypeMirror> result = new ArrayList<>();
+		for (TypeMirror type : thrownTypes) {
+			if (isUnchecked(type)) {
+				continue;
+			}
+			boolean covered = thrownTypes.stream()
+					.anyMatch(other -> isSubtype(type, other) && !types.isSameType(type, other));
+			if (!covered && result.stream().noneMatch(other -> types.isSameType(type, other))) {
+				result.add(type);
+			}
+		}
+		return result;
+	}
+
+	private boolean isUnchecked(TypeMirror type) {
+		return isSubtype(type, processingEnv.getElementUtils().getTypeElement("java.lang.RuntimeException").asType())
+				|| isSubtype(type, processingEnv.getElementUtils().getTypeElement("java.lang.Error").asType());
+	}
+
+	private boolean isSubtype(TypeMirror type, TypeMirror supertype) {
+		return processingEnv.getTypeUtils().isSubtype(processingEnv.getTypeUtils().erasure(type),
+				processingEnv.getTypeUtils().erasure(supertype));
+	}
+
+	private String erasure(TypeMirror type) {
+		return processingEnv.getTypeUtils().erasure(type).toString();
+	}
+
+	private static String typeParameter(TypeVariable parameter) {
+		TypeMirror bound = parameter.getUpperBound();
+		List<? extends TypeMirror> bounds = bound.getKind() == TypeKind.INTERSECTION
+				? ((IntersectionType) bound).getBounds()
+				: List.of(bound);
+		String name = parameter.asElement().getSimpleName().toString();
+		if (bounds.size() == 1 && bounds.get(0).toString().equals("java.lang.Object")) {
+			return name;
+		}
+		return name + " extends " + bounds.stream().map(TypeMirror::toString).collect(Collectors.joining(" & "));
+	}
+
+	// a method to implement, typed as a member of the API interface
+	private record Member(ExecutableElement method, ExecutableType type, TypeMirror returnType,
+			List<TypeMirror> thrown) {
+		boolean isOverrideEquivalent(Member other, Types types) {
+			return method.getSimpleName().equals(other.method.getSimpleName())
+					&& (types.isSubsignature(type, other.type) || types.isSubsignature(other.type, type));
+		}
+	}
+}
@@ -1,5 +1,8 @@
 package io.github.itech_framework.api_client.annotations;
 
+import io.github.itech_framework.api_client.utils.enums.AsyncTransport;
+import io.github.itech_framework.api_client.utils.enums.ExecutorType;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -9,4 +12,44 @@ import java.lang.annotation.Target;
 @Target(ElementType.TYPE)
 public @interface ApiClient {
     String baseUrl() default "";
+
+    /**
+     * Share the process-wide connection pool (default). When {@code false} the
+     * client gets a dedicated pool sized by the attributes below.
+     */
+    boolean sharedPool() default true;
+
+    /** Maximum connections of a dedicated pool, {@code -1} uses {@code flexi.api.pool.maxTotal}. */
+    int maxConnections() default -1;
+
+    /**
+     * Maximum connections to this client's base URL, {@code -1} uses {@code flexi.api.pool.maxPerRoute}.
+     * Clients sharing a pool and a base URL get the largest of their values.
+     */
+    int maxConnectionsPerRoute() default -1;
+
+    /** Connection time-to-live of a dedicated pool in milliseconds, {@code -1} uses {@code flexi.api.pool.ttl}. */
+    long connectionTtl() default -1;
+
+    /**
+     * Executor strategy for {@code CompletableFuture} methods, {@code DEFAULT} uses
+     * {@code flexi.api.executor.type}.
+     */
+    ExecutorType executorType() default ExecutorType.DEFAULT;
+
+    /** Platform pool size, {@code -1} uses {@code flexi.api.executor.threads}. */
+    int executorThreads() default -1;
+
+    /**
+     * Name of an {@code ExecutorService} component to run asynchronous calls on.
+     * The executor is owned by the application and is not shut down by the client.
+     */
+    String executor() default "";
+
+    /**
+     * Transport for {@code CompletableFuture} methods: {@code EXECUTOR} runs the blocking client on
+     * the executor, {@code NON_BLOCKING} uses non-blocking I/O. {@code DEFAULT} uses
+     * {@code flexi.api.async.transport}, falling back to {@code EXECUTOR}.
+     */
+    AsyncTransport asyncTransport() default AsyncTransport.DEFAULT;
 }
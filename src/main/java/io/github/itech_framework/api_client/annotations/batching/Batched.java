@@ -0,0 +1,41 @@
+package io.github.itech_framework.api_client.annotations.batching;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Routes calls of a single-item method through a bulk method of the same client. The annotated
+ * method must take exactly one parameter, the key. Keys collected within {@link #maxDelay()} or up
+ * to {@link #maxSize()} are de-duplicated and sent as one call to the bulk method, which takes the
+ * keys as its only {@code List}, {@code Set} or {@code Collection} parameter.
+ *
+ * <p>The bulk response is split back to the callers by key: a {@code Map} is looked up by key, a
+ * list is matched on {@link #keyProperty()} or, when none is given, by position. Keys missing from
+ * the response complete with {@code null}.
+ *
+ * <pre>
+ * &#64;GET("/items/{id}")
+ * &#64;Batched("batchGet")
+ * CompletableFuture&lt;Item&gt; getItem(&#64;Path("id") String id);
+ *
+ * &#64;POST("/items:batchGet")
+ * List&lt;Item&gt; batchGet(&#64;Body List&lt;String&gt; ids);
+ * </pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Batched {
+    /** Name of the bulk method. */
+    String value();
+
+    /** Property of the returned elements holding their key. */
+    String keyProperty() default "";
+
+    /** Maximum number of keys per bulk call. */
+    int maxSize() default 100;
+
+    /** Maximum time in milliseconds a key waits for its batch to fill up. */
+    long maxDelay() default 5;
+}
@@ -0,0 +1,34 @@
+package io.github.itech_framework.api_client.annotations.caching;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Enables the client-side HTTP cache for {@code GET} methods, on a single method or on every
+ * method of an {@code @ApiClient}. Responses are cached according to {@code Cache-Control},
+ * {@code Expires} and {@code Vary}, and stale entries are revalidated with {@code If-None-Match}
+ * / {@code If-Modified-Since}.
+ *
+ * <p>Cached results are returned to every caller as the same instance and must be treated as
+ * read-only.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Cached {
+    /** Set to {@code false} on a method to exclude it from a type-level cache. */
+    boolean value() default true;
+
+    /**
+     * Maximum number of entries, {@code -1} uses {@code flexi.api.cache.maxEntries}. Read from the
+     * type-level annotation.
+     */
+    int maxEntries() default -1;
+
+    /**
+     * Maximum total body size in bytes, {@code -1} uses {@code flexi.api.cache.maxBytes}. Read from
+     * the type-level annotation.
+     */
+    long maxBytes() default -1;
+}
@@ -0,0 +1,18 @@
+package io.github.itech_framework.api_client.annotations.caching;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Coalesces concurrent identical {@code GET} calls, on a single method or on every method of an
+ * {@code @ApiClient}. Calls with the same resolved URI and request headers that overlap in time
+ * share one HTTP exchange and receive the same decoded result or the same exception.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Coalesced {
+    /** Set to {@code false} on a method to exclude it from type-level coalescing. */
+    boolean value() default true;
+}
@@ -8,4 +8,9 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.PARAMETER)
 public @interface Body {
+    /**
+     * Media type of the body. {@code Stream}, {@code Iterator} and {@code Iterable} bodies are
+     * written as a JSON array, or one document per line for {@code application/x-ndjson}.
+     */
+    String contentType() default "application/json";
 }
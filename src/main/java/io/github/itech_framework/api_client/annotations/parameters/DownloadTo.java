@@ -0,0 +1,16 @@
+package io.github.itech_framework.api_client.annotations.parameters;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the {@code Path}, {@code File} or {@code String} parameter naming the file a
+ * {@code Path} returning method downloads the response body to. Without it the body is
+ * written to a temporary file.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface DownloadTo {
+}
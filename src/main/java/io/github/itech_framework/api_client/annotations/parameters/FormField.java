@@ -0,0 +1,16 @@
+package io.github.itech_framework.api_client.annotations.parameters;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sends the parameter as a form field. Fields are URL-encoded unless the method also has
+ * {@link Part} parameters, in which case they become text parts of the multipart body.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface FormField {
+    String value();
+}
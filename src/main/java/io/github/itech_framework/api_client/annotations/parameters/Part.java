@@ -0,0 +1,23 @@
+package io.github.itech_framework.api_client.annotations.parameters;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sends the parameter as a part of a {@code multipart/form-data} body. Accepts {@code Path},
+ * {@code File}, {@code InputStream}, {@code byte[]}, text values and POJOs (sent as JSON), or a
+ * collection of those for repeated parts.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface Part {
+    String value();
+
+    /** File name of the part, defaults to the file's name for {@code Path} and {@code File} values. */
+    String filename() default "";
+
+    /** Content type of the part, derived from the value type when empty. */
+    String contentType() default "";
+}
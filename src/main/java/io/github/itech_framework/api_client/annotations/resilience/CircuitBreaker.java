@@ -0,0 +1,41 @@
+package io.github.itech_framework.api_client.annotations.resilience;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Guards calls with a circuit breaker. On an {@code @ApiClient} interface one breaker is shared by
+ * all methods of the client; on a method the method gets a breaker of its own, keyed by its route.
+ *
+ * <p>The breaker opens when, over the last {@link #windowSize()} calls, the share of failures
+ * (I/O errors and 5xx responses) or of calls slower than {@link #slowCallDuration()} reaches its
+ * threshold. While open, calls fail with {@code CircuitBreakerOpenException} without touching the
+ * network. After {@link #openDuration()} a few trial calls are let through to decide whether to
+ * close it again.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface CircuitBreaker {
+    /** Failure rate in percent at which the breaker opens. */
+    int failureRateThreshold() default 50;
+
+    /** Slow call rate in percent at which the breaker opens, {@code 100} only trips when every call is slow. */
+    int slowCallRateThreshold() default 100;
+
+    /** Duration in milliseconds above which a call counts as slow. */
+    long slowCallDuration() default 10_000;
+
+    /** Number of most recent calls the rates are computed over. */
+    int windowSize() default 100;
+
+    /** Minimum number of recorded calls before the rates are evaluated. */
+    int minimumCalls() default 20;
+
+    /** Time in milliseconds the breaker stays open before trial calls are allowed. */
+    long openDuration() default 30_000;
+
+    /** Number of trial calls in the half-open state. */
+    int halfOpenCalls() default 5;
+}
@@ -0,0 +1,30 @@
+package io.github.itech_framework.api_client.annotations.resilience;
+
+import io.github.itech_framework.api_client.utils.enums.LimitAlgorithm;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Bounds the number of in-flight calls with a limit that adapts to the observed round-trip times
+ * and overload signals (I/O errors, 429 and 5xx responses). On an {@code @ApiClient} interface the
+ * limit is shared by all methods of the client; on a method the method gets a limit of its own.
+ * Calls over the limit wait up to {@link #maxQueueWait()} for a slot and then fail with
+ * {@code ConcurrencyLimitExceededException}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface ConcurrencyLimit {
+    LimitAlgorithm algorithm() default LimitAlgorithm.GRADIENT;
+
+    int initialLimit() default 20;
+
+    int minLimit() default 1;
+
+    int maxLimit() default 200;
+
+    /** Maximum time in milliseconds a call waits for a slot, {@code 0} rejects immediately. */
+    long maxQueueWait() default 0;
+}
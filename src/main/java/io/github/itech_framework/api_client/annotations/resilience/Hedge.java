@@ -0,0 +1,34 @@
+package io.github.itech_framework.api_client.annotations.resilience;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sends a second, identical request when the first has not answered within a delay, and returns
+ * whichever response arrives first; the other request is aborted. Only idempotent methods
+ * ({@code GET}, {@code PUT}, {@code DELETE}, {@code OPTIONS}) whose result is fully read before it
+ * is returned can be hedged. On an {@code @ApiClient} interface other methods are skipped.
+ *
+ * <p>The delay is either fixed or the observed {@link #percentile()} latency of the method. The
+ * extra requests are capped at {@link #budgetPercent()} percent of the method's calls.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Hedge {
+    /** Fixed hedge delay in milliseconds, {@code -1} derives it from {@link #percentile()}. */
+    long delay() default -1;
+
+    /** Latency percentile used as the hedge delay. */
+    int percentile() default 95;
+
+    /** Lower bound of the derived delay in milliseconds, also used until enough latencies are known. */
+    long minDelay() default 10;
+
+    /** Maximum number of extra requests per call. */
+    int maxHedges() default 1;
+
+    /** Extra requests allowed per 100 calls. */
+    int budgetPercent() default 10;
+}
@@ -0,0 +1,34 @@
+package io.github.itech_framework.api_client.annotations.resilience;
+
+import io.github.itech_framework.api_client.utils.enums.RateLimitMode;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits calls to {@link #permits()} per {@link #period()}, allowing bursts of up to
+ * {@code permits} calls. On an {@code @ApiClient} interface the limit is shared by all methods of
+ * the client; on a method the method gets a limit of its own. Calls that cannot be admitted in
+ * time fail with {@code RateLimitExceededException}.
+ *
+ * <p>The limit can be overridden with {@code flexi.api.rateLimit.<name>.permits} and
+ * {@code flexi.api.rateLimit.<name>.period}, where the name is the simple name of the interface,
+ * followed by {@code .<method>} for method-level limits.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface RateLimit {
+    /** Number of calls allowed per period. */
+    int permits();
+
+    /** Length of the period in milliseconds. */
+    long period() default 1000;
+
+    /** What to do when no permit is available. */
+    RateLimitMode mode() default RateLimitMode.BLOCK;
+
+    /** Maximum wait in milliseconds for {@link RateLimitMode#TIMEOUT}. */
+    long timeout() default 1000;
+}
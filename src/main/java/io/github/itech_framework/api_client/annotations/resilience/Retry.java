@@ -0,0 +1,40 @@
+package io.github.itech_framework.api_client.annotations.resilience;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Retries failed calls with exponential backoff and full jitter, on a single method or on every
+ * method of an {@code @ApiClient}. A call is retried on I/O errors and on the listed status codes;
+ * a {@code Retry-After} header on 429/503 responses is honoured, and the call fails immediately
+ * when it asks for more than {@link #maxBackoff()}.
+ *
+ * <p>Only idempotent verbs ({@code GET}, {@code PUT}, {@code DELETE}, {@code OPTIONS}) are
+ * retried unless {@link #nonIdempotent()} is set. Retries of a client are additionally capped by
+ * the retry budget configured with {@code flexi.api.retry.budgetPercent} and
+ * {@code flexi.api.retry.minRetries}. Calls whose body is a {@code Stream}, {@code Iterator} or
+ * {@code InputStream} part are not retried, as the first attempt consumes it.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Retry {
+    /** Maximum number of attempts including the first one. */
+    int maxAttempts() default 3;
+
+    /** Backoff cap of the first retry in milliseconds. */
+    long initialBackoff() default 100;
+
+    /** Upper bound of any backoff in milliseconds. */
+    long maxBackoff() default 10_000;
+
+    /** Growth factor of the backoff cap per attempt. */
+    double multiplier() default 2.0;
+
+    /** Status codes that are retried. */
+    int[] statusCodes() default {429, 502, 503, 504};
+
+    /** Also retry {@code POST} calls. */
+    boolean nonIdempotent() default false;
+}
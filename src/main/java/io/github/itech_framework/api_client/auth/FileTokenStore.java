@@ -0,0 +1,173 @@
+package io.github.itech_framework.api_client.auth;
+
+import io.github.itech_framework.api_client.utils.JsonUtils;
+import io.github.itech_framework.core.exceptions.FrameworkException;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+/**
+ * Keeps one AES-GCM encrypted file per token in a directory. Files are replaced
+ * atomically, so readers never see a partial token, and {@link #lock(String)}
+ * takes an OS file lock that is honoured by every process using the directory.
+ * <p>
+ * The encryption key is derived from a passphrase; processes sharing the
+ * directory must be configured with the same one. A token written under another
+ * passphrase or modified on disk fails to decrypt and is treated as absent.
+ */
+public class FileTokenStore implements TokenStore {
+    private static final byte FORMAT_VERSION = 1;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    private static final byte[] KEY_SALT = "flexi-api-token-store".getBytes(StandardCharsets.UTF_8);
+
+    private final Path directory;
+    private final SecretKey secretKey;
+    private final SecureRandom random = new SecureRandom();
+    private final boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+    public FileTokenStore(Path directory, char[] passphrase) {
+        if (passphrase == null || passphrase.length == 0) {
+            throw new FrameworkException("FileTokenStore requires a non-empty passphrase");
+        }
+        this.directory = directory;
+        this.secretKey = deriveKey(passphrase);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new FrameworkException("Cannot create token store directory: " + directory, e);
+        }
+    }
+
+    @Override
+    public TokenData load(String key) throws IOException {
+        Path file = tokenFile(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (content.remaining() <= 1 + IV_LENGTH || content.get() != FORMAT_VERSION) {
+            throw new IOException("Unrecognized token file: " + file);
+        }
+        byte[] iv = new byte[IV_LENGTH];
+        content.get(iv);
+        try {
+            Cipher cipher = cipher(Cipher.DECRYPT_MODE, iv, key);
+            byte[] json = cipher.doFinal(content.array(), content.position(), content.remaining());
+            return JsonUtils.fromJson(new String(json, StandardCharsets.UTF_8), TokenData.class);
+        } catch (AEADBadTagException e) {
+            throw new IOException("Token file was written with another passphrase or modified: " + file, e);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Cannot decrypt token file: " + file, e);
+        }
+    }
+
+    @Override
+    public void save(String key, TokenData token) throws IOException {
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        byte[] encrypted;
+        try {
+            encrypted = cipher(Cipher.ENCRYPT_MODE, iv, key)
+                    .doFinal(JsonUtils.toJson(token).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Cannot encrypt token for " + key, e);
+        }
+
+        Path file = tokenFile(key);
+        Path temp = posix
+                ? Files.createTempFile(directory, file.getFileName().toString(), ".tmp",
+                        PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")))
+                : Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(1 + IV_LENGTH + encrypted.length)
+                        .put(FORMAT_VERSION).put(iv).put(encrypted).flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void remove(String key) throws IOException {
+        Files.deleteIfExists(tokenFile(key));
+    }
+
+    // File locks are held per process, callers within one JVM must not lock the same key concurrently
+    @Override
+    public Lock lock(String key) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(fileName(key) + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            FileLock fileLock = channel.lock();
+            return () -> {
+                try {
+                    fileLock.release();
+                } finally {
+                    channel.close();
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private Cipher cipher(int mode, byte[] iv, String key) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(mode, secretKey, new GCMParameterSpec(TAG_BITS, iv));
+        // binds the content to its key, so token files cannot be swapped between clients
+        cipher.updateAAD(key.getBytes(StandardCharsets.UTF_8));
+        return cipher;
+    }
+
+    private Path tokenFile(String key) {
+        return directory.resolve(fileName(key) + ".token");
+    }
+
+    private static String fileName(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new FrameworkException("SHA-256 is not available", e);
+        }
+    }
+
+    private static SecretKey deriveKey(char[] passphrase) {
+        try {
+            SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+            byte[] encoded = factory.generateSecret(new PBEKeySpec(passphrase, KEY_SALT, 65536, 256)).getEncoded();
+            return new SecretKeySpec(encoded, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new FrameworkException("Cannot derive token store key", e);
+        }
+    }
+}
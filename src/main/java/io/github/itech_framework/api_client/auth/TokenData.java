@@ -0,0 +1,28 @@
+package io.github.itech_framework.api_client.auth;
+
+import java.time.Instant;
+
+/**
+ * An OAuth2 access token together with the refresh token issued with it.
+ *
+ * @param accessToken  the bearer token sent with requests
+ * @param refreshToken the refresh token, {@code null} if the server issued none
+ * @param expiration   the instant after which the access token is no longer used
+ * @param refreshAt    the instant after which the token is replaced in the background
+ */
+public record TokenData(
+        String accessToken,
+        String refreshToken,
+        Instant expiration,
+        Instant refreshAt
+) {
+    public TokenData {
+        if (accessToken == null || accessToken.isEmpty()) {
+            throw new IllegalArgumentException("Invalid token data");
+        }
+    }
+
+    public boolean isExpired() {
+        return Instant.now().isAfter(expiration);
+    }
+}
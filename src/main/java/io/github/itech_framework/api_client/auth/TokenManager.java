@@ -2,53 +2,304 @@ package io.github.itech_framework.api_client.auth;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import io.github.itech_framework.api_client.annotations.authentications.OAuth2;
+import io.github.itech_framework.api_client.concurrent.ApiExecutors;
 import io.github.itech_framework.api_client.utils.JsonUtils;
+import io.github.itech_framework.api_client.utils.enums.ExecutorType;
 import io.github.itech_framework.core.exceptions.FrameworkException;
+import io.github.itech_framework.core.store.ComponentStore;
+import io.github.itech_framework.core.utils.PropertiesLoader;
 import okhttp3.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Caches OAuth2 access tokens per client. Reading a valid token is a plain
+ * map lookup; a missing or expired token is fetched once per client while
+ * concurrent callers wait for that same fetch. A fetched token is refreshed
+ * in the background before it expires as long as it was read since its last
+ * refresh, so request threads of a busy client only wait for the token
+ * endpoint on the very first call while an idle client's token just expires.
+ * <p>
+ * With a {@link TokenStore} configured through {@code flexi.api.oauth2.tokenStore}
+ * ({@code file} or the name of a registered component) tokens are also kept
+ * beyond the lifetime of the process and shared with other processes using the
+ * same store.
+ */
 public class TokenManager {
+    private static final Logger logger = LogManager.getLogger(TokenManager.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_MILLIS = 200;
+    // Share of the token lifetime after which it is refreshed in the background
+    private static final double REFRESH_AHEAD_RATIO = 0.8;
+    // Tokens are treated as expired a tenth of their lifetime early, at most a minute
+    private static final long MAX_EXPIRY_BUFFER_MILLIS = 60_000;
+    private static final int EXPIRY_BUFFER_DIVISOR = 10;
+    // Floors that keep very short-lived tokens from being fetched in a tight loop
+    static final long MIN_USABLE_MILLIS = 1_000;
+    static final long MIN_REFRESH_DELAY_MILLIS = 1_000;
+    // Reads are recorded at most this often, so busy clients do not write the access time on every call
+    private static final long ACCESS_RESOLUTION_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
     private static final ConcurrentHashMap<String, TokenData> tokenCache = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, CompletableFuture<TokenData>> refreshes = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, AtomicLong> lastAccess = new ConcurrentHashMap<>();
     private static final OkHttpClient httpClient = new OkHttpClient();
+    private static final ExecutorService refreshExecutor = ApiExecutors.create(ExecutorType.PLATFORM, 2,
+            "token-refresh");
+    private static volatile TokenStore tokenStore;
+    private static volatile boolean tokenStoreResolved;
 
     private TokenManager() {
         // Private constructor to prevent instantiation
     }
 
-    public static synchronized String getToken(OAuth2 oauthConfig) {
+    /**
+     * Replaces the configured token store, {@code null} keeps tokens in memory only.
+     */
+    public static void setTokenStore(TokenStore store) {
+        tokenStore = store;
+        tokenStoreResolved = true;
+    }
+
+    public static String getToken(OAuth2 oauthConfig) {
         String cacheKey = buildCacheKey(oauthConfig);
         TokenData tokenData = tokenCache.get(cacheKey);
+        if (tokenData != null && !tokenData.isExpired()) {
+            recordAccess(cacheKey);
+            return tokenData.accessToken();
+        }
+
+        try {
+            return refresh(cacheKey, oauthConfig).join().accessToken();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new FrameworkException("OAuth2 token request failed", e.getCause());
+        }
+    }
 
-        if (tokenData == null || isTokenExpired(tokenData)) {
-            tokenData = refreshToken(oauthConfig, tokenData);
+    // Starts a fetch for the key unless one is already running, the caller that starts it runs it
+    private static CompletableFuture<TokenData> refresh(String cacheKey, OAuth2 oauthConfig) {
+        CompletableFuture<TokenData> future = new CompletableFuture<>();
+        CompletableFuture<TokenData> running = refreshes.putIfAbsent(cacheKey, future);
+        if (running != null) {
+            return running;
+        }
+
+        try {
+            TokenData tokenData = obtainToken(cacheKey, oauthConfig, tokenCache.get(cacheKey));
+            long fetchedAt = System.nanoTime();
             tokenCache.put(cacheKey, tokenData);
+            future.complete(tokenData);
+            scheduleRefreshAhead(cacheKey, oauthConfig, tokenData, fetchedAt, tokenData.refreshAt());
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            refreshes.remove(cacheKey, future);
+        }
+        return future;
+    }
+
+    private static void recordAccess(String cacheKey) {
+        long now = System.nanoTime();
+        AtomicLong accessed = lastAccess.get(cacheKey);
+        if (accessed == null) {
+            lastAccess.putIfAbsent(cacheKey, new AtomicLong(now));
+        } else if (now - accessed.get() >= ACCESS_RESOLUTION_NANOS) {
+            accessed.set(now);
+        }
+    }
+
+    // Whether the token was read after the given System.nanoTime(), to within the access resolution
+    private static boolean accessedSince(String cacheKey, long since) {
+        AtomicLong accessed = lastAccess.get(cacheKey);
+        return accessed != null && accessed.get() - since > -ACCESS_RESOLUTION_NANOS;
+    }
+
+    // The current token stays in use until the background fetch replaces it
+    private static void scheduleRefreshAhead(String cacheKey, OAuth2 oauthConfig, TokenData tokenData,
+            long fetchedAt, Instant at) {
+        long delay = Math.max(0, Duration.between(Instant.now(), at).toMillis());
+        ApiExecutors.scheduler().schedule(() -> {
+            try {
+                refreshExecutor.execute(() -> refreshAhead(cacheKey, oauthConfig, tokenData, fetchedAt));
+            } catch (RejectedExecutionException e) {
+                logger.debug("Background refresh of OAuth2 token for {} rejected", cacheKey);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static void refreshAhead(String cacheKey, OAuth2 oauthConfig, TokenData tokenData, long fetchedAt) {
+        if (tokenCache.get(cacheKey) != tokenData) {
+            return; // replaced by a fetch that scheduled its own refresh
+        }
+        if (!accessedSince(cacheKey, fetchedAt)) {
+            logger.debug("OAuth2 token for {} not used since it was fetched, letting it expire", cacheKey);
+            return;
+        }
+        if (!refresh(cacheKey, oauthConfig).isCompletedExceptionally() || tokenData.isExpired()) {
+            return;
+        }
+        // try again halfway to expiry, callers fetch in the foreground once the token has expired
+        Duration retryIn = Duration.between(Instant.now(), tokenData.expiration()).dividedBy(2);
+        if (retryIn.toMillis() < MIN_REFRESH_DELAY_MILLIS) {
+            logger.warn("Background refresh of OAuth2 token for {} failed", cacheKey);
+            return;
+        }
+        logger.warn("Background refresh of OAuth2 token for {} failed, retrying in {} s", cacheKey,
+                retryIn.toSeconds());
+        scheduleRefreshAhead(cacheKey, oauthConfig, tokenData, fetchedAt, Instant.now().plus(retryIn));
+    }
+
+    private static TokenData obtainToken(String cacheKey, OAuth2 oauthConfig, TokenData cachedToken) {
+        TokenStore store = tokenStore();
+        if (store == null) {
+            return fetchWithRetry(oauthConfig, cachedToken);
+        }
+
+        TokenStore.Lock lock = lockStore(store, cacheKey);
+        try {
+            TokenData storedToken = loadStored(store, cacheKey);
+            if (storedToken != null && Instant.now().isBefore(storedToken.refreshAt())) {
+                return storedToken; // fetched by another process or before a restart
+            }
+
+            TokenData previousToken = cachedToken;
+            if (storedToken != null && (cachedToken == null
+                    || storedToken.expiration().isAfter(cachedToken.expiration()))) {
+                previousToken = storedToken;
+            }
+            TokenData tokenData = fetchWithRetry(oauthConfig, previousToken);
+            try {
+                store.save(cacheKey, tokenData);
+            } catch (IOException e) {
+                logger.warn("Failed to store OAuth2 token for {}: {}", cacheKey, e.getMessage());
+            }
+            return tokenData;
+        } finally {
+            unlockStore(lock, cacheKey);
+        }
+    }
+
+    private static TokenStore.Lock lockStore(TokenStore store, String cacheKey) {
+        try {
+            return store.lock(cacheKey);
+        } catch (IOException e) {
+            logger.warn("Failed to lock token store for {}: {}", cacheKey, e.getMessage());
+            return null;
         }
+    }
 
-        return tokenData.accessToken();
+    private static void unlockStore(TokenStore.Lock lock, String cacheKey) {
+        if (lock == null) {
+            return;
+        }
+        try {
+            lock.close();
+        } catch (IOException e) {
+            logger.warn("Failed to unlock token store for {}: {}", cacheKey, e.getMessage());
+        }
     }
 
-    private static TokenData refreshToken(OAuth2 oauthConfig, TokenData previousToken) {
+    private static TokenData loadStored(TokenStore store, String cacheKey) {
         try {
-            RequestBody body = buildTokenRequestBody(oauthConfig, previousToken);
-            Request request = new Request.Builder()
-                    .url(oauthConfig.tokenUrl())
-                    .post(body)
-                    .build();
-
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    throw new FrameworkException("OAuth2 token request failed: " + response.code());
+            return store.load(cacheKey);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring stored OAuth2 token for {}: {}", cacheKey, e.getMessage());
+            return null;
+        }
+    }
+
+    private static TokenStore tokenStore() {
+        if (!tokenStoreResolved) {
+            synchronized (TokenManager.class) {
+                if (!tokenStoreResolved) {
+                    tokenStore = createTokenStore();
+                    tokenStoreResolved = true;
+                }
+            }
+        }
+        return tokenStore;
+    }
+
+    private static TokenStore createTokenStore() {
+        String configured = PropertiesLoader.getProperty("flexi.api.oauth2.tokenStore", "");
+        if (configured == null || configured.isBlank()) {
+            return null;
+        }
+        if ("file".equalsIgnoreCase(configured.trim())) {
+            String defaultPath = Path.of(System.getProperty("user.home"), ".flexi-api", "tokens").toString();
+            String path = PropertiesLoader.getProperty("flexi.api.oauth2.tokenStore.path", defaultPath);
+            String passphrase = PropertiesLoader.getProperty("flexi.api.oauth2.tokenStore.passphrase", "");
+            return new FileTokenStore(Path.of(path.trim()), passphrase.toCharArray());
+        }
+
+        Object component = ComponentStore.getComponent(configured.trim());
+        if (!(component instanceof TokenStore)) {
+            throw new FrameworkException("No TokenStore component registered as: " + configured);
+        }
+        return (TokenStore) component;
+    }
+
+    private static TokenData fetchWithRetry(OAuth2 oauthConfig, TokenData previousToken) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return fetchToken(oauthConfig, previousToken);
+            } catch (TokenRequestException e) {
+                if (e.rejectedGrant && previousToken != null && previousToken.refreshToken() != null) {
+                    // the refresh token is no longer accepted, start over with the client credentials
+                    previousToken = null;
+                    continue;
+                }
+                if (!e.retryable || attempt >= MAX_ATTEMPTS) {
+                    throw new FrameworkException(e.getMessage(), e);
                 }
+                long backoff = ThreadLocalRandom.current().nextLong(INITIAL_BACKOFF_MILLIS << (attempt - 1)) + 1;
+                logger.debug("OAuth2 token request failed, retrying in {} ms: {}", backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new FrameworkException("Interrupted while waiting for an OAuth2 token", interrupted);
+                }
+            }
+        }
+    }
+
+    private static TokenData fetchToken(OAuth2 oauthConfig, TokenData previousToken) throws TokenRequestException {
+        RequestBody body = buildTokenRequestBody(oauthConfig, previousToken);
+        Request request = new Request.Builder()
+                .url(oauthConfig.tokenUrl())
+                .post(body)
+                .build();
 
-                String responseBody = response.body().string();
-                return parseTokenResponse(responseBody);
+        try (Response response = httpClient.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                int code = response.code();
+                throw new TokenRequestException("OAuth2 token request failed: " + code, null,
+                        code == 429 || code >= 500, code == 400 || code == 401);
             }
+
+            String responseBody = response.body().string();
+            return parseTokenResponse(responseBody, previousToken);
         } catch (IOException e) {
-            throw new FrameworkException("OAuth2 token request failed", e);
+            throw new TokenRequestException("OAuth2 token request failed", e, true, false);
         }
     }
 
@@ -67,37 +318,49 @@ public class TokenManager {
         return formBuilder.build();
     }
 
-    private static TokenData parseTokenResponse(String responseBody) {
+    private static TokenData parseTokenResponse(String responseBody, TokenData previousToken) {
         Map<String, Object> responseMap = JsonUtils.fromJson(responseBody, new TypeReference<>() {});
 
         String accessToken = (String) responseMap.get("access_token");
         String refreshToken = (String) responseMap.get("refresh_token");
-        int expiresIn = (Integer) responseMap.getOrDefault("expires_in", 3600);
+        if (refreshToken == null && previousToken != null) {
+            refreshToken = previousToken.refreshToken(); // the server kept the refresh token
+        }
+        Object expiresInValue = responseMap.getOrDefault("expires_in", 3600);
+        long expiresIn = expiresInValue instanceof Number ? ((Number) expiresInValue).longValue()
+                : Long.parseLong(expiresInValue.toString());
 
+        return newTokenData(accessToken, refreshToken, expiresIn, Instant.now());
+    }
+
+    static TokenData newTokenData(String accessToken, String refreshToken, long expiresIn, Instant now) {
+        long lifetimeMillis = TimeUnit.SECONDS.toMillis(Math.max(0, expiresIn));
+        long bufferMillis = Math.min(MAX_EXPIRY_BUFFER_MILLIS, lifetimeMillis / EXPIRY_BUFFER_DIVISOR);
+        long usableMillis = Math.max(MIN_USABLE_MILLIS, lifetimeMillis - bufferMillis);
+        long refreshMillis = Math.min(usableMillis,
+                Math.max(MIN_REFRESH_DELAY_MILLIS, (long) (usableMillis * REFRESH_AHEAD_RATIO)));
         return new TokenData(
                 accessToken,
                 refreshToken,
-                Instant.now().plusSeconds(expiresIn - 60)  // 60-second buffer
+                now.plusMillis(usableMillis),
+                now.plusMillis(refreshMillis)
         );
     }
 
-    private static boolean isTokenExpired(TokenData tokenData) {
-        return Instant.now().isAfter(tokenData.expiration());
-    }
-
     private static String buildCacheKey(OAuth2 config) {
         return config.clientId() + "@" + config.tokenUrl();
     }
 
-    private record TokenData(
-            String accessToken,
-            String refreshToken,
-            Instant expiration
-    ) {
-        TokenData {
-            if (accessToken == null || accessToken.isEmpty()) {
-                throw new IllegalArgumentException("Invalid token data");
-            }
+    private static class TokenRequestException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final boolean retryable;
+        private final boolean rejectedGrant;
+
+        TokenRequestException(String message, Throwable cause, boolean retryable, boolean rejectedGrant) {
+            super(message, cause);
+            this.retryable = retryable;
+            this.rejectedGrant = rejectedGrant;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package io.github.itech_framework.api_client.auth;
+
+import java.io.IOException;
+
+/**
+ * Second level storage for OAuth2 tokens behind the in-memory cache of
+ * {@link TokenManager}. A store lets tokens outlive the process, so a restarted
+ * instance reuses a still valid token or redeems its refresh token instead of
+ * requesting new client credentials.
+ * <p>
+ * Keys have the form {@code clientId@tokenUrl}. Failures of the store are
+ * logged and the token is fetched from the token endpoint as if the store was
+ * empty.
+ */
+public interface TokenStore {
+    TokenData load(String key) throws IOException;
+
+    void save(String key, TokenData token) throws IOException;
+
+    void remove(String key) throws IOException;
+
+    /**
+     * Locks the key across all processes sharing the store, so only one of them
+     * calls the token endpoint while the others wait and load its result.
+     */
+    default Lock lock(String key) throws IOException {
+        return () -> {};
+    }
+
+    interface Lock extends AutoCloseable {
+        @Override
+        void close() throws IOException;
+    }
+}
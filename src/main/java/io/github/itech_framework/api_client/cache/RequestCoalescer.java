@@ -0,0 +1,109 @@
+package io.github.itech_framework.api_client.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import org.apache.http.Header;
+import org.apache.http.client.methods.HttpUriRequest;
+
+/**
+ * Single-flight execution of identical requests. The first caller for a key
+ * performs the exchange, callers arriving while it is in flight wait for and
+ * share its outcome. Nothing is retained once the exchange has completed.
+ * <p>
+ * Requests are only coalesced within a scope, typically the API method, so
+ * methods that send the same request but decode it differently never share
+ * a result.
+ */
+public class RequestCoalescer {
+	private final ConcurrentHashMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * @param scope what the shared result is decoded for, compared with
+	 *              {@code equals}
+	 */
+	public Object execute(Object scope, HttpUriRequest request, Callable<Object> exchange) throws Exception {
+		Key key = keyOf(scope, request);
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+		if (existing != null) {
+			return await(existing);
+		}
+		try {
+			Object value = exchange.call();
+			future.complete(value);
+			return value;
+		} catch (Throwable e) {
+			// followers are settled whatever the leader throws, an Error included
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, future);
+		}
+	}
+
+	/**
+	 * @param scope what the shared result is decoded for, see {@link #execute}
+	 */
+	public CompletableFuture<Object> executeAsync(Object scope, HttpUriRequest request,
+			Supplier<CompletableFuture<Object>> exchange) {
+		Key key = keyOf(scope, request);
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+		if (existing != null) {
+			return existing.copy();
+		}
+		CompletableFuture<Object> result;
+		try {
+			result = exchange.get();
+		} catch (RuntimeException e) {
+			result = CompletableFuture.failedFuture(e);
+		} catch (Error e) {
+			inFlight.remove(key, future);
+			future.completeExceptionally(e);
+			throw e;
+		}
+		result.whenComplete((value, error) -> {
+			inFlight.remove(key, future);
+			if (error != null) {
+				future.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+						? error.getCause()
+						: error);
+			} else {
+				future.complete(value);
+			}
+		});
+		return future.copy();
+	}
+
+	public int inFlight() {
+		return inFlight.size();
+	}
+
+	private static Object await(CompletableFuture<Object> future) throws Exception {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw (Error) cause;
+		}
+	}
+
+	private static Key keyOf(Object scope, HttpUriRequest request) {
+		StringBuilder key = new StringBuilder(request.getMethod()).append(' ').append(request.getURI());
+		for (Header header : request.getAllHeaders()) {
+			key.append('\n').append(header.getName()).append(':').append(header.getValue());
+		}
+		return new Key(scope, key.toString());
+	}
+
+	private record Key(Object scope, String request) {
+	}
+}
@@ -0,0 +1,273 @@
+package io.github.itech_framework.api_client.cache;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.DateUtils;
+
+/**
+ * Bounded, in-memory HTTP response cache for a single API client. Entries hold
+ * the already deserialized result so that a fresh hit or a {@code 304 Not
+ * Modified} revalidation returns it without decoding the body again. The cache
+ * is bounded by entry count and by the total size of the cached bodies, and
+ * evicts the least recently used entries first.
+ * <p>
+ * Entries are scoped, typically to the API method that decoded them, so
+ * methods sharing a URI never see each other's values. Responses that
+ * {@code Vary} on request headers are kept as separate variants of the same
+ * URI.
+ */
+public class ResponseCache {
+	private final int maxEntries;
+	private final long maxBytes;
+	private final LinkedHashMap<Key, List<Entry>> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private int entryCount;
+	private long totalBytes;
+
+	public ResponseCache(int maxEntries, long maxBytes) {
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Returns the entry stored in the scope for the request's URI whose
+	 * {@code Vary} headers match the request, or {@code null}.
+	 *
+	 * @param scope what the cached value was decoded for, compared with
+	 *              {@code equals}
+	 */
+	public Entry lookup(Object scope, HttpUriRequest request) {
+		synchronized (this) {
+			List<Entry> variants = entries.get(new Key(scope, request.getURI().toString()));
+			if (variants != null) {
+				for (Entry entry : variants) {
+					if (entry.matches(request)) {
+						return entry;
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Adds the conditional headers that let the server answer with
+	 * {@code 304 Not Modified} for the given stale entry.
+	 */
+	public void addValidators(HttpUriRequest request, Entry entry) {
+		if (entry == null) {
+			return;
+		}
+		if (entry.etag != null) {
+			request.setHeader("If-None-Match", entry.etag);
+		}
+		if (entry.lastModified != null) {
+			request.setHeader("If-Modified-Since", entry.lastModified);
+		}
+	}
+
+	/**
+	 * Refreshes an entry from a {@code 304 Not Modified} response and returns its
+	 * cached value.
+	 */
+	public Object revalidated(Entry entry, HttpResponse notModified) {
+		Entry refreshed = new Entry(entry.key, entry.value, entry.size, entry.vary,
+				first(notModified, "ETag", entry.etag), first(notModified, "Last-Modified", entry.lastModified),
+				expiresAt(notModified));
+		synchronized (this) {
+			List<Entry> variants = entries.get(entry.key);
+			int index = variants != null ? variants.indexOf(entry) : -1;
+			if (index >= 0) {
+				variants.set(index, refreshed);
+			}
+		}
+		return entry.value;
+	}
+
+	/**
+	 * Stores a decoded {@code 200 OK} response if its headers allow it.
+	 *
+	 * @param scope what the value was decoded for, see {@link #lookup}
+	 * @param size  size of the response body in bytes
+	 */
+	public void store(Object scope, HttpUriRequest request, HttpResponse response, Object value, long size) {
+		if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK || size > maxBytes
+				|| hasDirective(response, "no-store")) {
+			return;
+		}
+		String etag = first(response, "ETag", null);
+		String lastModified = first(response, "Last-Modified", null);
+		long expiresAt = expiresAt(response);
+		if (expiresAt == 0 && etag == null && lastModified == null) {
+			return;
+		}
+
+		Map<String, String> vary = new LinkedHashMap<>();
+		for (Header header : response.getHeaders("Vary")) {
+			for (HeaderElement element : header.getElements()) {
+				String name = element.getName();
+				if ("*".equals(name)) {
+					return;
+				}
+				Header requestHeader = request.getFirstHeader(name);
+				vary.put(name, requestHeader != null ? requestHeader.getValue() : null);
+			}
+		}
+
+		Key key = new Key(scope, request.getURI().toString());
+		Entry entry = new Entry(key, value, size, vary, etag, lastModified, expiresAt);
+		synchronized (this) {
+			List<Entry> variants = entries.computeIfAbsent(key, k -> new ArrayList<>(1));
+			for (Iterator<Entry> iterator = variants.iterator(); iterator.hasNext();) {
+				Entry previous = iterator.next();
+				if (previous.vary.equals(vary)) {
+					iterator.remove();
+					entryCount--;
+					totalBytes -= previous.size;
+				}
+			}
+			variants.add(entry);
+			entryCount++;
+			totalBytes += size;
+			evict();
+		}
+	}
+
+	// removes the oldest variants of the least recently used URIs until the bounds hold
+	private void evict() {
+		Iterator<List<Entry>> eldest = entries.values().iterator();
+		while ((entryCount > maxEntries || totalBytes > maxBytes) && eldest.hasNext()) {
+			List<Entry> variants = eldest.next();
+			while (!variants.isEmpty() && (entryCount > maxEntries || totalBytes > maxBytes)) {
+				totalBytes -= variants.remove(0).size;
+				entryCount--;
+			}
+			if (variants.isEmpty()) {
+				eldest.remove();
+			}
+		}
+	}
+
+	public synchronized int size() {
+		return entryCount;
+	}
+
+	public synchronized long sizeInBytes() {
+		return totalBytes;
+	}
+
+	private static long expiresAt(HttpResponse response) {
+		if (hasDirective(response, "no-cache")) {
+			return 0;
+		}
+		long now = System.nanoTime();
+		long maxAge = directiveSeconds(response, "max-age");
+		if (maxAge >= 0) {
+			long age = Math.max(0, parseLong(first(response, "Age", null)));
+			return maxAge > age ? now + TimeUnit.SECONDS.toNanos(maxAge - age) : 0;
+		}
+
+		Date expires = parseDate(first(response, "Expires", null));
+		if (expires != null) {
+			Date date = parseDate(first(response, "Date", null));
+			long lifetime = expires.getTime() - (date != null ? date.getTime() : System.currentTimeMillis());
+			return lifetime > 0 ? now + TimeUnit.MILLISECONDS.toNanos(lifetime) : 0;
+		}
+		return 0;
+	}
+
+	private static boolean hasDirective(HttpResponse response, String directive) {
+		for (Header header : response.getHeaders("Cache-Control")) {
+			for (HeaderElement element : header.getElements()) {
+				if (directive.equalsIgnoreCase(element.getName())) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static long directiveSeconds(HttpResponse response, String directive) {
+		for (Header header : response.getHeaders("Cache-Control")) {
+			for (HeaderElement element : header.getElements()) {
+				if (directive.equalsIgnoreCase(element.getName())) {
+					return parseLong(element.getValue());
+				}
+			}
+		}
+		return -1;
+	}
+
+	private static String first(HttpResponse response, String name, String defaultValue) {
+		Header header = response.getFirstHeader(name);
+		return header != null ? header.getValue() : defaultValue;
+	}
+
+	private static long parseLong(String value) {
+		if (value == null) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private static Date parseDate(String value) {
+		return value != null ? DateUtils.parseDate(value) : null;
+	}
+
+	private record Key(Object scope, String uri) {
+	}
+
+	public static final class Entry {
+		private final Key key;
+		private final Object value;
+		private final long size;
+		private final Map<String, String> vary;
+		private final String etag;
+		private final String lastModified;
+		private final long expiresAt;
+
+		private Entry(Key key, Object value, long size, Map<String, String> vary, String etag,
+				String lastModified, long expiresAt) {
+			this.key = key;
+			this.value = value;
+			this.size = size;
+			this.vary = vary;
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.expiresAt = expiresAt;
+		}
+
+		public Object getValue() {
+			return value;
+		}
+
+		public boolean isFresh() {
+			return expiresAt != 0 && System.nanoTime() - expiresAt < 0;
+		}
+
+		private boolean matches(HttpUriRequest request) {
+			for (Map.Entry<String, String> header : vary.entrySet()) {
+				Header requestHeader = request.getFirstHeader(header.getKey());
+				String value = requestHeader != null ? requestHeader.getValue() : null;
+				if (value == null ? header.getValue() != null : !value.equals(header.getValue())) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package io.github.itech_framework.api_client.concurrent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.itech_framework.api_client.utils.enums.ExecutorType;
+import io.github.itech_framework.core.exceptions.FrameworkException;
+import io.github.itech_framework.core.store.ComponentStore;
+import io.github.itech_framework.core.utils.PropertiesLoader;
+
+/**
+ * Creates the executors that run {@code CompletableFuture} returning API
+ * methods. The default strategy is a virtual-thread-per-task executor when the
+ * runtime supports it (Java 21+) and a bounded platform pool otherwise.
+ *
+ * <p>
+ * Configuration properties:
+ * <ul>
+ * <li>{@code flexi.api.executor.type} - {@code virtual} or {@code platform}</li>
+ * <li>{@code flexi.api.executor.threads} - size of platform pools (10)</li>
+ * </ul>
+ */
+public final class ApiExecutors {
+	private static final MethodHandle VIRTUAL_EXECUTOR_FACTORY = findVirtualExecutorFactory();
+
+	private static volatile ScheduledExecutorService scheduler;
+
+	private ApiExecutors() {
+	}
+
+	public static boolean isVirtualThreadSupported() {
+		return VIRTUAL_EXECUTOR_FACTORY != null;
+	}
+
+	/**
+	 * Creates a new executor owned by the caller, which is responsible for
+	 * shutting it down.
+	 *
+	 * @param type    requested strategy, {@link ExecutorType#DEFAULT} defers to
+	 *                {@code flexi.api.executor.type}
+	 * @param threads platform pool size, {@code -1} defers to
+	 *                {@code flexi.api.executor.threads}
+	 * @param name    prefix of the created threads
+	 */
+	public static ExecutorService create(ExecutorType type, int threads, String name) {
+		ExecutorType resolved = type == ExecutorType.DEFAULT ? configuredType() : type;
+		if (resolved == ExecutorType.VIRTUAL) {
+			if (isVirtualThreadSupported()) {
+				return newVirtualThreadPerTaskExecutor();
+			}
+			if (type == ExecutorType.VIRTUAL) {
+				throw new FrameworkException("Virtual threads require Java 21 or newer");
+			}
+		}
+
+		int poolSize = threads > 0 ? threads
+				: Integer.parseInt(PropertiesLoader.getProperty("flexi.api.executor.threads", "10").trim());
+		return Executors.newFixedThreadPool(poolSize, new NamedThreadFactory(name));
+	}
+
+	/**
+	 * Returns the process-wide scheduler used for timers such as batch windows
+	 * and delayed retries. It runs on a single daemon thread, so scheduled tasks
+	 * must only hand work off and never block.
+	 */
+	public static ScheduledExecutorService scheduler() {
+		ScheduledExecutorService current = scheduler;
+		if (current == null) {
+			synchronized (ApiExecutors.class) {
+				current = scheduler;
+				if (current == null) {
+					ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+							new NamedThreadFactory("api-client-scheduler"));
+					executor.setRemoveOnCancelPolicy(true);
+					scheduler = current = executor;
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Looks up a user supplied executor registered as a component under the
+	 * given name. Such executors are owned by the application and must not be
+	 * shut down by the client.
+	 */
+	public static ExecutorService lookup(String componentName) {
+		Object component = ComponentStore.getComponent(componentName);
+		if (!(component instanceof ExecutorService)) {
+			throw new FrameworkException("No ExecutorService component registered as: " + componentName);
+		}
+		return (ExecutorService) component;
+	}
+
+	private static ExecutorType configuredType() {
+		String value = PropertiesLoader.getProperty("flexi.api.executor.type", "");
+		if (value == null || value.isBlank()) {
+			return isVirtualThreadSupported() ? ExecutorType.VIRTUAL : ExecutorType.PLATFORM;
+		}
+		return ExecutorType.valueOf(value.trim().toUpperCase());
+	}
+
+	private static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			return (ExecutorService) VIRTUAL_EXECUTOR_FACTORY.invokeExact();
+		} catch (Throwable e) {
+			throw new FrameworkException("Failed to create virtual thread executor", e);
+		}
+	}
+
+	private static MethodHandle findVirtualExecutorFactory() {
+		try {
+			return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+					MethodType.methodType(ExecutorService.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	private static final class NamedThreadFactory implements ThreadFactory {
+		private final String prefix;
+		private final AtomicInteger counter = new AtomicInteger();
+
+		NamedThreadFactory(String name) {
+			this.prefix = name + "-";
+		}
+
+		@Override
+		public Thread newThread(Runnable task) {
+			Thread thread = new Thread(task, prefix + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
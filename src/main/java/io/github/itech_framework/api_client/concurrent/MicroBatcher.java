@@ -0,0 +1,230 @@
+package io.github.itech_framework.api_client.concurrent;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.github.itech_framework.api_client.utils.JsonUtils;
+
+/**
+ * Collects single-key calls into bulk calls. A batch is dispatched when it
+ * reaches its maximum size or when the first key in it has waited for the
+ * maximum delay, whichever comes first. Keys are compared by their string
+ * form, which is also how they appear in JSON object responses. The key
+ * property of list elements is read through an accessor resolved once per
+ * element type.
+ * <p>
+ * Batches that fill up are dispatched on the submitting thread, batches whose
+ * delay expires on the given executor, so the shared scheduler never runs a
+ * bulk call.
+ */
+public class MicroBatcher {
+	private final Function<List<Object>, CompletableFuture<Object>> bulkCall;
+	private final String keyProperty;
+	private final int maxSize;
+	private final long maxDelayMillis;
+	private final Executor executor;
+	private final Map<Class<?>, Function<Object, Object>> keyReaders = new ConcurrentHashMap<>();
+
+	private final Object lock = new Object();
+	private Map<String, Pending> pending = new LinkedHashMap<>();
+	private ScheduledFuture<?> flushTask;
+
+	/**
+	 * @param bulkCall    performs the bulk call for a list of distinct keys
+	 * @param keyProperty property of the returned elements holding their key,
+	 *                    empty to match list responses by position
+	 * @param executor    executor dispatching the batches whose delay expired
+	 */
+	public MicroBatcher(Function<List<Object>, CompletableFuture<Object>> bulkCall, String keyProperty, int maxSize,
+			long maxDelayMillis, Executor executor) {
+		this.bulkCall = bulkCall;
+		this.keyProperty = keyProperty;
+		this.maxSize = Math.max(1, maxSize);
+		this.maxDelayMillis = maxDelayMillis;
+		this.executor = executor;
+	}
+
+	public CompletableFuture<Object> submit(Object key) {
+		String id = String.valueOf(key);
+		Map<String, Pending> batch = null;
+		CompletableFuture<Object> future;
+		synchronized (lock) {
+			Pending entry = pending.get(id);
+			if (entry == null) {
+				entry = new Pending(key);
+				pending.put(id, entry);
+				if (pending.size() >= maxSize) {
+					batch = drain();
+				} else if (pending.size() == 1) {
+					flushTask = ApiExecutors.scheduler().schedule(this::flushLater, maxDelayMillis,
+							TimeUnit.MILLISECONDS);
+				}
+			}
+			future = entry.future;
+		}
+		if (batch != null) {
+			dispatch(batch);
+		}
+		return future.copy();
+	}
+
+	/**
+	 * Dispatches the keys collected so far without waiting for the batch window.
+	 */
+	public void flush() {
+		Map<String, Pending> batch;
+		synchronized (lock) {
+			if (pending.isEmpty()) {
+				return;
+			}
+			batch = drain();
+		}
+		dispatch(batch);
+	}
+
+	// runs on the scheduler, which only hands the batch off
+	private void flushLater() {
+		try {
+			executor.execute(this::flush);
+		} catch (RejectedExecutionException e) {
+			Map<String, Pending> batch;
+			synchronized (lock) {
+				batch = drain();
+			}
+			batch.values().forEach(entry -> entry.future.completeExceptionally(e));
+		}
+	}
+
+	private Map<String, Pending> drain() {
+		Map<String, Pending> batch = pending;
+		pending = new LinkedHashMap<>();
+		if (flushTask != null) {
+			flushTask.cancel(false);
+			flushTask = null;
+		}
+		return batch;
+	}
+
+	private void dispatch(Map<String, Pending> batch) {
+		List<Object> keys = new ArrayList<>(batch.size());
+		for (Pending entry : batch.values()) {
+			keys.add(entry.key);
+		}
+
+		CompletableFuture<Object> result;
+		try {
+			result = bulkCall.apply(keys);
+		} catch (Throwable e) {
+			// the callers wait on their futures, so they fail too before an Error propagates
+			fail(batch, e);
+			if (e instanceof Error) {
+				throw (Error) e;
+			}
+			return;
+		}
+		result.whenComplete((value, error) -> {
+			if (error != null) {
+				fail(batch, error instanceof CompletionException && error.getCause() != null ? error.getCause()
+						: error);
+				return;
+			}
+			try {
+				Map<String, Object> values = split(value, batch);
+				batch.forEach((id, entry) -> entry.future.complete(values.get(id)));
+			} catch (Throwable e) {
+				fail(batch, e);
+			}
+		});
+	}
+
+	private static void fail(Map<String, Pending> batch, Throwable error) {
+		batch.values().forEach(entry -> entry.future.completeExceptionally(error));
+	}
+
+	private Map<String, Object> split(Object response, Map<String, Pending> batch) {
+		Map<String, Object> values = new HashMap<>();
+		if (response == null) {
+			return values;
+		}
+		if (response instanceof Map) {
+			((Map<?, ?>) response).forEach((key, value) -> values.put(String.valueOf(key), value));
+			return values;
+		}
+
+		List<Object> elements = new ArrayList<>();
+		if (response instanceof Collection) {
+			elements.addAll((Collection<?>) response);
+		} else if (response.getClass().isArray()) {
+			for (int i = 0; i < Array.getLength(response); i++) {
+				elements.add(Array.get(response, i));
+			}
+		} else {
+			throw new IllegalStateException(
+					"Bulk response must be a Map, a Collection or an array: " + response.getClass().getName());
+		}
+
+		if (keyProperty.isEmpty()) {
+			if (elements.size() != batch.size()) {
+				throw new IllegalStateException(
+						"Bulk response has " + elements.size() + " elements for " + batch.size() + " keys");
+			}
+			int i = 0;
+			for (String id : batch.keySet()) {
+				values.put(id, elements.get(i++));
+			}
+			return values;
+		}
+
+		for (Object element : elements) {
+			if (element == null) {
+				continue;
+			}
+			Object key;
+			if (element instanceof Map) {
+				key = ((Map<?, ?>) element).get(keyProperty);
+			} else {
+				key = keyReaders.computeIfAbsent(element.getClass(), this::keyReader).apply(element);
+			}
+			if (key != null) {
+				values.put(String.valueOf(key), element);
+			}
+		}
+		return values;
+	}
+
+	// types whose key is not a plain property, e.g. one written by a custom serializer, fall back to the tree
+	private Function<Object, Object> keyReader(Class<?> type) {
+		Function<Object, Object> reader = JsonUtils.propertyReader(type, keyProperty);
+		if (reader != null) {
+			return reader;
+		}
+		return element -> {
+			JsonNode node = JsonUtils.toTree(element).get(keyProperty);
+			return node == null || node.isNull() ? null : node.asText();
+		};
+	}
+
+	private static final class Pending {
+		private final Object key;
+		private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+		Pending(Object key) {
+			this.key = key;
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package io.github.itech_framework.api_client.events;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.github.itech_framework.api_client.utils.enums.CallPhase;
+
+/**
+ * Timeline of one API call, created when the call starts and handed to every
+ * listener callback. Phase durations are summed across attempts, so they can
+ * be read at the end of the call without listeners keeping their own state.
+ * Only created while listeners are registered.
+ * <p>
+ * Hedged attempts run concurrently and may report phases at the same time;
+ * the sums are updated atomically, so every reported phase is counted and
+ * can be read from any thread.
+ */
+public class ApiCallContext {
+	private static final Logger logger = LogManager.getLogger(ApiCallContext.class);
+	private static final ThreadLocal<ApiCallContext> bound = new ThreadLocal<>();
+
+	private final String clientName;
+	private final Method method;
+	private final String httpMethod;
+	private final String pathTemplate;
+	private final ApiEventListener[] listeners;
+	private final long startNanos;
+	private final AtomicLongArray durations = new AtomicLongArray(CallPhase.values().length);
+	private volatile long endNanos;
+
+	public ApiCallContext(String clientName, Method method, String httpMethod, String pathTemplate,
+			ApiEventListener[] listeners) {
+		this.clientName = clientName;
+		this.method = method;
+		this.httpMethod = httpMethod;
+		this.pathTemplate = pathTemplate;
+		this.listeners = listeners;
+		this.startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Returns the call whose request the current thread is executing, used by
+	 * transport hooks that have no access to the call.
+	 */
+	public static ApiCallContext current() {
+		return bound.get();
+	}
+
+	public void bind() {
+		bound.set(this);
+	}
+
+	public static void unbind() {
+		bound.remove();
+	}
+
+	public void start() {
+		for (ApiEventListener listener : listeners) {
+			try {
+				listener.callStart(this);
+			} catch (RuntimeException e) {
+				logger.warn("Event listener {} failed", listener, e);
+			}
+		}
+	}
+
+	public void phase(CallPhase phase, long phaseStart, long phaseEnd) {
+		durations.addAndGet(phase.ordinal(), phaseEnd - phaseStart);
+		for (ApiEventListener listener : listeners) {
+			try {
+				listener.phase(this, phase, phaseStart, phaseEnd);
+			} catch (RuntimeException e) {
+				logger.warn("Event listener {} failed", listener, e);
+			}
+		}
+	}
+
+	public void end(Throwable error) {
+		endNanos = System.nanoTime();
+		for (ApiEventListener listener : listeners) {
+			try {
+				listener.callEnd(this, error);
+			} catch (RuntimeException e) {
+				logger.warn("Event listener {} failed", listener, e);
+			}
+		}
+	}
+
+	public String getClientName() {
+		return clientName;
+	}
+
+	public Method getMethod() {
+		return method;
+	}
+
+	public String getHttpMethod() {
+		return httpMethod;
+	}
+
+	public String getPathTemplate() {
+		return pathTemplate;
+	}
+
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	/**
+	 * Nanoseconds from the start to the end of the call, or to now while it
+	 * is running.
+	 */
+	public long getElapsedNanos() {
+		long end = endNanos;
+		return (end != 0 ? end : System.nanoTime()) - startNanos;
+	}
+
+	/**
+	 * Nanoseconds spent in the phase so far, summed across attempts.
+	 */
+	public long getDuration(CallPhase phase) {
+		return durations.get(phase.ordinal());
+	}
+}
@@ -0,0 +1,37 @@
+package io.github.itech_framework.api_client.events;
+
+import io.github.itech_framework.api_client.utils.enums.CallPhase;
+
+/**
+ * Receives the timeline of API calls. Listeners are registered through
+ * {@link ApiEvents#addListener(ApiEventListener)} and invoked on the thread
+ * running the phase, so they must be cheap and thread safe.
+ * <p>
+ * Phases are reported as they end, a call retried or hedged reports the
+ * phases of every attempt. Connection phases ({@code LEASE}, {@code DNS},
+ * {@code CONNECT}, {@code TLS}, {@code REQUEST}) are only reported by the
+ * blocking transport; with the non-blocking transport they are part of
+ * {@code TTFB}, which the non-blocking transport follows with
+ * {@code DECODE_QUEUE}, the wait for a decode thread once the response has
+ * arrived. {@code QUEUE} only covers the wait before a call starts.
+ */
+public interface ApiEventListener {
+	default void callStart(ApiCallContext call) {
+		// default: no-op
+	}
+
+	/**
+	 * @param startNanos {@link System#nanoTime()} at the start of the phase
+	 * @param endNanos   {@link System#nanoTime()} at the end of the phase
+	 */
+	default void phase(ApiCallContext call, CallPhase phase, long startNanos, long endNanos) {
+		// default: no-op
+	}
+
+	/**
+	 * @param error the failure of the call, {@code null} on success
+	 */
+	default void callEnd(ApiCallContext call, Throwable error) {
+		// default: no-op
+	}
+}
@@ -0,0 +1,38 @@
+package io.github.itech_framework.api_client.events;
+
+import java.util.Arrays;
+
+/**
+ * Process-wide registry of {@link ApiEventListener}s. While no listener is
+ * registered, API calls create no {@link ApiCallContext} and skip all phase
+ * timing.
+ */
+public final class ApiEvents {
+	private static final ApiEventListener[] NONE = new ApiEventListener[0];
+
+	private static volatile ApiEventListener[] listeners = NONE;
+
+	private ApiEvents() {
+	}
+
+	public static synchronized void addListener(ApiEventListener listener) {
+		ApiEventListener[] current = listeners;
+		ApiEventListener[] updated = Arrays.copyOf(current, current.length + 1);
+		updated[current.length] = listener;
+		listeners = updated;
+	}
+
+	public static synchronized void removeListener(ApiEventListener listener) {
+		ApiEventListener[] updated = Arrays.stream(listeners).filter(candidate -> candidate != listener)
+				.toArray(ApiEventListener[]::new);
+		listeners = updated.length == 0 ? NONE : updated;
+	}
+
+	/**
+	 * Returns the registered listeners. The array is shared and must not be
+	 * modified.
+	 */
+	public static ApiEventListener[] getListeners() {
+		return listeners;
+	}
+}
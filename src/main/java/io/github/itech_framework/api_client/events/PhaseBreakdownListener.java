@@ -0,0 +1,106 @@
+package io.github.itech_framework.api_client.events;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.github.itech_framework.api_client.metrics.ApiMetrics;
+import io.github.itech_framework.api_client.metrics.LatencyHistogram;
+import io.github.itech_framework.api_client.utils.enums.CallPhase;
+
+/**
+ * Aggregates where the time of API calls goes. At the end of every call its
+ * total duration and the time spent in each phase are recorded per method, so
+ * the percentiles of a phase can be compared with those of the whole call.
+ *
+ * <pre>
+ * PhaseBreakdownListener breakdown = new PhaseBreakdownListener();
+ * ApiEvents.addListener(breakdown);
+ * ...
+ * logger.info(breakdown.report());
+ * </pre>
+ */
+public class PhaseBreakdownListener implements ApiEventListener {
+	private static final CallPhase[] PHASES = CallPhase.values();
+
+	private final ConcurrentHashMap<Method, Breakdown> breakdowns = new ConcurrentHashMap<>();
+	private final long window = ApiMetrics.window();
+
+	@Override
+	public void callEnd(ApiCallContext call, Throwable error) {
+		Breakdown breakdown = breakdowns.get(call.getMethod());
+		if (breakdown == null) {
+			breakdown = breakdowns.computeIfAbsent(call.getMethod(),
+					method -> new Breakdown(call.getClientName() + "." + method.getName(), window));
+		}
+		breakdown.total.record(call.getElapsedNanos());
+		for (CallPhase phase : PHASES) {
+			long duration = call.getDuration(phase);
+			if (duration > 0) {
+				breakdown.phases[phase.ordinal()].record(duration);
+			}
+		}
+	}
+
+	public Collection<Breakdown> getBreakdowns() {
+		return breakdowns.values();
+	}
+
+	/**
+	 * Formats mean and 99th percentile in milliseconds of every method and
+	 * phase, phases a method never went through are left out.
+	 */
+	public String report() {
+		StringBuilder sb = new StringBuilder();
+		for (Breakdown breakdown : breakdowns.values()) {
+			sb.append(breakdown.getName()).append(": ");
+			append(sb, "total", breakdown.total);
+			for (CallPhase phase : PHASES) {
+				LatencyHistogram histogram = breakdown.phases[phase.ordinal()];
+				if (histogram.getCount() > 0) {
+					append(sb.append(", "), phase.name().toLowerCase(), histogram);
+				}
+			}
+			sb.append(System.lineSeparator());
+		}
+		return sb.toString();
+	}
+
+	private static void append(StringBuilder sb, String label, LatencyHistogram histogram) {
+		long count = histogram.getCount();
+		double mean = count == 0 ? 0 : histogram.getTotalNanos() / (double) count / 1_000_000;
+		double p99 = histogram.percentiles(0.99)[0] / 1_000_000.0;
+		sb.append(label).append(String.format(" %.2f/%.2f ms", mean, p99));
+	}
+
+	/**
+	 * Durations of one method: the whole call and every phase, each recorded
+	 * once per call.
+	 */
+	public static class Breakdown {
+		private final String name;
+		private final LatencyHistogram total;
+		private final LatencyHistogram[] phases = new LatencyHistogram[PHASES.length];
+
+		Breakdown(String name, long window) {
+			this.name = name;
+			this.total = new LatencyHistogram(window, TimeUnit.MILLISECONDS);
+			for (int i = 0; i < phases.length; i++) {
+				phases[i] = new LatencyHistogram(window, TimeUnit.MILLISECONDS);
+			}
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public LatencyHistogram getTotal() {
+			return total;
+		}
+
+		public LatencyHistogram getPhase(CallPhase phase) {
+			return phases[phase.ordinal()];
+		}
+	}
+}
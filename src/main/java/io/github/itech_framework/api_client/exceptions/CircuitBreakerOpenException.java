@@ -0,0 +1,18 @@
+package io.github.itech_framework.api_client.exceptions;
+
+public class CircuitBreakerOpenException extends ApiException {
+    /**
+	 * 
+	 */
+	private static final long serialVersionUID = -3954260941254813126L;
+
+	private final String circuit;
+
+	public CircuitBreakerOpenException(String circuit) {
+        super("Circuit breaker " + circuit + " is open, call rejected", 503, null, "CIRCUIT_OPEN");
+        this.circuit = circuit;
+    }
+
+    // Name of the breaker that rejected the call
+    public String getCircuit() { return circuit; }
+}
@@ -0,0 +1,18 @@
+package io.github.itech_framework.api_client.exceptions;
+
+public class ConcurrencyLimitExceededException extends ApiException {
+    /**
+	 * 
+	 */
+	private static final long serialVersionUID = -6408517406870390347L;
+
+	private final String limiter;
+
+	public ConcurrencyLimitExceededException(String limiter) {
+        super("Concurrency limit " + limiter + " reached, call rejected", 503, null, "CONCURRENCY_LIMITED");
+        this.limiter = limiter;
+    }
+
+    // Name of the concurrency limit that rejected the call
+    public String getLimiter() { return limiter; }
+}
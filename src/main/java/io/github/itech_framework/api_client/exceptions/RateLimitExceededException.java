@@ -0,0 +1,18 @@
+package io.github.itech_framework.api_client.exceptions;
+
+public class RateLimitExceededException extends ApiException {
+    /**
+	 * 
+	 */
+	private static final long serialVersionUID = 2203349713815573419L;
+
+	private final String limiter;
+
+	public RateLimitExceededException(String limiter) {
+        super("Client-side rate limit " + limiter + " exceeded, call rejected", 429, null, "RATE_LIMITED");
+        this.limiter = limiter;
+    }
+
+    // Name of the rate limit that rejected the call
+    public String getLimiter() { return limiter; }
+}
@@ -1,12 +1,24 @@
 package io.github.itech_framework.api_client.exceptions;
 
+import java.time.Duration;
+
 public class ServiceUnavailableException extends ApiException {
     /**
 	 * 
 	 */
 	private static final long serialVersionUID = 4984811802356233328L;
 
+	private final Duration retryAfter;
+
 	public ServiceUnavailableException(String message, String responseBody, String errorCode) {
+        this(message, responseBody, errorCode, null);
+    }
+
+	public ServiceUnavailableException(String message, String responseBody, String errorCode, Duration retryAfter) {
         super(message, 503, responseBody, errorCode);
+        this.retryAfter = retryAfter;
     }
+
+    // Delay requested by the server's Retry-After header, null when absent
+    public Duration getRetryAfter() { return retryAfter; }
 }
@@ -1,12 +1,24 @@
 package io.github.itech_framework.api_client.exceptions;
 
+import java.time.Duration;
+
 public class TooManyRequestsException extends ApiException {
     /**
 	 * 
 	 */
 	private static final long serialVersionUID = 6787920584435193752L;
 
+	private final Duration retryAfter;
+
 	public TooManyRequestsException(String message, String responseBody, String errorCode) {
+        this(message, responseBody, errorCode, null);
+    }
+
+	public TooManyRequestsException(String message, String responseBody, String errorCode, Duration retryAfter) {
         super(message, 429, responseBody, errorCode);
+        this.retryAfter = retryAfter;
     }
+
+    // Delay requested by the server's Retry-After header, null when absent
+    public Duration getRetryAfter() { return retryAfter; }
 }
@@ -1,48 +1,58 @@
 package io.github.itech_framework.api_client.handlers;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
-import java.net.URISyntaxException;
+import java.lang.reflect.Modifier;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
-import javax.net.ssl.SSLContext;
-
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpEntityEnclosingRequest;
 import org.apache.http.HttpException;
 import org.apache.http.HttpRequest;
 import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.StatusLine;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpDelete;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpOptions;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpUriRequest;
-import org.apache.http.client.utils.URIBuilder;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.conn.ssl.SSLContexts;
-import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.client.utils.DateUtils;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.protocol.HttpContext;
@@ -50,48 +60,89 @@ import org.apache.http.util.EntityUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
 
 import io.github.itech_framework.api_client.annotations.ApiClient;
-import io.github.itech_framework.api_client.annotations.authentications.ApiKey;
-import io.github.itech_framework.api_client.annotations.authentications.Authenticated;
-import io.github.itech_framework.api_client.annotations.authentications.BasicAuth;
-import io.github.itech_framework.api_client.annotations.authentications.BearerToken;
-import io.github.itech_framework.api_client.annotations.authentications.OAuth2;
-import io.github.itech_framework.api_client.annotations.methods.DELETE;
-import io.github.itech_framework.api_client.annotations.methods.GET;
-import io.github.itech_framework.api_client.annotations.methods.Header;
-import io.github.itech_framework.api_client.annotations.methods.OPTION;
-import io.github.itech_framework.api_client.annotations.methods.POST;
-import io.github.itech_framework.api_client.annotations.methods.PUT;
-import io.github.itech_framework.api_client.annotations.parameters.Body;
-import io.github.itech_framework.api_client.annotations.parameters.Headers;
-import io.github.itech_framework.api_client.annotations.parameters.Path;
-import io.github.itech_framework.api_client.annotations.parameters.Query;
-import io.github.itech_framework.api_client.auth.TokenManager;
+import io.github.itech_framework.api_client.annotations.batching.Batched;
+import io.github.itech_framework.api_client.annotations.caching.Cached;
+import io.github.itech_framework.api_client.annotations.resilience.CircuitBreaker;
+import io.github.itech_framework.api_client.annotations.resilience.ConcurrencyLimit;
+import io.github.itech_framework.api_client.annotations.resilience.Hedge;
+import io.github.itech_framework.api_client.annotations.resilience.RateLimit;
+import io.github.itech_framework.api_client.cache.RequestCoalescer;
+import io.github.itech_framework.api_client.cache.ResponseCache;
+import io.github.itech_framework.api_client.concurrent.ApiExecutors;
+import io.github.itech_framework.api_client.concurrent.MicroBatcher;
+import io.github.itech_framework.api_client.events.ApiCallContext;
+import io.github.itech_framework.api_client.events.ApiEventListener;
+import io.github.itech_framework.api_client.events.ApiEvents;
 import io.github.itech_framework.api_client.exceptions.ApiException;
 import io.github.itech_framework.api_client.exceptions.BadRequestException;
+import io.github.itech_framework.api_client.exceptions.CircuitBreakerOpenException;
 import io.github.itech_framework.api_client.exceptions.ClientErrorException;
 import io.github.itech_framework.api_client.exceptions.ConflictException;
 import io.github.itech_framework.api_client.exceptions.ForbiddenException;
 import io.github.itech_framework.api_client.exceptions.InternalServerErrorException;
 import io.github.itech_framework.api_client.exceptions.NotFoundException;
+import io.github.itech_framework.api_client.exceptions.RateLimitExceededException;
 import io.github.itech_framework.api_client.exceptions.ServerErrorException;
 import io.github.itech_framework.api_client.exceptions.ServiceUnavailableException;
 import io.github.itech_framework.api_client.exceptions.TooManyRequestsException;
 import io.github.itech_framework.api_client.exceptions.UnauthorizedException;
+import io.github.itech_framework.api_client.http.CountingEntity;
+import io.github.itech_framework.api_client.http.HttpConnectionPools;
+import io.github.itech_framework.api_client.http.JdkAsyncTransport;
+import io.github.itech_framework.api_client.http.JsonEntity;
+import io.github.itech_framework.api_client.http.JsonResponseCursor;
+import io.github.itech_framework.api_client.http.PhaseInstrumentation;
+import io.github.itech_framework.api_client.http.ResponseCursor;
+import io.github.itech_framework.api_client.http.ResponseInputStream;
+import io.github.itech_framework.api_client.http.TimedInputStream;
 import io.github.itech_framework.api_client.interceptor.ApiInterceptor;
+import io.github.itech_framework.api_client.metrics.ApiMetrics;
+import io.github.itech_framework.api_client.metrics.ClientMetrics;
+import io.github.itech_framework.api_client.metrics.MethodMetrics;
+import io.github.itech_framework.api_client.resilience.Circuit;
+import io.github.itech_framework.api_client.resilience.ConcurrencyLimiter;
+import io.github.itech_framework.api_client.resilience.Hedger;
+import io.github.itech_framework.api_client.resilience.RateLimiter;
+import io.github.itech_framework.api_client.resilience.Retrier;
+import io.github.itech_framework.api_client.resilience.RetryBudget;
+import io.github.itech_framework.api_client.resilience.RetryPolicy;
 import io.github.itech_framework.api_client.utils.JsonUtils;
+import io.github.itech_framework.api_client.utils.enums.AsyncTransport;
+import io.github.itech_framework.api_client.utils.enums.CallPhase;
+import io.github.itech_framework.api_client.utils.enums.ExecutorType;
 import io.github.itech_framework.core.exceptions.FrameworkException;
 import io.github.itech_framework.core.utils.PropertiesLoader;
 
 public class ApiClientInvocationHandler implements InvocationHandler {
+	private static final Object[] NO_ARGS = new Object[0];
+	private static final long DOWNLOAD_CHUNK_SIZE = 8L * 1024 * 1024;
+	private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "PUT", "DELETE", "OPTIONS");
+
 	private final Class<?> apiInterface;
 	private final String baseUrl;
+	private final HttpConnectionPools.Pool connectionPool;
 	private final CloseableHttpClient httpClient;
-	private final ExecutorService executor = Executors.newFixedThreadPool(10);
+	private final JdkAsyncTransport asyncTransport;
+	private final Executor decodeExecutor;
+	private final ExecutorService executor;
+	private final boolean ownsExecutor;
+	private final Map<Method, MethodPlan> methodPlans;
+	private final ResponseCache responseCache;
+	private final RequestCoalescer requestCoalescer;
+	private final Map<Method, MicroBatcher> batchers;
+	private final Retrier retrier;
+	private final Map<Method, Circuit> circuits;
+	private final Map<Method, RateLimiter> rateLimiters;
+	private final Map<Method, ConcurrencyLimiter> concurrencyLimiters;
+	private final Map<Method, Hedger> hedgers;
+	private final ClientMetrics metrics;
+	private final AtomicBoolean closed = new AtomicBoolean();
 
 	private int connectionTimeout = 30 * 1000;
 	private int socketTimeout = 30 * 1000;
@@ -101,7 +152,31 @@ public class ApiClientInvocationHandler implements InvocationHandler {
 	public ApiClientInvocationHandler(Class<?> apiInterface) {
 		this.apiInterface = apiInterface;
 		this.baseUrl = resolveBaseUrl();
+
+		ApiClient apiClient = apiInterface.getAnnotation(ApiClient.class);
+		this.ownsExecutor = apiClient.executor().isEmpty();
+		this.executor = ownsExecutor
+				? ApiExecutors.create(apiClient.executorType(), apiClient.executorThreads(),
+						apiInterface.getSimpleName())
+				: ApiExecutors.lookup(apiClient.executor());
+		this.connectionPool = HttpConnectionPools.acquire(apiClient, baseUrl);
 		this.httpClient = createHttpClient();
+		this.asyncTransport = createAsyncTransport(apiClient);
+		this.decodeExecutor = createDecodeExecutor();
+		this.methodPlans = compileMethodPlans();
+		this.responseCache = createResponseCache();
+		this.requestCoalescer = methodPlans.values().stream().anyMatch(MethodPlan::isCoalesced) ? new RequestCoalescer()
+				: null;
+		this.batchers = createBatchers();
+		this.retrier = createRetrier();
+		this.circuits = createCircuits();
+		this.rateLimiters = createRateLimiters();
+		this.concurrencyLimiters = createConcurrencyLimiters();
+		this.hedgers = createHedgers();
+		this.metrics = createMetrics();
+		if (metrics != null) {
+			ApiMetrics.register(metrics);
+		}
 	}
 
 	@Override
@@ -110,244 +185,536 @@ public class ApiClientInvocationHandler implements InvocationHandler {
 			return handleObjectMethod(proxy, method, args);
 		}
 
-		if (method.getReturnType() == CompletableFuture.class) {
-			return handleAsync(method, args);
-		}
-		return handleSync(method, args);
+		return call(getMethodPlan(method), args == null ? NO_ARGS : args);
 	}
 
-	private Object handleSync(Method method, Object[] args) throws Exception {
-		CloseableHttpResponse response = executeRequest(method, args);
-		Type returnType = method.getGenericReturnType();
-		return processResponse(response, new TypeReference<Object>() {
-			@Override
-			public Type getType() {
-				return returnType;
-			}
-		});
+	/**
+	 * Returns the compiled plan of an API method. Generated clients resolve
+	 * their plans once with it and then {@link #call} them directly.
+	 */
+	public MethodPlan getMethodPlan(Method method) {
+		MethodPlan plan = methodPlans.get(method);
+		if (plan == null) {
+			throw new IllegalArgumentException("No HTTP method annotation found on method: " + method.getName());
+		}
+		return plan;
 	}
 
-	private CompletableFuture<?> handleAsync(Method method, Object[] args) {
-		return CompletableFuture.supplyAsync(() -> {
+	/**
+	 * Calls an API method with the given arguments, which must not be
+	 * {@code null}.
+	 */
+	public Object call(MethodPlan plan, Object[] arguments) throws Throwable {
+		Method method = plan.getMethod();
+		ApiEventListener[] listeners = ApiEvents.getListeners();
+		if (metrics == null && listeners.length == 0) {
+			return dispatch(plan, arguments, null);
+		}
+
+		MethodMetrics methodMetrics = metrics != null ? metrics.forMethod(method) : null;
+		ApiCallContext call = listeners.length == 0 ? null
+				: new ApiCallContext(apiInterface.getSimpleName(), method, plan.getHttpMethod(), plan.getPathTemplate(),
+						listeners);
+		long start = methodMetrics != null ? methodMetrics.start() : 0;
+		if (call != null) {
+			call.start();
+		}
+		if (plan.isAsync()) {
+			CompletableFuture<?> future;
 			try {
-				CloseableHttpResponse response = executeRequest(method, args);
-				Type returnType = ((ParameterizedType) method.getGenericReturnType()).getActualTypeArguments()[0];
-				return processResponse(response, new TypeReference<>() {
-					@Override
-					public Type getType() {
-						return returnType;
-					}
-				});
-			} catch (Exception e) {
-				throw new CompletionException(e);
+				future = (CompletableFuture<?>) dispatch(plan, arguments, call);
+			} catch (Throwable e) {
+				finish(methodMetrics, start, call, e);
+				throw e;
 			}
-		}, executor);
+			future.whenComplete((result, error) -> finish(methodMetrics, start, call,
+					error instanceof CompletionException && error.getCause() != null ? error.getCause() : error));
+			return future;
+		}
+		try {
+			Object result = dispatch(plan, arguments, call);
+			finish(methodMetrics, start, call, null);
+			return result;
+		} catch (Throwable e) {
+			finish(methodMetrics, start, call, e);
+			throw e;
+		}
 	}
 
-	private CloseableHttpResponse executeRequest(Method method, Object[] args) throws Exception {
-		HttpMethodInfo httpMethodInfo = getHttpMethodInfo(method);
-		String pathTemplate = httpMethodInfo.getPath();
+	private static void finish(MethodMetrics methodMetrics, long start, ApiCallContext call, Throwable error) {
+		if (methodMetrics != null) {
+			methodMetrics.stop(start, error);
+		}
+		if (call != null) {
+			call.end(error);
+		}
+	}
 
-		Map<String, String> pathParams = extractPathParams(method, args);
-		String resolvedPath = replacePathParams(pathTemplate, pathParams);
+	private Object dispatch(MethodPlan plan, Object[] arguments, ApiCallContext call) throws Throwable {
+		Method method = plan.getMethod();
+		if (!batchers.isEmpty()) {
+			MicroBatcher batcher = batchers.get(method);
+			if (batcher != null) {
+				return handleBatched(plan, batcher, arguments[0]);
+			}
+		}
+		if (plan.isAsync()) {
+			return executeAsync(plan, arguments, call);
+		}
+		return execute(plan, arguments, call);
+	}
 
-		URIBuilder uriBuilder = new URIBuilder(baseUrl + resolvedPath);
-		processQueryParams(method, args, uriBuilder);
+	private Object execute(MethodPlan plan, Object[] args, ApiCallContext call) throws Exception {
+		RetryPolicy retryPolicy = plan.getRetryPolicy();
+		if (retryPolicy == null || !plan.hasRepeatableBody(args)) {
+			return limited(plan, args, call);
+		}
+		return retrier.execute(retryPolicy, () -> limited(plan, args, call), retryListener(plan));
+	}
 
-		HttpUriRequest request = createRequest(httpMethodInfo, uriBuilder);
+	private CompletableFuture<Object> executeAsync(MethodPlan plan, Object[] args, ApiCallContext call) {
+		RetryPolicy retryPolicy = plan.getRetryPolicy();
+		if (retryPolicy == null || !plan.hasRepeatableBody(args)) {
+			return limitedAsync(plan, args, call);
+		}
+		return retrier.executeAsync(retryPolicy, () -> limitedAsync(plan, args, call), retryListener(plan));
+	}
 
-		// custom user define configuration
-		if (ApiInterceptor.class.isAssignableFrom(apiInterface)) {
+	private Runnable retryListener(MethodPlan plan) {
+		return metrics == null ? null : metrics.forMethod(plan.getMethod()).getRetryCounter();
+	}
 
+	private Object limited(MethodPlan plan, Object[] args, ApiCallContext call) throws Exception {
+		RateLimiter rateLimiter = rateLimiters.isEmpty() ? null : rateLimiters.get(plan.getMethod());
+		if (rateLimiter != null) {
+			rateLimiter.acquire();
 		}
-		processRequestBody(method, args, request);
-		addHeaders(method, request, args);
-		applyAuthentication(method, request);
-
-		return httpClient.execute(request);
+		return bounded(plan, args, call);
 	}
 
-	private Object handleObjectMethod(Object proxy, Method method, Object[] args) {
-		return switch (method.getName()) {
-		case "toString" -> "ApiClientProxy[" + apiInterface.getName() + "]";
-		case "hashCode" -> System.identityHashCode(proxy);
-		case "equals" -> proxy == args[0];
-		default -> throw new UnsupportedOperationException("Unsupported Object method: " + method.getName());
-		};
+	private CompletableFuture<Object> limitedAsync(MethodPlan plan, Object[] args, ApiCallContext call) {
+		RateLimiter rateLimiter = rateLimiters.isEmpty() ? null : rateLimiters.get(plan.getMethod());
+		if (rateLimiter == null) {
+			return boundedAsync(plan, args, call);
+		}
+		long wait;
+		try {
+			wait = rateLimiter.reserve();
+		} catch (RateLimitExceededException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		if (wait == 0) {
+			return boundedAsync(plan, args, call);
+		}
+
+		CompletableFuture<Object> result = new CompletableFuture<>();
+		ApiExecutors.scheduler().schedule(() -> {
+			try {
+				executor.execute(() -> boundedAsync(plan, args, call).whenComplete((value, error) -> {
+					if (error != null) {
+						result.completeExceptionally(error);
+					} else {
+						result.complete(value);
+					}
+				}));
+			} catch (RejectedExecutionException e) {
+				result.completeExceptionally(e);
+			}
+		}, wait, TimeUnit.NANOSECONDS);
+		return result;
 	}
 
-	private HttpMethodInfo getHttpMethodInfo(Method method) {
-		if (method.isAnnotationPresent(GET.class)) {
-			return new HttpMethodInfo("GET", method.getAnnotation(GET.class).value());
-		} else if (method.isAnnotationPresent(POST.class)) {
-			return new HttpMethodInfo("POST", method.getAnnotation(POST.class).value());
-		} else if (method.isAnnotationPresent(PUT.class)) {
-			return new HttpMethodInfo("PUT", method.getAnnotation(PUT.class).value());
-		} else if (method.isAnnotationPresent(DELETE.class)) {
-			return new HttpMethodInfo("DELETE", method.getAnnotation(DELETE.class).value());
-		} else if (method.isAnnotationPresent(OPTION.class)) {
-			return new HttpMethodInfo("OPTIONS", method.getAnnotation(OPTION.class).value());
+	private Object bounded(MethodPlan plan, Object[] args, ApiCallContext call) throws Exception {
+		ConcurrencyLimiter limiter = concurrencyLimiters.isEmpty() ? null : concurrencyLimiters.get(plan.getMethod());
+		if (limiter == null) {
+			return guarded(plan, args, call);
+		}
+		limiter.acquire();
+		long start = System.nanoTime();
+		try {
+			Object result = guarded(plan, args, call);
+			limiter.release(start, null);
+			return result;
+		} catch (Throwable e) {
+			// errors must return the slot as well
+			limiter.release(start, e);
+			throw e;
 		}
-		throw new IllegalArgumentException("No HTTP method annotation found on method: " + method.getName());
 	}
 
-	private Map<String, String> extractPathParams(Method method, Object[] args) {
-		Map<String, String> params = new HashMap<>();
-		Parameter[] parameters = method.getParameters();
-		for (int i = 0; i < parameters.length; i++) {
-			Path path = parameters[i].getAnnotation(Path.class);
-			if (path != null) {
-				params.put(path.value(), args[i].toString());
+	private CompletableFuture<Object> boundedAsync(MethodPlan plan, Object[] args, ApiCallContext call) {
+		ConcurrencyLimiter limiter = concurrencyLimiters.isEmpty() ? null : concurrencyLimiters.get(plan.getMethod());
+		if (limiter == null) {
+			return guardedAsync(plan, args, call);
+		}
+		return limiter.acquireAsync().thenCompose(slot -> {
+			long start = System.nanoTime();
+			CompletableFuture<Object> result;
+			try {
+				result = guardedAsync(plan, args, call);
+			} catch (RuntimeException | Error e) {
+				limiter.release(start, e);
+				throw e;
 			}
+			return result.whenComplete((value, error) -> limiter.release(start,
+					error instanceof CompletionException && error.getCause() != null ? error.getCause() : error));
+		});
+	}
+
+	private Object guarded(MethodPlan plan, Object[] args, ApiCallContext call) throws Exception {
+		Circuit circuit = circuits.isEmpty() ? null : circuits.get(plan.getMethod());
+		if (circuit == null) {
+			return hedged(plan, args, call);
+		}
+		circuit.acquirePermission();
+		long start = System.nanoTime();
+		try {
+			Object result = hedged(plan, args, call);
+			circuit.onSuccess(System.nanoTime() - start);
+			return result;
+		} catch (Throwable e) {
+			// errors must settle a half-open trial as well
+			circuit.onError(System.nanoTime() - start, e);
+			throw e;
 		}
-		return params;
 	}
 
-	private String replacePathParams(String path, Map<String, String> params) {
-		for (Map.Entry<String, String> entry : params.entrySet()) {
-			path = path.replace("{" + entry.getKey() + "}", entry.getValue());
+	private CompletableFuture<Object> guardedAsync(MethodPlan plan, Object[] args, ApiCallContext call) {
+		Circuit circuit = circuits.isEmpty() ? null : circuits.get(plan.getMethod());
+		if (circuit == null) {
+			return hedgedAsync(plan, args, call);
 		}
-		return path;
+		try {
+			circuit.acquirePermission();
+		} catch (CircuitBreakerOpenException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		long start = System.nanoTime();
+		CompletableFuture<Object> attempt;
+		try {
+			attempt = hedgedAsync(plan, args, call);
+		} catch (RuntimeException | Error e) {
+			circuit.onError(System.nanoTime() - start, e);
+			throw e;
+		}
+		return attempt.whenComplete((result, error) -> {
+			if (error == null) {
+				circuit.onSuccess(System.nanoTime() - start);
+			} else {
+				circuit.onError(System.nanoTime() - start,
+						error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+			}
+		});
 	}
 
-	private void processQueryParams(Method method, Object[] args, URIBuilder uriBuilder) {
-		Parameter[] parameters = method.getParameters();
-		for (int i = 0; i < parameters.length; i++) {
-			Query query = parameters[i].getAnnotation(Query.class);
-			if (query != null) {
-				uriBuilder.addParameter(query.value(), args[i].toString());
+	private Object hedged(MethodPlan plan, Object[] args, ApiCallContext call) throws Exception {
+		Hedger hedger = hedgers.isEmpty() ? null : hedgers.get(plan.getMethod());
+		if (hedger == null || !plan.hasRepeatableBody(args)) {
+			return handleSync(plan, args, call);
+		}
+		try {
+			return hedge(plan, args, hedger, call).get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
 			}
+			throw (Error) cause;
 		}
 	}
 
-	private HttpUriRequest createRequest(HttpMethodInfo methodInfo, URIBuilder uriBuilder) throws URISyntaxException {
-		return switch (methodInfo.getMethod().toUpperCase()) {
-		case "GET" -> new HttpGet(uriBuilder.build());
-		case "POST" -> new HttpPost(uriBuilder.build());
-		case "PUT" -> new HttpPut(uriBuilder.build());
-		case "DELETE" -> new HttpDelete(uriBuilder.build());
-		case "OPTIONS" -> new HttpOptions(uriBuilder.build());
-		default -> throw new IllegalArgumentException("Unsupported HTTP method: " + methodInfo.getMethod());
-		};
+	private CompletableFuture<Object> hedgedAsync(MethodPlan plan, Object[] args, ApiCallContext call) {
+		Hedger hedger = hedgers.isEmpty() ? null : hedgers.get(plan.getMethod());
+		if (hedger == null || !plan.hasRepeatableBody(args)) {
+			return handleAsync(plan, args, call);
+		}
+		return hedge(plan, args, hedger, call);
+	}
+
+	private CompletableFuture<Object> hedge(MethodPlan plan, Object[] args, Hedger hedger, ApiCallContext call) {
+		if (!plan.isCoalesced()) {
+			return hedge(plan, args, hedger, null, call);
+		}
+		HttpUriRequest request;
+		try {
+			request = buildRequest(plan, args);
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		// identical calls share one hedged exchange, whose first attempt sends the request built for the key
+		return requestCoalescer.executeAsync(plan.getMethod(), request,
+				() -> hedge(plan, args, hedger, request, call));
 	}
 
-	private void processRequestBody(Method method, Object[] args, HttpUriRequest request) {
-		if (request instanceof HttpEntityEnclosingRequest) {
-			for (int i = 0; i < method.getParameters().length; i++) {
-				if (method.getParameters()[i].isAnnotationPresent(Body.class)) {
-					Object bodyObj = args[i];
-					String json = JsonUtils.toJson(bodyObj);
-					StringEntity entity = new StringEntity(json, ContentType.APPLICATION_JSON);
-					((HttpEntityEnclosingRequest) request).setEntity(entity);
-					break;
+	private CompletableFuture<Object> hedge(MethodPlan plan, Object[] args, Hedger hedger, HttpUriRequest prepared,
+			ApiCallContext call) {
+		AtomicReference<HttpUriRequest> first = new AtomicReference<>(prepared);
+		return hedger.execute(() -> {
+			HttpUriRequest unsent = first.getAndSet(null);
+			HttpUriRequest request = unsent != null ? unsent : buildRequest(plan, args);
+			return new Hedger.Attempt(dispatchAsync(plan, args, request, call), () -> {
+				if (request instanceof HttpRequestBase) {
+					((HttpRequestBase) request).abort();
 				}
-			}
+			});
+		});
+	}
+
+	private Object handleSync(MethodPlan plan, Object[] args, ApiCallContext call) throws Exception {
+		if (!plan.isCacheable() && !plan.isCoalesced()) {
+			CloseableHttpResponse response = executeRequest(plan, args, call);
+			return readResponse(response, plan, args, call);
+		}
+		HttpUriRequest request = buildRequest(plan, args);
+		if (plan.isCoalesced()) {
+			return requestCoalescer.execute(plan.getMethod(), request, () -> exchange(plan, args, request, call));
 		}
+		return exchange(plan, args, request, call);
 	}
 
-	private void addHeaders(Method method, HttpUriRequest request, Object[] args) {
-		processMethodHeaders(method, request);
-		processParameterHeaders(method, request, args);
+	private Object handleBatched(MethodPlan plan, MicroBatcher batcher, Object key) throws Throwable {
+		CompletableFuture<Object> future = batcher.submit(key);
+		if (plan.isAsync()) {
+			return future;
+		}
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			throw e.getCause();
+		}
 	}
 
-	private void processMethodHeaders(Method method, HttpUriRequest request) {
-		Header[] headers = method.getAnnotationsByType(Header.class);
-		for (Header header : headers) {
-			request.addHeader(header.name(), header.value());
+	private CompletableFuture<Object> handleAsync(MethodPlan plan, Object[] args, ApiCallContext call) {
+		if (!plan.isCoalesced()) {
+			return dispatchAsync(plan, args, null, call);
 		}
+		HttpUriRequest request;
+		try {
+			request = buildRequest(plan, args);
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		return requestCoalescer.executeAsync(plan.getMethod(), request, () -> dispatchAsync(plan, args, request, call));
 	}
 
-	private void processParameterHeaders(Method method, HttpUriRequest request, Object[] args) {
-		Parameter[] parameters = method.getParameters();
-		for (int i = 0; i < parameters.length; i++) {
-			Parameter param = parameters[i];
-			if (param.isAnnotationPresent(Headers.class)) {
-				Object arg = args[i];
-				validateHeadersParameter(arg);
-				addHeadersFromMap(request, (Map<?, ?>) arg);
+	private CompletableFuture<Object> dispatchAsync(MethodPlan plan, Object[] args, HttpUriRequest prepared,
+			ApiCallContext call) {
+		if (asyncTransport != null) {
+			return handleNonBlocking(plan, args, prepared, call);
+		}
+		long queued = call != null ? System.nanoTime() : 0;
+		return CompletableFuture.supplyAsync(() -> {
+			if (call != null) {
+				call.phase(CallPhase.QUEUE, queued, System.nanoTime());
+			}
+			try {
+				return prepared != null ? exchange(plan, args, prepared, call) : handleSync(plan, args, call);
+			} catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		}, executor);
+	}
+
+	private CompletableFuture<Object> handleNonBlocking(MethodPlan plan, Object[] args, HttpUriRequest prepared,
+			ApiCallContext call) {
+		HttpUriRequest request;
+		try {
+			request = prepared != null ? prepared : buildRequest(plan, args);
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		ResponseCache.Entry cached = null;
+		if (plan.isCacheable()) {
+			cached = responseCache.lookup(plan.getMethod(), request);
+			if (cached != null && cached.isFresh()) {
+				return CompletableFuture.completedFuture(cached.getValue());
+			}
+			responseCache.addValidators(request, cached);
+		}
+		ResponseCache.Entry entry = cached;
+		CompletableFuture<HttpResponse> exchange = asyncTransport.execute(request,
+				plan.getResponseKind().isIncremental());
+		long[] received = null;
+		if (call != null) {
+			long sent = System.nanoTime();
+			long[] arrival = received = new long[1];
+			exchange = exchange.whenComplete((response, error) -> {
+				arrival[0] = System.nanoTime();
+				call.phase(CallPhase.TTFB, sent, arrival[0]);
+			});
+		}
+		long[] arrival = received;
+		return exchange.thenApplyAsync(response -> {
+			if (call != null) {
+				call.phase(CallPhase.DECODE_QUEUE, arrival[0], System.nanoTime());
 			}
+			try {
+				return plan.isCacheable() ? readCacheableResponse(response, plan, args, request, entry, call)
+						: readResponse(response, plan, args, call);
+			} catch (IOException e) {
+				throw new CompletionException(e);
+			}
+		}, decodeExecutor);
+	}
+
+	private CloseableHttpResponse executeRequest(MethodPlan plan, Object[] args, ApiCallContext call)
+			throws Exception {
+		return send(buildRequest(plan, args), call);
+	}
+
+	// connection and exchange phases are reported by hooks that find the call bound to this thread
+	private CloseableHttpResponse send(HttpUriRequest request, ApiCallContext call) throws IOException {
+		if (call == null) {
+			return httpClient.execute(request);
+		}
+		call.bind();
+		try {
+			return httpClient.execute(request);
+		} finally {
+			ApiCallContext.unbind();
 		}
 	}
 
-	private void validateHeadersParameter(Object arg) {
-		if (!(arg instanceof Map)) {
-			throw new FrameworkException("@Headers parameter must be a Map<String, String>");
+	private Object exchange(MethodPlan plan, Object[] args, HttpUriRequest request, ApiCallContext call)
+			throws Exception {
+		if (!plan.isCacheable()) {
+			return readResponse(send(request, call), plan, args, call);
+		}
+		ResponseCache.Entry entry = responseCache.lookup(plan.getMethod(), request);
+		if (entry != null && entry.isFresh()) {
+			return entry.getValue();
 		}
+		responseCache.addValidators(request, entry);
+		return readCacheableResponse(send(request, call), plan, args, request, entry, call);
 	}
 
-	private void addHeadersFromMap(HttpUriRequest request, Map<?, ?> headersMap) {
-		headersMap.forEach((key, value) -> {
-			if (key != null && value != null) {
-				request.addHeader(key.toString(), value.toString());
+	private Object readCacheableResponse(HttpResponse response, MethodPlan plan, Object[] args,
+			HttpUriRequest request, ResponseCache.Entry entry, ApiCallContext call) throws IOException {
+		if (entry != null && response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+			recordResponse(plan, response);
+			EntityUtils.consumeQuietly(response.getEntity());
+			if (response instanceof Closeable) {
+				((Closeable) response).close();
 			}
-		});
+			return responseCache.revalidated(entry, response);
+		}
+
+		// the metered entity counts the cached size too, so the response is wrapped only once
+		HttpEntity entity = response.getEntity();
+		CountingEntity body = null;
+		if (entity != null) {
+			body = metrics != null ? metrics.forMethod(plan.getMethod()).meterResponse(entity)
+					: new CountingEntity(entity);
+			response.setEntity(body);
+		}
+		Object value = readResponse(response, plan, args, call);
+		responseCache.store(plan.getMethod(), request, response, value, body != null ? body.getCount() : 0);
+		return value;
 	}
 
-	private void applyAuthentication(Method method, HttpUriRequest request) {
-		Authenticated auth = method.getAnnotation(Authenticated.class);
-		if (auth == null)
-			auth = apiInterface.getAnnotation(Authenticated.class);
-		if (auth == null)
-			return;
+	private HttpUriRequest buildRequest(MethodPlan plan, Object[] args) throws IOException {
+		HttpUriRequest request = plan.createRequest(args);
 
-		switch (auth.value()) {
-		case BASIC:
-			BasicAuth basicAuth = method.getAnnotation(BasicAuth.class);
-			if (basicAuth == null)
-				basicAuth = apiInterface.getAnnotation(BasicAuth.class);
-			applyBasicAuth(request, basicAuth);
-			break;
-		case API_KEY:
-			ApiKey apiKey = method.getAnnotation(ApiKey.class);
-			if (apiKey == null)
-				apiKey = apiInterface.getAnnotation(ApiKey.class);
-			applyApiKey(request, apiKey);
-			break;
-		case BEARER:
-			BearerToken bearer = method.getAnnotation(BearerToken.class);
-			if (bearer == null)
-				bearer = apiInterface.getAnnotation(BearerToken.class);
-			applyBearerToken(request, bearer);
-			break;
-		case OAUTH2:
-			OAuth2 oauth = method.getAnnotation(OAuth2.class);
-			if (oauth == null)
-				oauth = apiInterface.getAnnotation(OAuth2.class);
-			applyOAuth2(request, oauth);
-			break;
-		}
-	}
-
-	private void applyBasicAuth(HttpUriRequest request, BasicAuth auth) {
-		String credentials = auth.username() + ":" + auth.password();
-		String encoded = Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
-		request.addHeader("Authorization", "Basic " + encoded);
-	}
-
-	private void applyApiKey(HttpUriRequest request, ApiKey apiKey) {
-		if (apiKey.inHeader()) {
-			request.addHeader(apiKey.name(), apiKey.value());
-		} else {
-			try {
-				URIBuilder uriBuilder = new URIBuilder(request.getURI());
-				uriBuilder.addParameter(apiKey.name(), apiKey.value());
-				((HttpRequestBase) request).setURI(uriBuilder.build());
-			} catch (URISyntaxException e) {
-				throw new FrameworkException("Error adding API key to query parameters", e);
+		// custom user define configuration
+		if (ApiInterceptor.class.isAssignableFrom(apiInterface)) {
+
+		}
+		plan.bindBody(args, request);
+		plan.bindHeaders(args, request);
+		if (metrics != null && request instanceof HttpEntityEnclosingRequest) {
+			HttpEntityEnclosingRequest enclosing = (HttpEntityEnclosingRequest) request;
+			if (enclosing.getEntity() != null) {
+				enclosing.setEntity(metrics.forMethod(plan.getMethod()).meterRequest(enclosing.getEntity()));
+			}
+		}
+		return request;
+	}
+
+	private Map<Method, MethodPlan> compileMethodPlans() {
+		Map<Method, MethodPlan> plans = new HashMap<>();
+		for (Method method : apiInterface.getMethods()) {
+			if (!Modifier.isStatic(method.getModifiers()) && MethodPlan.isHttpMethod(method)) {
+				plans.put(method, MethodPlan.compile(apiInterface, baseUrl, method));
 			}
 		}
+		return Map.copyOf(plans);
+	}
+
+	private Map<Method, MicroBatcher> createBatchers() {
+		Map<Method, MicroBatcher> result = new HashMap<>();
+		for (MethodPlan plan : methodPlans.values()) {
+			Method method = plan.getMethod();
+			Batched batched = method.getAnnotation(Batched.class);
+			if (batched == null) {
+				continue;
+			}
+			if (method.getParameterCount() != 1) {
+				throw new IllegalArgumentException("@Batched method must take exactly one key parameter: "
+						+ method.getName());
+			}
+			MethodPlan bulkPlan = methodPlans.values().stream()
+					.filter(candidate -> candidate.getMethod().getName().equals(batched.value())
+							&& candidate.getMethod().getParameterCount() == 1
+							&& keysAdapter(candidate.getMethod().getParameterTypes()[0]) != null)
+					.findFirst()
+					.orElseThrow(() -> new IllegalArgumentException("No bulk method " + batched.value()
+							+ " taking a List, Set or Collection of keys found for @Batched method: "
+							+ method.getName()));
+			Function<List<Object>, Object> adapter = keysAdapter(bulkPlan.getMethod().getParameterTypes()[0]);
+			result.put(method,
+					new MicroBatcher(keys -> executeAsync(bulkPlan, new Object[] { adapter.apply(keys) }, null),
+							batched.keyProperty(), batched.maxSize(), batched.maxDelay(), executor));
+		}
+		return Map.copyOf(result);
+	}
+
+	// converts the distinct keys of a batch to the collection type the bulk method takes
+	private static Function<List<Object>, Object> keysAdapter(Class<?> parameterType) {
+		if (parameterType.isAssignableFrom(ArrayList.class)) {
+			return keys -> keys;
+		}
+		if (parameterType.isAssignableFrom(LinkedHashSet.class)) {
+			return LinkedHashSet::new;
+		}
+		return null;
+	}
+
+	private Object handleObjectMethod(Object proxy, Method method, Object[] args) {
+		return switch (method.getName()) {
+		case "toString" -> "ApiClientProxy[" + apiInterface.getName() + "]";
+		case "hashCode" -> System.identityHashCode(proxy);
+		case "equals" -> proxy == args[0];
+		default -> throw new UnsupportedOperationException("Unsupported Object method: " + method.getName());
+		};
 	}
 
-	private void applyBearerToken(HttpUriRequest request, BearerToken bearer) {
-		request.addHeader("Authorization", "Bearer " + bearer.token());
+	private Object readResponse(HttpResponse response, MethodPlan plan, Object[] args, ApiCallContext call)
+			throws IOException {
+		recordResponse(plan, response);
+		switch (plan.getResponseKind()) {
+		case VALUE:
+			return processResponse(response, plan.getResponseType(), call);
+		case STREAM:
+		case CURSOR:
+			return processStreamingResponse(response, plan);
+		default:
+			return processBinaryResponse(response, plan, args);
+		}
 	}
 
-	private void applyOAuth2(HttpUriRequest request, OAuth2 oauth) {
-		String accessToken = TokenManager.getToken(oauth);
-		request.addHeader("Authorization", "Bearer " + accessToken);
+	// the body is counted while it is read, including streams read after the call returns
+	private void recordResponse(MethodPlan plan, HttpResponse response) {
+		if (metrics != null) {
+			MethodMetrics methodMetrics = metrics.forMethod(plan.getMethod());
+			methodMetrics.recordResponse(response.getStatusLine().getStatusCode());
+			if (response.getEntity() != null && !(response.getEntity() instanceof CountingEntity)) {
+				response.setEntity(methodMetrics.meterResponse(response.getEntity()));
+			}
+		}
 	}
 
-	private <T> T processResponse(CloseableHttpResponse response, TypeReference<T> typeRef) throws IOException {
+	private <T> T processResponse(HttpResponse response, TypeReference<T> typeRef, ApiCallContext call)
+			throws IOException {
 
 		HttpEntity entity = response.getEntity();
 		String responseBody = null;
@@ -355,38 +722,54 @@ public class ApiClientInvocationHandler implements InvocationHandler {
 		int statusCode = statusLine.getStatusCode();
 
 		try {
-			if (entity != null) {
-				ContentType contentType = ContentType.getOrDefault(entity);
-				Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
-				responseBody = EntityUtils.toString(entity, charset);
-			}
+			ContentType contentType = entity != null ? ContentType.getOrDefault(entity) : null;
+			Charset charset = contentType != null && contentType.getCharset() != null ? contentType.getCharset()
+					: StandardCharsets.UTF_8;
 
 			if (statusCode >= 400) {
+				responseBody = entity != null ? EntityUtils.toString(entity, charset) : null;
 				throw createExceptionForStatusCode(statusCode, responseBody, response);
 			}
 
-			if (responseBody == null || responseBody.trim().isEmpty()) {
+			if (entity == null || entity.getContentLength() == 0) {
 				return null;
 			}
 
 			if (typeRef.getType() == String.class) {
+				responseBody = EntityUtils.toString(entity, charset);
 				@SuppressWarnings("unchecked")
-				T result = (T) responseBody;
+				T result = responseBody.trim().isEmpty() ? null : (T) responseBody;
 				return result;
 			}
 
-			ContentType responseType = ContentType.getOrDefault(entity);
-			String receivedMimeType = responseType.getMimeType();
+			String receivedMimeType = contentType.getMimeType();
 			String expectedMimeType = ContentType.APPLICATION_JSON.getMimeType();
 
 			if (!receivedMimeType.equalsIgnoreCase(expectedMimeType)) {
-				throw new ApiException("Unexpected content type: " + responseType, statusCode, responseBody,
+				responseBody = EntityUtils.toString(entity, charset);
+				if (responseBody.trim().isEmpty()) {
+					return null;
+				}
+				throw new ApiException("Unexpected content type: " + contentType, statusCode, responseBody,
 						"INVALID_CONTENT_TYPE");
 			}
 
-			return JsonUtils.fromJson(responseBody, typeRef);
+			if (call == null) {
+				try (InputStream content = entity.getContent()) {
+					return JsonUtils.fromJson(content, charset, typeRef);
+				}
+			}
+			// the body is parsed while it streams in, time spent waiting in reads is the body transfer
+			long start = System.nanoTime();
+			try (TimedInputStream content = new TimedInputStream(entity.getContent())) {
+				T result = JsonUtils.fromJson(content, charset, typeRef);
+				long bodyEnd = start + content.getNanos();
+				call.phase(CallPhase.BODY, start, bodyEnd);
+				call.phase(CallPhase.DECODE, bodyEnd, System.nanoTime());
+				return result;
+			}
 
-		} catch (JsonParseException e) {
+		} catch (JsonProcessingException e) {
 			throw new ApiException("Failed to parse JSON response", statusCode, responseBody, "JSON_PARSE_ERROR", e);
 		} catch (ApiException e) {
 			throw e;
@@ -395,9 +778,9 @@ public class ApiClientInvocationHandler implements InvocationHandler {
 					"PROCESSING_ERROR", e);
 		} finally {
 			EntityUtils.consumeQuietly(entity);
-			if (response != null) {
+			if (response instanceof Closeable) {
 				try {
-					response.close();
+					((Closeable) response).close();
 				} catch (IOException e) {
 					logger.warn("Error closing response", e);
 				}
@@ -405,8 +788,133 @@ public class ApiClientInvocationHandler implements InvocationHandler {
 		}
 	}
 
+	private Object processStreamingResponse(HttpResponse response, MethodPlan plan) throws IOException {
+		HttpEntity entity = response.getEntity();
+		String responseBody = null;
+		int statusCode = response.getStatusLine().getStatusCode();
+		boolean handedOff = false;
+
+		try {
+			ContentType contentType = entity != null ? ContentType.getOrDefault(entity) : null;
+			Charset charset = contentType != null && contentType.getCharset() != null ? contentType.getCharset()
+					: StandardCharsets.UTF_8;
+
+			if (statusCode >= 400) {
+				responseBody = entity != null ? EntityUtils.toString(entity, charset) : null;
+				throw createExceptionForStatusCode(statusCode, responseBody, response);
+			}
+
+			ResponseCursor<Object> cursor;
+			if (entity == null || entity.getContentLength() == 0) {
+				cursor = new JsonResponseCursor<>(MappingIterator.emptyIterator(), entity, null);
+			} else {
+				String receivedMimeType = contentType.getMimeType();
+				if (!receivedMimeType.equalsIgnoreCase(ContentType.APPLICATION_JSON.getMimeType())
+						&& !receivedMimeType.equalsIgnoreCase(JsonEntity.NDJSON)) {
+					responseBody = EntityUtils.toString(entity, charset);
+					throw new ApiException("Unexpected content type: " + contentType, statusCode, responseBody,
+							"INVALID_CONTENT_TYPE");
+				}
+				cursor = new JsonResponseCursor<>(
+						JsonUtils.readValues(entity.getContent(), charset, plan.getElementReader()), entity,
+						response instanceof Closeable ? (Closeable) response : null);
+			}
+			handedOff = true;
+			return plan.getResponseKind() == MethodPlan.ResponseKind.STREAM ? cursor.stream() : cursor;
+
+		} catch (JsonProcessingException e) {
+			throw new ApiException("Failed to parse JSON response", statusCode, responseBody, "JSON_PARSE_ERROR", e);
+		} catch (ApiException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new ApiException("Unexpected error processing response: " + e.getMessage(), statusCode, responseBody,
+					"PROCESSING_ERROR", e);
+		} finally {
+			if (!handedOff) {
+				EntityUtils.consumeQuietly(entity);
+				if (response instanceof Closeable) {
+					try {
+						((Closeable) response).close();
+					} catch (IOException e) {
+						logger.warn("Error closing response", e);
+					}
+				}
+			}
+		}
+	}
+
+	private Object processBinaryResponse(HttpResponse response, MethodPlan plan, Object[] args) throws IOException {
+		HttpEntity entity = response.getEntity();
+		String responseBody = null;
+		int statusCode = response.getStatusLine().getStatusCode();
+		boolean handedOff = false;
+
+		try {
+			if (statusCode >= 400) {
+				ContentType contentType = entity != null ? ContentType.getOrDefault(entity) : null;
+				Charset charset = contentType != null && contentType.getCharset() != null ? contentType.getCharset()
+						: StandardCharsets.UTF_8;
+				responseBody = entity != null ? EntityUtils.toString(entity, charset) : null;
+				throw createExceptionForStatusCode(statusCode, responseBody, response);
+			}
+
+			switch (plan.getResponseKind()) {
+			case BYTES:
+				return entity != null ? EntityUtils.toByteArray(entity) : new byte[0];
+			case FILE:
+				java.nio.file.Path target = plan.resolveDownloadTarget(args);
+				downloadTo(entity, target);
+				return target;
+			default:
+				InputStream content = entity != null
+						? new ResponseInputStream(entity.getContent(),
+								response instanceof Closeable ? (Closeable) response : null)
+						: InputStream.nullInputStream();
+				handedOff = entity != null;
+				return plan.getResponseKind() == MethodPlan.ResponseKind.CHANNEL ? Channels.newChannel(content)
+						: content;
+			}
+
+		} catch (ApiException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new ApiException("Unexpected error processing response: " + e.getMessage(), statusCode, responseBody,
+					"PROCESSING_ERROR", e);
+		} finally {
+			if (!handedOff) {
+				EntityUtils.consumeQuietly(entity);
+				if (response instanceof Closeable) {
+					try {
+						((Closeable) response).close();
+					} catch (IOException e) {
+						logger.warn("Error closing response", e);
+					}
+				}
+			}
+		}
+	}
+
+	private void downloadTo(HttpEntity entity, java.nio.file.Path target) throws IOException {
+		try (FileChannel file = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			if (entity == null) {
+				return;
+			}
+			try (ReadableByteChannel source = Channels.newChannel(entity.getContent())) {
+				long position = 0;
+				long transferred;
+				while ((transferred = file.transferFrom(source, position, DOWNLOAD_CHUNK_SIZE)) > 0) {
+					position += transferred;
+				}
+			}
+		} catch (IOException e) {
+			Files.deleteIfExists(target);
+			throw e;
+		}
+	}
+
 	private ApiException createExceptionForStatusCode(int statusCode, String responseBody,
-			CloseableHttpResponse response) {
+			HttpResponse response) {
 		String errorCode = extractErrorCodeFromResponse(responseBody);
 		String message = String.format("API request failed with status %d: %s", statusCode,
 				getDefaultMessageForStatusCode(statusCode));
@@ -423,11 +931,11 @@ public class ApiClientInvocationHandler implements InvocationHandler {
 		case 409:
 			return new ConflictException(message, responseBody, errorCode);
 		case 429:
-			return new TooManyRequestsException(message, responseBody, errorCode);
+			return new TooManyRequestsException(message, responseBody, errorCode, parseRetryAfter(response));
 		case 500:
 			return new InternalServerErrorException(message, responseBody, errorCode);
 		case 503:
-			return new ServiceUnavailableException(message, responseBody, errorCode);
+			return new ServiceUnavailableException(message, responseBody, errorCode, parseRetryAfter(response));
 		default:
 			if (statusCode >= 400 && statusCode < 500) {
 				return new ClientErrorException(message, statusCode, responseBody, errorCode);
@@ -439,6 +947,20 @@ public class ApiClientInvocationHandler implements InvocationHandler {
 		}
 	}
 
+	private Duration parseRetryAfter(HttpResponse response) {
+		Header header = response.getFirstHeader("Retry-After");
+		if (header == null) {
+			return null;
+		}
+		String value = header.getValue().trim();
+		try {
+			return Duration.ofSeconds(Math.max(0, Long.parseLong(value)));
+		} catch (NumberFormatException e) {
+			Date date = DateUtils.parseDate(value);
+			return date == null ? null : Duration.ofMillis(Math.max(0, date.getTime() - System.currentTimeMillis()));
+		}
+	}
+
 	private String extractErrorCodeFromResponse(String responseBody) {
 		if (responseBody == null || responseBody.trim().isEmpty()) {
 			return "UNKNOWN_ERROR";
@@ -487,15 +1009,8 @@ public class ApiClientInvocationHandler implements InvocationHandler {
 		}
 	}
 
-	@SuppressWarnings("deprecation")
 	private CloseableHttpClient createHttpClient() {
 		try {
-			SSLContext sslContext = SSLContexts.custom().loadTrustMaterial(null, new TrustSelfSignedStrategy()).build();
-
-			SSLConnectionSocketFactory sslSocketFactory = new SSLConnectionSocketFactory(sslContext,
-					new String[] { "TLSv1.2", "TLSv1.3" }, // Specify protocols
-					null, SSLConnectionSocketFactory.getDefaultHostnameVerifier());
-
 			String connectionTimeOutStr = PropertiesLoader.getProperty("flexi.api.connection.timeout", "0");
 			connectionTimeout = connectionTimeOutStr == null ? connectionTimeout
 					: Integer.parseInt(connectionTimeOutStr);
@@ -506,12 +1021,180 @@ public class ApiClientInvocationHandler implements InvocationHandler {
 			return HttpClients.custom()
 					.setDefaultRequestConfig(RequestConfig.custom().setConnectTimeout(connectionTimeout)
 							.setSocketTimeout(socketTimeout).setRedirectsEnabled(true).build())
-					.setSSLSocketFactory(sslSocketFactory).addInterceptorFirst(new LoggingInterceptor()).build();
+					.setConnectionManager(PhaseInstrumentation.connectionManager(connectionPool.getConnectionManager()))
+					.setConnectionManagerShared(true).setRequestExecutor(PhaseInstrumentation.requestExecutor())
+					.setKeepAliveStrategy(connectionPool.getKeepAliveStrategy())
+					.addInterceptorFirst(new LoggingInterceptor()).build();
 		} catch (Exception e) {
 			throw new FrameworkException("Failed to create HTTP client", e);
 		}
 	}
 
+	private JdkAsyncTransport createAsyncTransport(ApiClient apiClient) {
+		AsyncTransport transport = apiClient.asyncTransport();
+		if (transport == AsyncTransport.DEFAULT) {
+			String configured = PropertiesLoader.getProperty("flexi.api.async.transport", "");
+			transport = configured == null || configured.isBlank() ? AsyncTransport.EXECUTOR
+					: AsyncTransport.valueOf(configured.trim().toUpperCase());
+		}
+		return transport == AsyncTransport.NON_BLOCKING
+				? new JdkAsyncTransport(executor, connectionTimeout, socketTimeout)
+				: null;
+	}
+
+	private Executor createDecodeExecutor() {
+		String decodeThreads = PropertiesLoader.getProperty("flexi.api.async.decodeThreads", "0");
+		int threads = decodeThreads == null || decodeThreads.isBlank() ? 0 : Integer.parseInt(decodeThreads.trim());
+		if (asyncTransport == null || threads <= 0) {
+			return executor;
+		}
+		return ApiExecutors.create(ExecutorType.PLATFORM, threads, apiInterface.getSimpleName() + "-decode");
+	}
+
+	private ResponseCache createResponseCache() {
+		if (methodPlans.values().stream().noneMatch(MethodPlan::isCacheable)) {
+			return null;
+		}
+		Cached cached = apiInterface.getAnnotation(Cached.class);
+		String maxEntries = PropertiesLoader.getProperty("flexi.api.cache.maxEntries", "1000");
+		String maxBytes = PropertiesLoader.getProperty("flexi.api.cache.maxBytes", String.valueOf(16L * 1024 * 1024));
+		return new ResponseCache(
+				cached != null && cached.maxEntries() > 0 ? cached.maxEntries() : Integer.parseInt(maxEntries.trim()),
+				cached != null && cached.maxBytes() > 0 ? cached.maxBytes() : Long.parseLong(maxBytes.trim()));
+	}
+
+	private Retrier createRetrier() {
+		if (methodPlans.values().stream().allMatch(plan -> plan.getRetryPolicy() == null)) {
+			return null;
+		}
+		String percent = PropertiesLoader.getProperty("flexi.api.retry.budgetPercent", "20");
+		String minRetries = PropertiesLoader.getProperty("flexi.api.retry.minRetries", "10");
+		return new Retrier(new RetryBudget(Integer.parseInt(percent.trim()), Integer.parseInt(minRetries.trim())),
+				executor);
+	}
+
+	private Map<Method, Circuit> createCircuits() {
+		Map<Method, Circuit> result = new HashMap<>();
+		CircuitBreaker clientConfig = apiInterface.getAnnotation(CircuitBreaker.class);
+		Circuit clientCircuit = clientConfig != null ? new Circuit(apiInterface.getSimpleName(), clientConfig) : null;
+		for (MethodPlan plan : methodPlans.values()) {
+			CircuitBreaker config = plan.getMethod().getAnnotation(CircuitBreaker.class);
+			if (config != null) {
+				result.put(plan.getMethod(), new Circuit(apiInterface.getSimpleName() + " " + plan.getHttpMethod() + " "
+						+ plan.getPathTemplate(), config));
+			} else if (clientCircuit != null) {
+				result.put(plan.getMethod(), clientCircuit);
+			}
+		}
+		return Map.copyOf(result);
+	}
+
+	private Map<Method, RateLimiter> createRateLimiters() {
+		Map<Method, RateLimiter> result = new HashMap<>();
+		RateLimit clientConfig = apiInterface.getAnnotation(RateLimit.class);
+		RateLimiter clientLimiter = clientConfig != null ? createRateLimiter(apiInterface.getSimpleName(), clientConfig)
+				: null;
+		for (MethodPlan plan : methodPlans.values()) {
+			RateLimit config = plan.getMethod().getAnnotation(RateLimit.class);
+			if (config != null) {
+				result.put(plan.getMethod(),
+						createRateLimiter(apiInterface.getSimpleName() + "." + plan.getMethod().getName(), config));
+			} else if (clientLimiter != null) {
+				result.put(plan.getMethod(), clientLimiter);
+			}
+		}
+		return Map.copyOf(result);
+	}
+
+	private RateLimiter createRateLimiter(String name, RateLimit config) {
+		String permits = PropertiesLoader.getProperty("flexi.api.rateLimit." + name + ".permits", "");
+		String period = PropertiesLoader.getProperty("flexi.api.rateLimit." + name + ".period", "");
+		return new RateLimiter(name,
+				permits == null || permits.isBlank() ? config.permits() : Integer.parseInt(permits.trim()),
+				period == null || period.isBlank() ? config.period() : Long.parseLong(period.trim()), config.mode(),
+				config.timeout());
+	}
+
+	private Map<Method, ConcurrencyLimiter> createConcurrencyLimiters() {
+		Map<Method, ConcurrencyLimiter> result = new HashMap<>();
+		ConcurrencyLimit clientConfig = apiInterface.getAnnotation(ConcurrencyLimit.class);
+		ConcurrencyLimiter clientLimiter = clientConfig != null
+				? new ConcurrencyLimiter(apiInterface.getSimpleName(), clientConfig)
+				: null;
+		for (MethodPlan plan : methodPlans.values()) {
+			ConcurrencyLimit config = plan.getMethod().getAnnotation(ConcurrencyLimit.class);
+			if (config != null) {
+				String name = apiInterface.getSimpleName() + " " + plan.getHttpMethod() + " " + plan.getPathTemplate();
+				result.put(plan.getMethod(), new ConcurrencyLimiter(name, config));
+			} else if (clientLimiter != null) {
+				result.put(plan.getMethod(), clientLimiter);
+			}
+		}
+		return Map.copyOf(result);
+	}
+
+	private Map<Method, Hedger> createHedgers() {
+		Map<Method, Hedger> result = new HashMap<>();
+		Hedge clientConfig = apiInterface.getAnnotation(Hedge.class);
+		for (MethodPlan plan : methodPlans.values()) {
+			Hedge config = plan.getMethod().getAnnotation(Hedge.class);
+			boolean hedgeable = IDEMPOTENT_METHODS.contains(plan.getHttpMethod())
+					&& (plan.getResponseKind() == MethodPlan.ResponseKind.VALUE
+							|| plan.getResponseKind() == MethodPlan.ResponseKind.BYTES)
+					&& plan.hasRepeatableBodyType();
+			if (config != null && !hedgeable) {
+				throw new IllegalArgumentException("@Hedge requires an idempotent method with a repeatable body "
+						+ "and a fully read result: " + plan.getMethod().getName());
+			}
+			if (config == null && clientConfig != null && hedgeable) {
+				config = clientConfig;
+			}
+			if (config != null) {
+				result.put(plan.getMethod(), new Hedger(config, executor));
+			}
+		}
+		return Map.copyOf(result);
+	}
+
+	private ClientMetrics createMetrics() {
+		if (!ApiMetrics.isEnabled()) {
+			return null;
+		}
+		double[] quantiles = ApiMetrics.quantiles();
+		long window = ApiMetrics.window();
+		Map<Method, MethodMetrics> result = new HashMap<>();
+		Map<String, Integer> names = new HashMap<>();
+		// sorted so overloads are numbered the same way in every run
+		List<Method> methods = methodPlans.keySet().stream()
+				.sorted(Comparator.comparing(Method::getName)
+						.thenComparing(method -> Arrays.toString(method.getParameterTypes())))
+				.collect(Collectors.toList());
+		for (Method method : methods) {
+			// overloads share a name, later ones are numbered
+			int overload = names.merge(method.getName(), 1, Integer::sum);
+			String name = overload == 1 ? method.getName() : method.getName() + "#" + overload;
+			result.put(method, new MethodMetrics(apiInterface.getSimpleName(), name, quantiles, window,
+					concurrencyLimiters.isEmpty() ? null : concurrencyLimiters.get(method)));
+		}
+		return new ClientMetrics(apiInterface.getSimpleName(), result, connectionPool.getConnectionManager());
+	}
+
+	/**
+	 * Metrics of this client, {@code null} when disabled through
+	 * {@code flexi.api.metrics.enabled}.
+	 */
+	public ClientMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Adaptive concurrency limiters of this client, to expose their current
+	 * limits.
+	 */
+	public Collection<ConcurrencyLimiter> getConcurrencyLimiters() {
+		return Set.copyOf(concurrencyLimiters.values());
+	}
+
 	private String resolveBaseUrl() {
 		ApiClient apiClient = apiInterface.getAnnotation(ApiClient.class);
 		String baseUrl = apiClient.baseUrl();
@@ -536,16 +1219,28 @@ public class ApiClientInvocationHandler implements InvocationHandler {
 
 	// clean up
 	public void close() {
-		try {
-			logger.debug("Shouting down executor...");
-			executor.shutdown();
-			if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+		if (!closed.compareAndSet(false, true)) {
+			return;
+		}
+		batchers.values().forEach(MicroBatcher::flush);
+		if (metrics != null) {
+			ApiMetrics.unregister(metrics);
+		}
+		if (decodeExecutor != executor) {
+			((ExecutorService) decodeExecutor).shutdownNow();
+		}
+		if (ownsExecutor) {
+			try {
+				logger.debug("Shouting down executor...");
+				executor.shutdown();
+				if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+					executor.shutdownNow();
+				}
+				logger.debug("Executors shoutted down!");
+			} catch (InterruptedException e) {
 				executor.shutdownNow();
+				Thread.currentThread().interrupt();
 			}
-			logger.debug("Executors shoutted down!");
-		} catch (InterruptedException e) {
-			executor.shutdownNow();
-			Thread.currentThread().interrupt();
 		}
 
 		try {
@@ -555,24 +1250,7 @@ public class ApiClientInvocationHandler implements InvocationHandler {
 		} catch (IOException e) {
 			System.err.println("Error closing HttpClient: " + e.getMessage());
 		}
-	}
-
-	protected static class HttpMethodInfo {
-		private final String method;
-		private final String path;
-
-		HttpMethodInfo(String method, String path) {
-			this.method = method;
-			this.path = path;
-		}
-
-		String getMethod() {
-			return method;
-		}
-
-		String getPath() {
-			return path;
-		}
+		HttpConnectionPools.release(connectionPool);
 	}
 
 	private static class LoggingInterceptor implements HttpRequestInterceptor {
@@ -0,0 +1,63 @@
+package io.github.itech_framework.api_client.handlers;
+
+import io.github.itech_framework.core.exceptions.FrameworkException;
+
+/**
+ * Base class of the client implementations that the api-client-processor
+ * annotation processor generates for {@code @ApiClient} interfaces. A
+ * generated client looks up the plan of each of its methods once and then
+ * calls the handler directly, without a proxy or a per-call method lookup in
+ * between. {@code ApiProcessor} uses the generated class when it is on the
+ * class path and falls back to a proxy otherwise.
+ */
+public abstract class GeneratedApiClient {
+	/**
+	 * Appended to the interface name to form the name of its generated class.
+	 */
+	public static final String SUFFIX = "_Impl";
+
+	protected static final Object[] NO_ARGS = new Object[0];
+
+	private final Class<?> apiInterface;
+	protected final ApiClientInvocationHandler handler;
+
+	protected GeneratedApiClient(Class<?> apiInterface, ApiClientInvocationHandler handler) {
+		this.apiInterface = apiInterface;
+		this.handler = handler;
+	}
+
+	/**
+	 * Returns the name of the class generated for an API interface: the
+	 * interface's name within its package, nested names joined by {@code _},
+	 * followed by {@link #SUFFIX}.
+	 */
+	public static String implementationName(Class<?> apiInterface) {
+		String packageName = apiInterface.getPackageName();
+		String name = packageName.isEmpty() ? apiInterface.getName()
+				: apiInterface.getName().substring(packageName.length() + 1);
+		return (packageName.isEmpty() ? "" : packageName + ".") + name.replace('$', '_') + SUFFIX;
+	}
+
+	public ApiClientInvocationHandler getInvocationHandler() {
+		return handler;
+	}
+
+	protected final MethodPlan methodPlan(String name, Class<?>... parameterTypes) {
+		try {
+			return handler.getMethodPlan(apiInterface.getMethod(name, parameterTypes));
+		} catch (NoSuchMethodException e) {
+			throw new FrameworkException("Generated client of " + apiInterface.getName()
+					+ " does not match the interface, regenerate it", e);
+		}
+	}
+
+	// what the proxy throws for methods without an HTTP method annotation
+	protected final IllegalArgumentException notAnHttpMethod(String name) {
+		return new IllegalArgumentException("No HTTP method annotation found on method: " + name);
+	}
+
+	@Override
+	public String toString() {
+		return "ApiClientProxy[" + apiInterface.getName() + "]";
+	}
+}
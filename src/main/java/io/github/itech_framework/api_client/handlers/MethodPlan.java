@@ -0,0 +1,570 @@
+package io.github.itech_framework.api_client.handlers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpOptions;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.message.BasicNameValuePair;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.github.itech_framework.api_client.annotations.authentications.ApiKey;
+import io.github.itech_framework.api_client.annotations.authentications.Authenticated;
+import io.github.itech_framework.api_client.annotations.authentications.BasicAuth;
+import io.github.itech_framework.api_client.annotations.authentications.BearerToken;
+import io.github.itech_framework.api_client.annotations.authentications.OAuth2;
+import io.github.itech_framework.api_client.annotations.caching.Cached;
+import io.github.itech_framework.api_client.annotations.caching.Coalesced;
+import io.github.itech_framework.api_client.annotations.methods.DELETE;
+import io.github.itech_framework.api_client.annotations.methods.GET;
+import io.github.itech_framework.api_client.annotations.methods.Header;
+import io.github.itech_framework.api_client.annotations.methods.OPTION;
+import io.github.itech_framework.api_client.annotations.methods.POST;
+import io.github.itech_framework.api_client.annotations.methods.PUT;
+import io.github.itech_framework.api_client.annotations.parameters.Body;
+import io.github.itech_framework.api_client.annotations.parameters.DownloadTo;
+import io.github.itech_framework.api_client.annotations.parameters.FormField;
+import io.github.itech_framework.api_client.annotations.parameters.Headers;
+import io.github.itech_framework.api_client.annotations.parameters.Part;
+import io.github.itech_framework.api_client.annotations.parameters.Path;
+import io.github.itech_framework.api_client.annotations.parameters.Query;
+import io.github.itech_framework.api_client.annotations.resilience.Retry;
+import io.github.itech_framework.api_client.auth.TokenManager;
+import io.github.itech_framework.api_client.http.JsonEntity;
+import io.github.itech_framework.api_client.http.MultipartEntity;
+import io.github.itech_framework.api_client.http.ResponseCursor;
+import io.github.itech_framework.api_client.resilience.RetryPolicy;
+import io.github.itech_framework.api_client.utils.JsonUtils;
+import io.github.itech_framework.core.exceptions.FrameworkException;
+
+/**
+ * Immutable, precompiled description of a single API method. Everything that
+ * can be derived from annotations (verb, path template, parameter roles, static
+ * headers and authentication values) is resolved once, so that a call only has
+ * to bind its arguments.
+ */
+public final class MethodPlan {
+	private static final String AUTHORIZATION = "Authorization";
+
+	private final Method method;
+	private final String httpMethod;
+	private final String pathTemplate;
+	private final UriTemplate uriTemplate;
+	private final int[] headerParams;
+	private final int bodyIndex;
+	private final int downloadIndex;
+	private final ContentType bodyContentType;
+	private final FormParam[] formParams;
+	private final boolean multipart;
+	private final BasicHeader[] staticHeaders;
+	private final BasicHeader[] authHeaders;
+	private final OAuth2 oauth2;
+	private final boolean async;
+	private final boolean cacheable;
+	private final boolean coalesced;
+	private final RetryPolicy retryPolicy;
+	private final TypeReference<Object> responseType;
+	private final ResponseKind responseKind;
+	private final ObjectReader elementReader;
+
+	private MethodPlan(Method method, String httpMethod, String pathTemplate, UriTemplate uriTemplate,
+			int[] headerParams, int bodyIndex, int downloadIndex, ContentType bodyContentType, FormParam[] formParams,
+			BasicHeader[] staticHeaders, BasicHeader[] authHeaders, OAuth2 oauth2, boolean cacheEnabled,
+			boolean coalesceEnabled, Retry retry) {
+		this.method = method;
+		this.httpMethod = httpMethod;
+		this.pathTemplate = pathTemplate;
+		this.uriTemplate = uriTemplate;
+		this.headerParams = headerParams;
+		this.bodyIndex = bodyIndex;
+		this.downloadIndex = downloadIndex;
+		this.bodyContentType = bodyContentType;
+		this.formParams = formParams;
+		this.multipart = Arrays.stream(formParams).anyMatch(param -> param.part);
+		this.staticHeaders = staticHeaders;
+		this.authHeaders = authHeaders;
+		this.oauth2 = oauth2;
+		this.async = method.getReturnType() == CompletableFuture.class;
+		this.retryPolicy = RetryPolicy.of(retry, httpMethod);
+
+		Type returnType = async ? ((ParameterizedType) method.getGenericReturnType()).getActualTypeArguments()[0]
+				: method.getGenericReturnType();
+		this.responseType = new TypeReference<>() {
+			@Override
+			public Type getType() {
+				return returnType;
+			}
+		};
+
+		Class<?> rawType = returnType instanceof ParameterizedType
+				? (Class<?>) ((ParameterizedType) returnType).getRawType()
+				: returnType instanceof Class ? (Class<?>) returnType : Object.class;
+		if (rawType == Stream.class) {
+			this.responseKind = ResponseKind.STREAM;
+		} else if (rawType == Iterator.class || rawType == ResponseCursor.class) {
+			this.responseKind = ResponseKind.CURSOR;
+		} else if (rawType == InputStream.class) {
+			this.responseKind = ResponseKind.INPUT_STREAM;
+		} else if (rawType == ReadableByteChannel.class) {
+			this.responseKind = ResponseKind.CHANNEL;
+		} else if (rawType == byte[].class) {
+			this.responseKind = ResponseKind.BYTES;
+		} else if (rawType == java.nio.file.Path.class) {
+			this.responseKind = ResponseKind.FILE;
+		} else {
+			this.responseKind = ResponseKind.VALUE;
+		}
+		this.cacheable = cacheEnabled && "GET".equals(httpMethod) && responseKind == ResponseKind.VALUE;
+		this.coalesced = coalesceEnabled && "GET".equals(httpMethod) && responseKind == ResponseKind.VALUE;
+		this.elementReader = responseKind != ResponseKind.STREAM && responseKind != ResponseKind.CURSOR ? null
+				: JsonUtils.readerFor(returnType instanceof ParameterizedType
+						? ((ParameterizedType) returnType).getActualTypeArguments()[0]
+						: Object.class);
+	}
+
+	/**
+	 * Returns {@code true} when the method carries one of the HTTP verb
+	 * annotations and can therefore be compiled into a plan.
+	 */
+	public static boolean isHttpMethod(Method method) {
+		return method.isAnnotationPresent(GET.class) || method.isAnnotationPresent(POST.class)
+				|| method.isAnnotationPresent(PUT.class) || method.isAnnotationPresent(DELETE.class)
+				|| method.isAnnotationPresent(OPTION.class);
+	}
+
+	public static MethodPlan compile(Class<?> apiInterface, String baseUrl, Method method) {
+		String httpMethod;
+		String pathTemplate;
+		if (method.isAnnotationPresent(GET.class)) {
+			httpMethod = "GET";
+			pathTemplate = method.getAnnotation(GET.class).value();
+		} else if (method.isAnnotationPresent(POST.class)) {
+			httpMethod = "POST";
+			pathTemplate = method.getAnnotation(POST.class).value();
+		} else if (method.isAnnotationPresent(PUT.class)) {
+			httpMethod = "PUT";
+			pathTemplate = method.getAnnotation(PUT.class).value();
+		} else if (method.isAnnotationPresent(DELETE.class)) {
+			httpMethod = "DELETE";
+			pathTemplate = method.getAnnotation(DELETE.class).value();
+		} else if (method.isAnnotationPresent(OPTION.class)) {
+			httpMethod = "OPTIONS";
+			pathTemplate = method.getAnnotation(OPTION.class).value();
+		} else {
+			throw new IllegalArgumentException("No HTTP method annotation found on method: " + method.getName());
+		}
+
+		Parameter[] parameters = method.getParameters();
+		List<Integer> headerParams = new ArrayList<>();
+		Map<String, Integer> pathParams = new HashMap<>();
+		List<Map.Entry<String, Integer>> queryParams = new ArrayList<>();
+		int bodyIndex = -1;
+		int downloadIndex = -1;
+		ContentType bodyContentType = null;
+		List<FormParam> formParams = new ArrayList<>();
+		for (int i = 0; i < parameters.length; i++) {
+			Parameter parameter = parameters[i];
+			Path path = parameter.getAnnotation(Path.class);
+			Query query = parameter.getAnnotation(Query.class);
+			if (path != null) {
+				pathParams.put(path.value(), i);
+			} else if (query != null) {
+				queryParams.add(Map.entry(query.value(), i));
+			} else if (parameter.isAnnotationPresent(Body.class)) {
+				if (bodyIndex < 0) {
+					bodyIndex = i;
+					bodyContentType = ContentType.parse(parameter.getAnnotation(Body.class).contentType());
+					if (bodyContentType.getCharset() == null) {
+						bodyContentType = bodyContentType.withCharset(StandardCharsets.UTF_8);
+					}
+				}
+			} else if (parameter.isAnnotationPresent(Part.class)) {
+				Part part = parameter.getAnnotation(Part.class);
+				formParams.add(new FormParam(i, part.value(), part.filename().isEmpty() ? null : part.filename(),
+						part.contentType().isEmpty() ? null : part.contentType(), true));
+			} else if (parameter.isAnnotationPresent(FormField.class)) {
+				formParams.add(new FormParam(i, parameter.getAnnotation(FormField.class).value(), null, null, false));
+			} else if (parameter.isAnnotationPresent(DownloadTo.class)) {
+				downloadIndex = i;
+			} else if (parameter.isAnnotationPresent(Headers.class)) {
+				headerParams.add(i);
+			}
+		}
+
+		if (bodyIndex >= 0 && !formParams.isEmpty()) {
+			throw new IllegalArgumentException(
+					"@Body cannot be combined with @Part or @FormField parameters on method: " + method.getName());
+		}
+
+		List<BasicHeader> headers = new ArrayList<>();
+		for (Header header : method.getAnnotationsByType(Header.class)) {
+			headers.add(new BasicHeader(header.name(), header.value()));
+		}
+
+		List<BasicHeader> authHeaders = new ArrayList<>();
+		Map<String, String> staticQuery = new LinkedHashMap<>();
+		OAuth2 oauth2 = compileAuthentication(apiInterface, method, authHeaders, staticQuery);
+
+		UriTemplate uriTemplate = UriTemplate.compile(baseUrl, pathTemplate, pathParams, queryParams, staticQuery);
+		return new MethodPlan(method, httpMethod, pathTemplate, uriTemplate,
+				headerParams.stream().mapToInt(Integer::intValue).toArray(), bodyIndex, downloadIndex, bodyContentType,
+				formParams.toArray(new FormParam[0]),
+				headers.toArray(new BasicHeader[0]), authHeaders.toArray(new BasicHeader[0]), oauth2,
+				isCacheEnabled(apiInterface, method), isCoalesceEnabled(apiInterface, method),
+				method.isAnnotationPresent(Retry.class) ? method.getAnnotation(Retry.class)
+						: apiInterface.getAnnotation(Retry.class));
+	}
+
+	private static OAuth2 compileAuthentication(Class<?> apiInterface, Method method, List<BasicHeader> headers,
+			Map<String, String> queryParams) {
+		Authenticated auth = method.getAnnotation(Authenticated.class);
+		if (auth == null)
+			auth = apiInterface.getAnnotation(Authenticated.class);
+		if (auth == null)
+			return null;
+
+		switch (auth.value()) {
+		case BASIC:
+			BasicAuth basicAuth = resolveAnnotation(apiInterface, method, BasicAuth.class);
+			String credentials = basicAuth.username() + ":" + basicAuth.password();
+			String encoded = Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+			headers.add(new BasicHeader(AUTHORIZATION, "Basic " + encoded));
+			return null;
+		case API_KEY:
+			ApiKey apiKey = resolveAnnotation(apiInterface, method, ApiKey.class);
+			if (apiKey.inHeader()) {
+				headers.add(new BasicHeader(apiKey.name(), apiKey.value()));
+			} else {
+				queryParams.put(apiKey.name(), apiKey.value());
+			}
+			return null;
+		case BEARER:
+			BearerToken bearer = resolveAnnotation(apiInterface, method, BearerToken.class);
+			headers.add(new BasicHeader(AUTHORIZATION, "Bearer " + bearer.token()));
+			return null;
+		case OAUTH2:
+			return resolveAnnotation(apiInterface, method, OAuth2.class);
+		default:
+			return null;
+		}
+	}
+
+	private static boolean isCacheEnabled(Class<?> apiInterface, Method method) {
+		Cached cached = method.getAnnotation(Cached.class);
+		if (cached == null)
+			cached = apiInterface.getAnnotation(Cached.class);
+		return cached != null && cached.value();
+	}
+
+	private static boolean isCoalesceEnabled(Class<?> apiInterface, Method method) {
+		Coalesced coalesced = method.getAnnotation(Coalesced.class);
+		if (coalesced == null)
+			coalesced = apiInterface.getAnnotation(Coalesced.class);
+		return coalesced != null && coalesced.value();
+	}
+
+	private static <A extends java.lang.annotation.Annotation> A resolveAnnotation(Class<?> apiInterface,
+			Method method, Class<A> type) {
+		A annotation = method.getAnnotation(type);
+		if (annotation == null)
+			annotation = apiInterface.getAnnotation(type);
+		if (annotation == null)
+			throw new FrameworkException("Missing @" + type.getSimpleName() + " configuration for method: "
+					+ method.getName());
+		return annotation;
+	}
+
+	public HttpUriRequest createRequest(Object[] args) {
+		URI uri = uriTemplate.expand(args);
+		return switch (httpMethod) {
+		case "GET" -> new HttpGet(uri);
+		case "POST" -> new HttpPost(uri);
+		case "PUT" -> new HttpPut(uri);
+		case "DELETE" -> new HttpDelete(uri);
+		case "OPTIONS" -> new HttpOptions(uri);
+		default -> throw new IllegalArgumentException("Unsupported HTTP method: " + httpMethod);
+		};
+	}
+
+	public void bindBody(Object[] args, HttpUriRequest request) throws IOException {
+		if (!(request instanceof HttpEntityEnclosingRequest)) {
+			return;
+		}
+		if (formParams.length > 0) {
+			((HttpEntityEnclosingRequest) request).setEntity(multipart ? createMultipartEntity(args)
+					: createFormEntity(args));
+		} else if (bodyIndex >= 0 && args[bodyIndex] != null) {
+			((HttpEntityEnclosingRequest) request).setEntity(new JsonEntity(args[bodyIndex], bodyContentType));
+		}
+	}
+
+	/**
+	 * Whether the request body bound from these arguments can be sent again,
+	 * {@code false} when it is read from a stream or iterator that the first
+	 * attempt consumes.
+	 */
+	public boolean hasRepeatableBody(Object[] args) {
+		if (!"POST".equals(httpMethod) && !"PUT".equals(httpMethod)) {
+			return true;
+		}
+		if (multipart) {
+			for (FormParam param : formParams) {
+				for (Object value : valuesOf(args[param.index])) {
+					if (!MultipartEntity.isRepeatablePart(value)) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+		return formParams.length > 0 || bodyIndex < 0 || JsonEntity.isRepeatableBody(args[bodyIndex]);
+	}
+
+	/**
+	 * Whether the declared body or part types can be sent more than once,
+	 * judged from the parameter types alone.
+	 */
+	public boolean hasRepeatableBodyType() {
+		Type[] types = method.getGenericParameterTypes();
+		if (multipart) {
+			for (FormParam param : formParams) {
+				if (InputStream.class.isAssignableFrom(elementClass(types[param.index]))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (formParams.length > 0 || bodyIndex < 0) {
+			return true;
+		}
+		Class<?> bodyType = method.getParameterTypes()[bodyIndex];
+		return !(BaseStream.class.isAssignableFrom(bodyType) || Iterator.class.isAssignableFrom(bodyType)
+				|| (Iterable.class.isAssignableFrom(bodyType) && !Collection.class.isAssignableFrom(bodyType)));
+	}
+
+	private static Class<?> elementClass(Type type) {
+		if (type instanceof Class && ((Class<?>) type).isArray()) {
+			return ((Class<?>) type).getComponentType();
+		}
+		if (type instanceof ParameterizedType
+				&& Collection.class.isAssignableFrom((Class<?>) ((ParameterizedType) type).getRawType())) {
+			type = ((ParameterizedType) type).getActualTypeArguments()[0];
+		}
+		if (type instanceof ParameterizedType) {
+			type = ((ParameterizedType) type).getRawType();
+		}
+		return type instanceof Class ? (Class<?>) type : Object.class;
+	}
+
+	private HttpEntity createMultipartEntity(Object[] args) throws IOException {
+		List<MultipartEntity.FormPart> parts = new ArrayList<>();
+		for (FormParam param : formParams) {
+			for (Object value : valuesOf(args[param.index])) {
+				parts.add(MultipartEntity.part(param.name, param.filename, param.contentType, value));
+			}
+		}
+		return new MultipartEntity(parts);
+	}
+
+	private HttpEntity createFormEntity(Object[] args) {
+		List<NameValuePair> fields = new ArrayList<>();
+		for (FormParam param : formParams) {
+			for (Object value : valuesOf(args[param.index])) {
+				fields.add(new BasicNameValuePair(param.name, value.toString()));
+			}
+		}
+		return new UrlEncodedFormEntity(fields, StandardCharsets.UTF_8);
+	}
+
+	private static List<?> valuesOf(Object value) {
+		if (value == null) {
+			return List.of();
+		}
+		if (value instanceof Collection) {
+			List<Object> values = new ArrayList<>((Collection<?>) value);
+			values.removeIf(Objects::isNull);
+			return values;
+		}
+		if (value instanceof Object[]) {
+			List<Object> values = new ArrayList<>(Arrays.asList((Object[]) value));
+			values.removeIf(Objects::isNull);
+			return values;
+		}
+		return List.of(value);
+	}
+
+	public void bindHeaders(Object[] args, HttpUriRequest request) {
+		for (BasicHeader header : staticHeaders) {
+			request.addHeader(header);
+		}
+		for (int index : headerParams) {
+			if (!(args[index] instanceof Map)) {
+				throw new FrameworkException("@Headers parameter must be a Map<String, String>");
+			}
+			((Map<?, ?>) args[index]).forEach((key, value) -> {
+				if (key != null && value != null) {
+					request.addHeader(key.toString(), value.toString());
+				}
+			});
+		}
+		for (BasicHeader header : authHeaders) {
+			request.addHeader(header);
+		}
+		if (oauth2 != null) {
+			request.addHeader(AUTHORIZATION, "Bearer " + TokenManager.getToken(oauth2));
+		}
+	}
+
+	/**
+	 * Returns the file a {@link ResponseKind#FILE} response is written to, a new
+	 * temporary file when the method has no {@link DownloadTo} parameter.
+	 */
+	public java.nio.file.Path resolveDownloadTarget(Object[] args) throws IOException {
+		Object target = downloadIndex >= 0 ? args[downloadIndex] : null;
+		if (target == null) {
+			return Files.createTempFile("api-client-", ".download");
+		}
+		if (target instanceof java.nio.file.Path) {
+			return (java.nio.file.Path) target;
+		}
+		if (target instanceof File) {
+			return ((File) target).toPath();
+		}
+		return Paths.get(target.toString());
+	}
+
+	public Method getMethod() {
+		return method;
+	}
+
+	public String getHttpMethod() {
+		return httpMethod;
+	}
+
+	public String getPathTemplate() {
+		return pathTemplate;
+	}
+
+	public boolean isAsync() {
+		return async;
+	}
+
+	/**
+	 * Whether responses of this method go through the client's response cache.
+	 */
+	public boolean isCacheable() {
+		return cacheable;
+	}
+
+	/**
+	 * Whether concurrent identical calls of this method share one exchange.
+	 */
+	public boolean isCoalesced() {
+		return coalesced;
+	}
+
+	/**
+	 * Retry rules of this method, {@code null} when failed calls are not
+	 * retried.
+	 */
+	public RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+
+	public TypeReference<Object> getResponseType() {
+		return responseType;
+	}
+
+	public ResponseKind getResponseKind() {
+		return responseKind;
+	}
+
+	/**
+	 * Reader for the elements of {@link ResponseKind#STREAM} and
+	 * {@link ResponseKind#CURSOR} responses, {@code null} otherwise.
+	 */
+	public ObjectReader getElementReader() {
+		return elementReader;
+	}
+
+	private static final class FormParam {
+		private final int index;
+		private final String name;
+		private final String filename;
+		private final String contentType;
+		private final boolean part;
+
+		FormParam(int index, String name, String filename, String contentType, boolean part) {
+			this.index = index;
+			this.name = name;
+			this.filename = filename;
+			this.contentType = contentType;
+			this.part = part;
+		}
+	}
+
+	public enum ResponseKind {
+		/** The whole body is decoded into the return type. */
+		VALUE,
+		/** Elements are decoded lazily and exposed as a {@code Stream}. */
+		STREAM,
+		/** Elements are decoded lazily and exposed as an {@code Iterator}/{@code ResponseCursor}. */
+		CURSOR,
+		/** The raw body is returned as an {@code InputStream}. */
+		INPUT_STREAM,
+		/** The raw body is returned as a {@code ReadableByteChannel}. */
+		CHANNEL,
+		/** The raw body is read into a {@code byte[]}. */
+		BYTES,
+		/** The raw body is written to a file whose {@code Path} is returned. */
+		FILE;
+
+		/** Whether the caller consumes the body after the method has returned. */
+		public boolean isStreaming() {
+			return this == STREAM || this == CURSOR || this == INPUT_STREAM || this == CHANNEL;
+		}
+
+		/**
+		 * Whether the body is read as it arrives instead of being buffered first,
+		 * which also covers downloads copied straight to a file.
+		 */
+		public boolean isIncremental() {
+			return isStreaming() || this == FILE;
+		}
+	}
+}
@@ -0,0 +1,195 @@
+package io.github.itech_framework.api_client.handlers;
+
+import java.lang.reflect.Array;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * URI template compiled once per API method into literal segments and argument
+ * slots. Expanding it writes the base URL, the path, the query parameters and
+ * any static query parameters into a single builder and parses the result
+ * exactly once.
+ */
+public final class UriTemplate {
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	private static final boolean[] LITERAL_CHARS = new boolean[128];
+	private static final boolean[] PATH_CHARS = new boolean[128];
+	private static final boolean[] QUERY_CHARS = new boolean[128];
+
+	static {
+		String unreserved = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789-._~";
+		allow(LITERAL_CHARS, unreserved + "!$&'()*+,;=:@/?#[]%");
+		allow(PATH_CHARS, unreserved + "!$'()*,;:@");
+		allow(QUERY_CHARS, unreserved + "!$'()*,;:@/?");
+	}
+
+	private final String[] literals;
+	private final int[] pathSlots;
+	private final String[] queryPrefixes;
+	private final int[] querySlots;
+	private final String staticQuery;
+	private final boolean templateHasQuery;
+	private final int estimatedLength;
+
+	private UriTemplate(String[] literals, int[] pathSlots, String[] queryPrefixes, int[] querySlots,
+			String staticQuery, boolean templateHasQuery) {
+		this.literals = literals;
+		this.pathSlots = pathSlots;
+		this.queryPrefixes = queryPrefixes;
+		this.querySlots = querySlots;
+		this.staticQuery = staticQuery;
+		this.templateHasQuery = templateHasQuery;
+
+		int length = staticQuery.length();
+		for (String literal : literals) {
+			length += literal.length();
+		}
+		this.estimatedLength = length + 16 * (pathSlots.length + querySlots.length);
+	}
+
+	/**
+	 * Compiles a template.
+	 *
+	 * @param baseUrl      base URL prepended to every expansion
+	 * @param pathTemplate path with {@code {name}} placeholders
+	 * @param pathParams   placeholder name to argument index
+	 * @param queryParams  query parameter names and argument indexes, in
+	 *                     declaration order
+	 * @param staticQuery  constant query parameters appended after the dynamic
+	 *                     ones
+	 */
+	public static UriTemplate compile(String baseUrl, String pathTemplate, Map<String, Integer> pathParams,
+			List<Map.Entry<String, Integer>> queryParams, Map<String, String> staticQuery) {
+		List<String> literals = new ArrayList<>();
+		List<Integer> slots = new ArrayList<>();
+
+		StringBuilder literal = new StringBuilder();
+		appendEncoded(literal, baseUrl, LITERAL_CHARS);
+
+		int position = 0;
+		while (position < pathTemplate.length()) {
+			int open = pathTemplate.indexOf('{', position);
+			if (open < 0) {
+				appendEncoded(literal, pathTemplate.substring(position), LITERAL_CHARS);
+				break;
+			}
+			int close = pathTemplate.indexOf('}', open);
+			if (close < 0) {
+				throw new IllegalArgumentException("Unclosed placeholder in path template: " + pathTemplate);
+			}
+			appendEncoded(literal, pathTemplate.substring(position, open), LITERAL_CHARS);
+
+			String name = pathTemplate.substring(open + 1, close);
+			Integer index = pathParams.get(name);
+			if (index == null) {
+				throw new IllegalArgumentException(
+						"Path template " + pathTemplate + " references unknown @Path parameter: " + name);
+			}
+			literals.add(literal.toString());
+			literal.setLength(0);
+			slots.add(index);
+			position = close + 1;
+		}
+		literals.add(literal.toString());
+
+		String[] queryPrefixes = new String[queryParams.size()];
+		int[] querySlots = new int[queryParams.size()];
+		int i = 0;
+		for (Map.Entry<String, Integer> entry : queryParams) {
+			StringBuilder name = new StringBuilder();
+			appendEncoded(name, entry.getKey(), QUERY_CHARS);
+			queryPrefixes[i] = name.append('=').toString();
+			querySlots[i] = entry.getValue();
+			i++;
+		}
+
+		StringBuilder fixedQuery = new StringBuilder();
+		for (Map.Entry<String, String> entry : staticQuery.entrySet()) {
+			if (fixedQuery.length() > 0) {
+				fixedQuery.append('&');
+			}
+			appendEncoded(fixedQuery, entry.getKey(), QUERY_CHARS);
+			fixedQuery.append('=');
+			appendEncoded(fixedQuery, entry.getValue(), QUERY_CHARS);
+		}
+
+		return new UriTemplate(literals.toArray(new String[0]), slots.stream().mapToInt(Integer::intValue).toArray(),
+				queryPrefixes, querySlots, fixedQuery.toString(), pathTemplate.indexOf('?') >= 0);
+	}
+
+	public URI expand(Object[] args) {
+		StringBuilder uri = new StringBuilder(estimatedLength);
+		uri.append(literals[0]);
+		for (int i = 0; i < pathSlots.length; i++) {
+			Object value = args[pathSlots[i]];
+			if (value == null) {
+				throw new IllegalArgumentException("Path parameter at index " + pathSlots[i] + " must not be null");
+			}
+			appendEncoded(uri, value.toString(), PATH_CHARS);
+			uri.append(literals[i + 1]);
+		}
+
+		boolean hasQuery = templateHasQuery;
+		for (int i = 0; i < querySlots.length; i++) {
+			Object value = args[querySlots[i]];
+			if (value instanceof Collection) {
+				for (Object element : (Collection<?>) value) {
+					hasQuery = appendQueryParam(uri, hasQuery, queryPrefixes[i], element);
+				}
+			} else if (value != null && value.getClass().isArray()) {
+				int length = Array.getLength(value);
+				for (int j = 0; j < length; j++) {
+					hasQuery = appendQueryParam(uri, hasQuery, queryPrefixes[i], Array.get(value, j));
+				}
+			} else {
+				hasQuery = appendQueryParam(uri, hasQuery, queryPrefixes[i], value);
+			}
+		}
+
+		if (!staticQuery.isEmpty()) {
+			uri.append(hasQuery ? '&' : '?').append(staticQuery);
+		}
+		return URI.create(uri.toString());
+	}
+
+	private static boolean appendQueryParam(StringBuilder uri, boolean hasQuery, String prefix, Object value) {
+		if (value == null) {
+			return hasQuery;
+		}
+		uri.append(hasQuery ? '&' : '?').append(prefix);
+		appendEncoded(uri, value.toString(), QUERY_CHARS);
+		return true;
+	}
+
+	private static void appendEncoded(StringBuilder target, String value, boolean[] allowed) {
+		int length = value.length();
+		int i = 0;
+		while (i < length) {
+			char c = value.charAt(i);
+			if (c < 128 && allowed[c]) {
+				target.append(c);
+				i++;
+				continue;
+			}
+			int end = i + 1;
+			while (end < length && !(value.charAt(end) < 128 && allowed[value.charAt(end)])) {
+				end++;
+			}
+			for (byte b : value.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+				target.append('%').append(HEX[(b >> 4) & 0x0F]).append(HEX[b & 0x0F]);
+			}
+			i = end;
+		}
+	}
+
+	private static void allow(boolean[] table, String chars) {
+		for (int i = 0; i < chars.length(); i++) {
+			table[chars.charAt(i)] = true;
+		}
+	}
+}
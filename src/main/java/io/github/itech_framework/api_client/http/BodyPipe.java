@@ -0,0 +1,213 @@
+package io.github.itech_framework.api_client.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pipe between a thread writing a request body and the transport
+ * reading it. Unlike {@link java.io.PipedInputStream} it does not depend on
+ * the identity or liveness of the writing thread, and a failed write is
+ * rethrown to the reader instead of ending the body early, so a broken body is
+ * never sent as if it were complete.
+ */
+final class BodyPipe {
+	private static final byte[] END = new byte[0];
+	private static final int CHUNK_SIZE = 8 * 1024;
+	private static final long POLL_MILLIS = 100;
+
+	private final BlockingQueue<byte[]> chunks;
+	private final Output output = new Output();
+	private final Input input = new Input();
+
+	private volatile IOException failure;
+	private volatile boolean readerClosed;
+
+	/**
+	 * @param bufferSize bytes the writer may run ahead of the reader
+	 */
+	BodyPipe(int bufferSize) {
+		this.chunks = new ArrayBlockingQueue<>(Math.max(1, bufferSize / CHUNK_SIZE));
+	}
+
+	OutputStream output() {
+		return output;
+	}
+
+	InputStream input() {
+		return input;
+	}
+
+	/**
+	 * Ends the body with the given failure, which the reader throws once it has
+	 * consumed the chunks written before it.
+	 */
+	void fail(Throwable cause) {
+		failure = cause instanceof IOException ? (IOException) cause
+				: new IOException("Failed to write request body", cause);
+		output.finish();
+	}
+
+	private final class Output extends OutputStream {
+		private byte[] buffer = new byte[CHUNK_SIZE];
+		private int count;
+		private boolean finished;
+
+		@Override
+		public void write(int b) throws IOException {
+			ensureOpen();
+			if (count == buffer.length) {
+				flushBuffer();
+			}
+			buffer[count++] = (byte) b;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			ensureOpen();
+			while (len > 0) {
+				if (count == buffer.length) {
+					flushBuffer();
+				}
+				int n = Math.min(len, buffer.length - count);
+				System.arraycopy(b, off, buffer, count, n);
+				count += n;
+				off += n;
+				len -= n;
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			ensureOpen();
+			if (count > 0) {
+				flushBuffer();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (finished) {
+				return;
+			}
+			if (count > 0 && !readerClosed) {
+				flushBuffer();
+			}
+			finish();
+		}
+
+		private void ensureOpen() throws IOException {
+			if (finished) {
+				throw new IOException("Request body pipe is closed");
+			}
+			if (readerClosed) {
+				throw new IOException("Request body is no longer read");
+			}
+		}
+
+		private void flushBuffer() throws IOException {
+			byte[] chunk = count == buffer.length ? buffer : Arrays.copyOf(buffer, count);
+			put(chunk);
+			buffer = new byte[CHUNK_SIZE];
+			count = 0;
+		}
+
+		private void finish() {
+			if (finished) {
+				return;
+			}
+			finished = true;
+			try {
+				put(END);
+			} catch (IOException e) {
+				// the reader is gone and needs no end marker
+			}
+		}
+
+		private void put(byte[] chunk) throws IOException {
+			try {
+				while (!chunks.offer(chunk, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+					if (readerClosed) {
+						throw new IOException("Request body is no longer read");
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while writing request body");
+			}
+		}
+	}
+
+	private final class Input extends InputStream {
+		private byte[] chunk;
+		private int position;
+		private boolean ended;
+
+		@Override
+		public int read() throws IOException {
+			if (!fill()) {
+				return -1;
+			}
+			return chunk[position++] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (!fill()) {
+				return -1;
+			}
+			int n = Math.min(len, chunk.length - position);
+			System.arraycopy(chunk, position, b, off, n);
+			position += n;
+			return n;
+		}
+
+		@Override
+		public int available() {
+			return chunk == null ? 0 : chunk.length - position;
+		}
+
+		@Override
+		public void close() {
+			readerClosed = true;
+			chunks.clear();
+		}
+
+		private boolean fill() throws IOException {
+			if (readerClosed) {
+				throw new IOException("Request body pipe is closed");
+			}
+			while (chunk == null || position == chunk.length) {
+				if (ended) {
+					if (failure != null) {
+						throw failure;
+					}
+					return false;
+				}
+				byte[] next;
+				try {
+					next = chunks.take();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while reading request body");
+				}
+				if (next == END) {
+					ended = true;
+					chunk = null;
+					continue;
+				}
+				chunk = next;
+				position = 0;
+			}
+			return true;
+		}
+	}
+}
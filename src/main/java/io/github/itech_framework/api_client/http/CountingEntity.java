@@ -0,0 +1,83 @@
+package io.github.itech_framework.api_client.http;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+
+/**
+ * Entity wrapper that counts the body bytes as they are read or written, so
+ * chunked and streamed bodies, whose length is not declared up front, are
+ * counted too. A body sent or read more than once is counted each time.
+ * Besides keeping its own count the wrapper passes every chunk to an optional
+ * listener, which callers create once and reuse across exchanges.
+ */
+public class CountingEntity extends HttpEntityWrapper {
+	private final LongConsumer listener;
+	private long count;
+
+	public CountingEntity(HttpEntity wrappedEntity) {
+		this(wrappedEntity, null);
+	}
+
+	public CountingEntity(HttpEntity wrappedEntity, LongConsumer listener) {
+		super(wrappedEntity);
+		this.listener = listener;
+	}
+
+	@Override
+	public InputStream getContent() throws IOException {
+		return new FilterInputStream(super.getContent()) {
+			@Override
+			public int read() throws IOException {
+				int b = super.read();
+				if (b >= 0) {
+					count(1);
+				}
+				return b;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				int n = super.read(b, off, len);
+				if (n > 0) {
+					count(n);
+				}
+				return n;
+			}
+		};
+	}
+
+	@Override
+	public void writeTo(OutputStream outStream) throws IOException {
+		super.writeTo(new FilterOutputStream(outStream) {
+			@Override
+			public void write(int b) throws IOException {
+				out.write(b);
+				count(1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				out.write(b, off, len);
+				count(len);
+			}
+		});
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	private void count(long bytes) {
+		count += bytes;
+		if (listener != null) {
+			listener.accept(bytes);
+		}
+	}
+}
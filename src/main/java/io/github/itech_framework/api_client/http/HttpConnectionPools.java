@@ -0,0 +1,201 @@
+package io.github.itech_framework.api_client.http;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.HttpHost;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.IdleConnectionEvictor;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContexts;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.github.itech_framework.api_client.annotations.ApiClient;
+import io.github.itech_framework.core.exceptions.FrameworkException;
+import io.github.itech_framework.core.utils.PropertiesLoader;
+
+/**
+ * Owns the pooled connection managers used by API client handlers. All clients
+ * share one process-wide pool unless {@link ApiClient#sharedPool()} is
+ * disabled. Pools are reference counted and shut down, together with their
+ * idle-connection evictor, when the last client using them is closed.
+ * Clients sharing a pool that configure {@link ApiClient#maxConnectionsPerRoute()}
+ * for the same route get the largest of their values, which stays in effect
+ * until the pool is shut down.
+ *
+ * <p>
+ * Configuration properties (durations in milliseconds):
+ * <ul>
+ * <li>{@code flexi.api.pool.maxTotal} - maximum connections per pool (200)</li>
+ * <li>{@code flexi.api.pool.maxPerRoute} - maximum connections per route
+ * (50)</li>
+ * <li>{@code flexi.api.pool.ttl} - connection time-to-live, {@code -1} for
+ * unlimited (-1)</li>
+ * <li>{@code flexi.api.pool.validateAfterInactivity} - re-validate connections
+ * idle for longer than this (2000)</li>
+ * <li>{@code flexi.api.pool.idleTimeout} - evict connections idle for longer
+ * than this (30000)</li>
+ * <li>{@code flexi.api.pool.evictionInterval} - evictor run interval
+ * (5000)</li>
+ * <li>{@code flexi.api.pool.keepAlive} - keep-alive used when the server sends
+ * no {@code Keep-Alive} header (30000)</li>
+ * </ul>
+ */
+public final class HttpConnectionPools {
+	private static final Logger logger = LogManager.getLogger(HttpConnectionPools.class);
+
+	private static final Object lock = new Object();
+	private static Pool sharedPool;
+
+	private HttpConnectionPools() {
+	}
+
+	/**
+	 * Returns the pool the given client should use. Every call must be paired
+	 * with a {@link #release(Pool)}.
+	 */
+	public static Pool acquire(ApiClient apiClient, String baseUrl) {
+		Pool pool;
+		if (apiClient == null || apiClient.sharedPool()) {
+			synchronized (lock) {
+				if (sharedPool == null) {
+					sharedPool = createPool(-1, -1, -1, true);
+				}
+				sharedPool.users++;
+				pool = sharedPool;
+			}
+		} else {
+			pool = createPool(apiClient.maxConnections(), apiClient.maxConnectionsPerRoute(),
+					apiClient.connectionTtl(), false);
+			synchronized (lock) {
+				pool.users++;
+			}
+		}
+
+		if (apiClient != null && apiClient.maxConnectionsPerRoute() > 0) {
+			HttpRoute route = routeOf(baseUrl);
+			if (route != null) {
+				synchronized (lock) {
+					int maxPerRoute = pool.routeLimits.merge(route, apiClient.maxConnectionsPerRoute(), Math::max);
+					pool.connectionManager.setMaxPerRoute(route, maxPerRoute);
+				}
+			}
+		}
+		return pool;
+	}
+
+	public static void release(Pool pool) {
+		synchronized (lock) {
+			if (--pool.users > 0) {
+				return;
+			}
+			if (pool == sharedPool) {
+				sharedPool = null;
+			}
+		}
+		pool.shutdown();
+	}
+
+	private static Pool createPool(int maxTotal, int maxPerRoute, long ttl, boolean shared) {
+		try {
+			SSLContext sslContext = SSLContexts.custom().loadTrustMaterial(null, new TrustSelfSignedStrategy()).build();
+
+			SSLConnectionSocketFactory sslSocketFactory = new SSLConnectionSocketFactory(sslContext,
+					new String[] { "TLSv1.2", "TLSv1.3" }, // Specify protocols
+					null, SSLConnectionSocketFactory.getDefaultHostnameVerifier());
+
+			Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+					.register("http",
+							PhaseInstrumentation.socketFactory(PlainConnectionSocketFactory.getSocketFactory()))
+					.register("https", PhaseInstrumentation.socketFactory(sslSocketFactory)).build();
+
+			long timeToLive = ttl > 0 ? ttl : getLong("flexi.api.pool.ttl", -1);
+			PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(registry,
+					null, null, PhaseInstrumentation.dnsResolver(), timeToLive, TimeUnit.MILLISECONDS);
+			connectionManager.setMaxTotal(maxTotal > 0 ? maxTotal : (int) getLong("flexi.api.pool.maxTotal", 200));
+			connectionManager.setDefaultMaxPerRoute(
+					maxPerRoute > 0 ? maxPerRoute : (int) getLong("flexi.api.pool.maxPerRoute", 50));
+			connectionManager
+					.setValidateAfterInactivity((int) getLong("flexi.api.pool.validateAfterInactivity", 2000));
+
+			IdleConnectionEvictor evictor = new IdleConnectionEvictor(connectionManager,
+					getLong("flexi.api.pool.evictionInterval", 5000), TimeUnit.MILLISECONDS,
+					getLong("flexi.api.pool.idleTimeout", 30000), TimeUnit.MILLISECONDS);
+			evictor.start();
+
+			long keepAlive = getLong("flexi.api.pool.keepAlive", 30000);
+			ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+				long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+				return duration > 0 ? duration : keepAlive;
+			};
+
+			logger.debug("Created {} connection pool (maxTotal={}, maxPerRoute={})", shared ? "shared" : "dedicated",
+					connectionManager.getMaxTotal(), connectionManager.getDefaultMaxPerRoute());
+			return new Pool(connectionManager, evictor, keepAliveStrategy);
+		} catch (Exception e) {
+			throw new FrameworkException("Failed to create HTTP connection pool", e);
+		}
+	}
+
+	private static HttpRoute routeOf(String baseUrl) {
+		try {
+			URI uri = URI.create(baseUrl);
+			if (uri.getHost() == null) {
+				return null;
+			}
+			boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+			int port = uri.getPort() > 0 ? uri.getPort() : secure ? 443 : 80;
+			return new HttpRoute(new HttpHost(uri.getHost(), port, uri.getScheme()), null, secure);
+		} catch (IllegalArgumentException e) {
+			logger.warn("Cannot derive connection route from base URL: {}", baseUrl);
+			return null;
+		}
+	}
+
+	private static long getLong(String key, long defaultValue) {
+		String value = PropertiesLoader.getProperty(key, null);
+		return value == null || value.isBlank() ? defaultValue : Long.parseLong(value.trim());
+	}
+
+	public static final class Pool {
+		private final PoolingHttpClientConnectionManager connectionManager;
+		private final IdleConnectionEvictor evictor;
+		private final ConnectionKeepAliveStrategy keepAliveStrategy;
+		// per-route limits configured by the clients of this pool, guarded by lock
+		private final Map<HttpRoute, Integer> routeLimits = new HashMap<>();
+		private int users;
+
+		private Pool(PoolingHttpClientConnectionManager connectionManager, IdleConnectionEvictor evictor,
+				ConnectionKeepAliveStrategy keepAliveStrategy) {
+			this.connectionManager = connectionManager;
+			this.evictor = evictor;
+			this.keepAliveStrategy = keepAliveStrategy;
+		}
+
+		public PoolingHttpClientConnectionManager getConnectionManager() {
+			return connectionManager;
+		}
+
+		public ConnectionKeepAliveStrategy getKeepAliveStrategy() {
+			return keepAliveStrategy;
+		}
+
+		private void shutdown() {
+			evictor.shutdown();
+			connectionManager.shutdown();
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package io.github.itech_framework.api_client.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.AbstractExecutionAwareRequest;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.ssl.SSLContexts;
+import org.apache.http.util.EntityUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.github.itech_framework.core.exceptions.FrameworkException;
+
+/**
+ * Non-blocking transport for {@code CompletableFuture} returning API methods,
+ * backed by {@link HttpClient#sendAsync}. Requests are built with the same
+ * Apache request objects as the blocking path and responses are adapted back
+ * to {@link org.apache.http.HttpResponse}, so status mapping and
+ * deserialization are shared with synchronous calls.
+ */
+public final class JdkAsyncTransport {
+	private static final int PIPE_BUFFER_SIZE = 64 * 1024;
+	private static final Set<String> RESTRICTED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+	static {
+		RESTRICTED_HEADERS.addAll(List.of("Connection", "Content-Length", "Expect", "Host", "Upgrade"));
+	}
+
+	private final Logger logger = LogManager.getLogger(getClass());
+
+	private final HttpClient httpClient;
+	private final Executor executor;
+	private final Duration requestTimeout;
+
+	/**
+	 * @param executor          executor for the client's completion callbacks
+	 * @param connectionTimeout connect timeout in milliseconds, {@code 0} for
+	 *                          none
+	 * @param socketTimeout     per-request response timeout in milliseconds,
+	 *                          {@code 0} for none
+	 */
+	public JdkAsyncTransport(Executor executor, int connectionTimeout, int socketTimeout) {
+		try {
+			SSLContext sslContext = SSLContexts.custom().loadTrustMaterial(null, new TrustSelfSignedStrategy()).build();
+			HttpClient.Builder builder = HttpClient.newBuilder().sslContext(sslContext).executor(executor)
+					.followRedirects(HttpClient.Redirect.NORMAL);
+			if (connectionTimeout > 0) {
+				builder.connectTimeout(Duration.ofMillis(connectionTimeout));
+			}
+			this.httpClient = builder.build();
+			this.executor = executor;
+			this.requestTimeout = socketTimeout > 0 ? Duration.ofMillis(socketTimeout) : null;
+		} catch (Exception e) {
+			throw new FrameworkException("Failed to create asynchronous HTTP client", e);
+		}
+	}
+
+	/**
+	 * Sends the request without blocking. By default the returned stage completes
+	 * with the buffered response once the whole body has been received. With
+	 * {@code streamBody} it completes as soon as the headers arrive and the body
+	 * is exposed as a stream that the returned response closes.
+	 */
+	public CompletableFuture<org.apache.http.HttpResponse> execute(HttpUriRequest request, boolean streamBody) {
+		logger.debug("Request: {} {}", request.getMethod(), request.getURI());
+		HttpRequest jdkRequest = toJdkRequest(request);
+		if (streamBody) {
+			return cancelOnAbort(request, httpClient.sendAsync(jdkRequest, HttpResponse.BodyHandlers.ofInputStream()))
+					.thenApply(JdkAsyncTransport::toStreamingResponse);
+		}
+		return cancelOnAbort(request, httpClient.sendAsync(jdkRequest, HttpResponse.BodyHandlers.ofByteArray()))
+				.thenApply(JdkAsyncTransport::toApacheResponse);
+	}
+
+	// lets HttpRequestBase#abort() cancel the exchange, as it does for the blocking client
+	private static <T> CompletableFuture<T> cancelOnAbort(HttpUriRequest request, CompletableFuture<T> exchange) {
+		if (request instanceof AbstractExecutionAwareRequest) {
+			((AbstractExecutionAwareRequest) request).setCancellable(() -> exchange.cancel(true));
+		}
+		return exchange;
+	}
+
+	private HttpRequest toJdkRequest(HttpUriRequest request) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(request.getURI());
+		if (requestTimeout != null) {
+			builder.timeout(requestTimeout);
+		}
+		for (Header header : request.getAllHeaders()) {
+			if (!RESTRICTED_HEADERS.contains(header.getName())) {
+				builder.header(header.getName(), header.getValue());
+			}
+		}
+
+		HttpEntity entity = request instanceof HttpEntityEnclosingRequest
+				? ((HttpEntityEnclosingRequest) request).getEntity()
+				: null;
+		if (entity == null) {
+			return builder.method(request.getMethod(), HttpRequest.BodyPublishers.noBody()).build();
+		}
+		if (entity.getContentType() != null && request.getFirstHeader("Content-Type") == null) {
+			builder.header("Content-Type", entity.getContentType().getValue());
+		}
+		return builder.method(request.getMethod(), toBodyPublisher(entity)).build();
+	}
+
+	private HttpRequest.BodyPublisher toBodyPublisher(HttpEntity entity) {
+		long length = entity.getContentLength();
+		if (length >= 0 && length <= PIPE_BUFFER_SIZE && entity.isRepeatable()) {
+			try {
+				return HttpRequest.BodyPublishers.ofByteArray(EntityUtils.toByteArray(entity));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		// larger and streaming entities are written through a pipe so they are never fully buffered, a
+		// failed write fails the exchange rather than ending the body early
+		HttpRequest.BodyPublisher publisher = HttpRequest.BodyPublishers.ofInputStream(() -> {
+			BodyPipe pipe = new BodyPipe(PIPE_BUFFER_SIZE);
+			executor.execute(() -> {
+				try {
+					entity.writeTo(pipe.output());
+					pipe.output().close();
+				} catch (Throwable e) {
+					logger.warn("Failed to write request body", e);
+					pipe.fail(e);
+				}
+			});
+			return pipe.input();
+		});
+		return length > 0 ? HttpRequest.BodyPublishers.fromPublisher(publisher, length) : publisher;
+	}
+
+	private static org.apache.http.HttpResponse toApacheResponse(HttpResponse<byte[]> response) {
+		BasicHttpResponse adapted = new BasicHttpResponse(HttpVersion.HTTP_1_1, response.statusCode(), "");
+		copyHeaders(response, adapted);
+
+		byte[] body = response.body();
+		if (body != null && body.length > 0) {
+			adapted.setEntity(new ByteArrayEntity(body, contentTypeOf(response)));
+		}
+		return adapted;
+	}
+
+	private static org.apache.http.HttpResponse toStreamingResponse(HttpResponse<InputStream> response) {
+		StreamingResponse adapted = new StreamingResponse(response.statusCode(), response.body());
+		copyHeaders(response, adapted);
+
+		long length = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+		adapted.setEntity(new InputStreamEntity(response.body(), length, contentTypeOf(response)));
+		return adapted;
+	}
+
+	private static void copyHeaders(HttpResponse<?> response, BasicHttpResponse adapted) {
+		for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+			for (String value : header.getValue()) {
+				adapted.addHeader(header.getKey(), value);
+			}
+		}
+	}
+
+	private static ContentType contentTypeOf(HttpResponse<?> response) {
+		return response.headers().firstValue("Content-Type").map(ContentType::parse).orElse(null);
+	}
+
+	private static final class StreamingResponse extends BasicHttpResponse implements Closeable {
+		private final InputStream body;
+
+		StreamingResponse(int statusCode, InputStream body) {
+			super(HttpVersion.HTTP_1_1, statusCode, "");
+			this.body = body;
+		}
+
+		@Override
+		public void close() throws IOException {
+			body.close();
+		}
+	}
+}
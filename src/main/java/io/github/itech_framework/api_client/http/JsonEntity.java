@@ -0,0 +1,117 @@
+package io.github.itech_framework.api_client.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.stream.BaseStream;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import io.github.itech_framework.api_client.utils.JsonUtils;
+
+/**
+ * Request entity that serializes its body with Jackson directly to the
+ * connection's output stream, using chunked transfer encoding. Bodies of type
+ * {@link java.util.stream.Stream}, {@link Iterator} or a non-collection
+ * {@link Iterable} are consumed incrementally and written either as a JSON
+ * array or, for {@code application/x-ndjson}, as newline delimited documents.
+ */
+public class JsonEntity extends AbstractHttpEntity {
+	public static final String NDJSON = "application/x-ndjson";
+
+	private final Object body;
+	private final boolean ndjson;
+	private final boolean incremental;
+	private boolean consumed;
+
+	public JsonEntity(Object body, ContentType contentType) {
+		this.body = body;
+		this.ndjson = NDJSON.equalsIgnoreCase(contentType.getMimeType());
+		this.incremental = !isRepeatableBody(body);
+		setContentType(contentType.toString());
+		setChunked(true);
+	}
+
+	/**
+	 * Whether a body of this value can be written more than once, {@code false}
+	 * for streams, iterators and non-collection iterables, which the first
+	 * write consumes.
+	 */
+	public static boolean isRepeatableBody(Object body) {
+		return !(body instanceof BaseStream || body instanceof Iterator
+				|| (body instanceof Iterable && !(body instanceof Collection)));
+	}
+
+	@Override
+	public boolean isRepeatable() {
+		return !incremental;
+	}
+
+	@Override
+	public long getContentLength() {
+		return -1;
+	}
+
+	@Override
+	public InputStream getContent() throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		writeTo(buffer);
+		return new ByteArrayInputStream(buffer.toByteArray());
+	}
+
+	@Override
+	public void writeTo(OutputStream outStream) throws IOException {
+		if (incremental) {
+			if (consumed) {
+				throw new IllegalStateException("Streaming request body has already been written");
+			}
+			consumed = true;
+		}
+
+		try (JsonGenerator generator = JsonUtils.createGenerator(outStream)) {
+			if (!incremental) {
+				JsonUtils.writeValue(generator, body);
+			} else if (ndjson) {
+				generator.setRootValueSeparator(null);
+				Iterator<?> elements = elements();
+				while (elements.hasNext()) {
+					JsonUtils.writeValue(generator, elements.next());
+					generator.writeRaw('\n');
+				}
+			} else {
+				generator.writeStartArray();
+				Iterator<?> elements = elements();
+				while (elements.hasNext()) {
+					JsonUtils.writeValue(generator, elements.next());
+				}
+				generator.writeEndArray();
+			}
+		} finally {
+			if (body instanceof BaseStream) {
+				((BaseStream<?, ?>) body).close();
+			}
+		}
+	}
+
+	@Override
+	public boolean isStreaming() {
+		return incremental && !consumed;
+	}
+
+	private Iterator<?> elements() {
+		if (body instanceof BaseStream) {
+			return ((BaseStream<?, ?>) body).iterator();
+		}
+		if (body instanceof Iterator) {
+			return (Iterator<?>) body;
+		}
+		return ((Iterable<?>) body).iterator();
+	}
+}
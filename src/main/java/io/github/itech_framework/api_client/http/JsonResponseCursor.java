@@ -0,0 +1,77 @@
+package io.github.itech_framework.api_client.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.util.EntityUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+
+/**
+ * {@link ResponseCursor} over a Jackson {@link MappingIterator}. A fully read
+ * response is consumed so that its connection can be reused; a cursor closed
+ * early closes the response, which discards the connection.
+ */
+public class JsonResponseCursor<T> implements ResponseCursor<T> {
+	private final Logger logger = LogManager.getLogger(getClass());
+
+	private final MappingIterator<T> values;
+	private final HttpEntity entity;
+	private final Closeable response;
+	private boolean exhausted;
+	private boolean closed;
+
+	public JsonResponseCursor(MappingIterator<T> values, HttpEntity entity, Closeable response) {
+		this.values = values;
+		this.entity = entity;
+		this.response = response;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (closed) {
+			return false;
+		}
+		if (!values.hasNext()) {
+			exhausted = true;
+			close();
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return values.next();
+	}
+
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			values.close();
+		} catch (IOException e) {
+			logger.debug("Error closing JSON parser", e);
+		}
+		if (exhausted) {
+			EntityUtils.consumeQuietly(entity);
+		}
+		if (response != null) {
+			try {
+				response.close();
+			} catch (IOException e) {
+				logger.warn("Error closing response", e);
+			}
+		}
+	}
+}
@@ -0,0 +1,212 @@
+package io.github.itech_framework.api_client.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.http.entity.AbstractHttpEntity;
+
+import io.github.itech_framework.api_client.utils.JsonUtils;
+
+/**
+ * Streaming {@code multipart/form-data} request entity. File parts are copied
+ * from disk through a {@link FileChannel} while the request is written, so
+ * heap usage does not grow with file size. When every part has a known size
+ * the entity reports an exact content length; an {@code InputStream} part
+ * switches it to chunked transfer.
+ */
+public class MultipartEntity extends AbstractHttpEntity {
+	private static final byte[] CRLF = { '\r', '\n' };
+	private static final byte[] DASHES = { '-', '-' };
+
+	private final byte[] boundary;
+	private final List<FormPart> parts;
+	private final long contentLength;
+	private final boolean repeatable;
+
+	public MultipartEntity(List<FormPart> parts) {
+		String boundaryText = "ApiClientBoundary" + Long.toHexString(ThreadLocalRandom.current().nextLong())
+				+ Long.toHexString(System.nanoTime());
+		this.boundary = boundaryText.getBytes(StandardCharsets.US_ASCII);
+		this.parts = parts;
+		setContentType("multipart/form-data; boundary=" + boundaryText);
+
+		long length = 0;
+		boolean known = true;
+		boolean reusable = true;
+		for (FormPart part : parts) {
+			long partLength = part.length();
+			known &= partLength >= 0;
+			reusable &= part.isRepeatable();
+			length += DASHES.length + boundary.length + CRLF.length + part.header().length + partLength
+					+ CRLF.length;
+		}
+		this.contentLength = known ? length + DASHES.length + boundary.length + DASHES.length + CRLF.length : -1;
+		this.repeatable = reusable;
+		setChunked(!known);
+	}
+
+	/**
+	 * Whether a part of this value can be written more than once, {@code false}
+	 * for an {@code InputStream}, which the first write consumes and closes.
+	 */
+	public static boolean isRepeatablePart(Object value) {
+		return !(value instanceof InputStream);
+	}
+
+	/**
+	 * Creates a part for the given value.
+	 *
+	 * @param filename    file name, or {@code null} to derive it from
+	 *                    {@code Path}/{@code File} values
+	 * @param contentType content type, or {@code null} to derive it from the
+	 *                    value type
+	 */
+	public static FormPart part(String name, String filename, String contentType, Object value) throws IOException {
+		if (value instanceof File) {
+			value = ((File) value).toPath();
+		}
+		if (value instanceof Path) {
+			Path path = (Path) value;
+			return new FormPart(name, filename != null ? filename : String.valueOf(path.getFileName()),
+					contentType != null ? contentType : "application/octet-stream", null, path, null,
+					Files.size(path));
+		}
+		if (value instanceof InputStream) {
+			return new FormPart(name, filename, contentType != null ? contentType : "application/octet-stream",
+					null, null, (InputStream) value, -1);
+		}
+		if (value instanceof byte[]) {
+			byte[] bytes = (byte[]) value;
+			return new FormPart(name, filename, contentType != null ? contentType : "application/octet-stream",
+					bytes, null, null, bytes.length);
+		}
+		if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+				|| value instanceof Character || value instanceof Enum) {
+			byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+			return new FormPart(name, filename, contentType != null ? contentType : "text/plain; charset=UTF-8",
+					bytes, null, null, bytes.length);
+		}
+		byte[] json = JsonUtils.toJson(value).getBytes(StandardCharsets.UTF_8);
+		return new FormPart(name, filename, contentType != null ? contentType : "application/json; charset=UTF-8",
+				json, null, null, json.length);
+	}
+
+	@Override
+	public boolean isRepeatable() {
+		return repeatable;
+	}
+
+	@Override
+	public long getContentLength() {
+		return contentLength;
+	}
+
+	/**
+	 * Returns the encoded body. It is buffered in memory, so transports call
+	 * this only for small repeatable entities and otherwise use
+	 * {@link #writeTo(OutputStream)}.
+	 */
+	@Override
+	public InputStream getContent() throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream(
+				contentLength >= 0 && contentLength <= Integer.MAX_VALUE ? (int) contentLength : 8192);
+		writeTo(buffer);
+		return new ByteArrayInputStream(buffer.toByteArray());
+	}
+
+	@Override
+	public void writeTo(OutputStream outStream) throws IOException {
+		for (FormPart part : parts) {
+			outStream.write(DASHES);
+			outStream.write(boundary);
+			outStream.write(CRLF);
+			outStream.write(part.header());
+			part.writeBody(outStream);
+			outStream.write(CRLF);
+		}
+		outStream.write(DASHES);
+		outStream.write(boundary);
+		outStream.write(DASHES);
+		outStream.write(CRLF);
+		outStream.flush();
+	}
+
+	@Override
+	public boolean isStreaming() {
+		return !repeatable;
+	}
+
+	public static final class FormPart {
+		private final byte[] header;
+		private final byte[] bytes;
+		private final Path file;
+		private final InputStream stream;
+		private final long length;
+
+		private FormPart(String name, String filename, String contentType, byte[] bytes, Path file,
+				InputStream stream, long length) {
+			StringBuilder header = new StringBuilder("Content-Disposition: form-data; name=\"")
+					.append(escape(name)).append('"');
+			if (filename != null) {
+				header.append("; filename=\"").append(escape(filename)).append('"');
+			}
+			header.append("\r\nContent-Type: ").append(contentType).append("\r\n\r\n");
+			this.header = header.toString().getBytes(StandardCharsets.UTF_8);
+			this.bytes = bytes;
+			this.file = file;
+			this.stream = stream;
+			this.length = length;
+		}
+
+		byte[] header() {
+			return header;
+		}
+
+		long length() {
+			return length;
+		}
+
+		boolean isRepeatable() {
+			return stream == null;
+		}
+
+		void writeBody(OutputStream out) throws IOException {
+			if (bytes != null) {
+				out.write(bytes);
+			} else if (file != null) {
+				try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+					WritableByteChannel target = Channels.newChannel(out);
+					long position = 0;
+					while (position < length) {
+						long written = channel.transferTo(position, length - position, target);
+						if (written <= 0) {
+							throw new IOException("File changed while uploading: " + file);
+						}
+						position += written;
+					}
+				}
+			} else {
+				try (InputStream in = stream) {
+					in.transferTo(out);
+				}
+			}
+		}
+
+		private static String escape(String value) {
+			return value.replace("\"", "%22").replace("\r", "%0D").replace("\n", "%0A");
+		}
+	}
+}
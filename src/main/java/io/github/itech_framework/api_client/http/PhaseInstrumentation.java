@@ -0,0 +1,265 @@
+package io.github.itech_framework.api_client.http;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLSocket;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import io.github.itech_framework.api_client.events.ApiCallContext;
+import io.github.itech_framework.api_client.utils.enums.CallPhase;
+
+/**
+ * Hooks into the blocking HTTP client that report connection and exchange
+ * phases to the {@link ApiCallContext} bound to the calling thread. Without a
+ * bound call every hook only delegates.
+ */
+public final class PhaseInstrumentation {
+	private PhaseInstrumentation() {
+	}
+
+	/**
+	 * Reports {@link CallPhase#REQUEST} and {@link CallPhase#TTFB}.
+	 */
+	public static HttpRequestExecutor requestExecutor() {
+		return new TimedRequestExecutor();
+	}
+
+	/**
+	 * Reports {@link CallPhase#LEASE}. Wraps a pool owned by someone else, so
+	 * the client using it must treat it as shared.
+	 */
+	public static HttpClientConnectionManager connectionManager(HttpClientConnectionManager delegate) {
+		return new TimedConnectionManager(delegate);
+	}
+
+	/**
+	 * Reports {@link CallPhase#DNS}.
+	 */
+	public static DnsResolver dnsResolver() {
+		return host -> {
+			ApiCallContext call = ApiCallContext.current();
+			if (call == null) {
+				return SystemDefaultDnsResolver.INSTANCE.resolve(host);
+			}
+			long start = System.nanoTime();
+			InetAddress[] addresses = SystemDefaultDnsResolver.INSTANCE.resolve(host);
+			call.phase(CallPhase.DNS, start, System.nanoTime());
+			return addresses;
+		};
+	}
+
+	/**
+	 * Reports {@link CallPhase#CONNECT} of plain connections.
+	 */
+	public static ConnectionSocketFactory socketFactory(ConnectionSocketFactory delegate) {
+		return new TimedSocketFactory(delegate);
+	}
+
+	/**
+	 * Reports {@link CallPhase#CONNECT} and {@link CallPhase#TLS} of secure
+	 * connections.
+	 */
+	public static LayeredConnectionSocketFactory socketFactory(LayeredConnectionSocketFactory delegate) {
+		return new TimedLayeredSocketFactory(delegate);
+	}
+
+	private static final class TimedRequestExecutor extends HttpRequestExecutor {
+		@Override
+		protected HttpResponse doSendRequest(HttpRequest request, HttpClientConnection conn, HttpContext context)
+				throws IOException, HttpException {
+			ApiCallContext call = ApiCallContext.current();
+			if (call == null) {
+				return super.doSendRequest(request, conn, context);
+			}
+			long start = System.nanoTime();
+			HttpResponse response = super.doSendRequest(request, conn, context);
+			call.phase(CallPhase.REQUEST, start, System.nanoTime());
+			return response;
+		}
+
+		@Override
+		protected HttpResponse doReceiveResponse(HttpRequest request, HttpClientConnection conn,
+				HttpContext context) throws HttpException, IOException {
+			ApiCallContext call = ApiCallContext.current();
+			if (call == null) {
+				return super.doReceiveResponse(request, conn, context);
+			}
+			long start = System.nanoTime();
+			HttpResponse response = super.doReceiveResponse(request, conn, context);
+			call.phase(CallPhase.TTFB, start, System.nanoTime());
+			return response;
+		}
+	}
+
+	private static final class TimedConnectionManager implements HttpClientConnectionManager {
+		private final HttpClientConnectionManager delegate;
+
+		TimedConnectionManager(HttpClientConnectionManager delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+			ConnectionRequest request = delegate.requestConnection(route, state);
+			ApiCallContext call = ApiCallContext.current();
+			if (call == null) {
+				return request;
+			}
+			return new ConnectionRequest() {
+				@Override
+				public HttpClientConnection get(long timeout, TimeUnit unit)
+						throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+					long start = System.nanoTime();
+					HttpClientConnection connection = request.get(timeout, unit);
+					call.phase(CallPhase.LEASE, start, System.nanoTime());
+					return connection;
+				}
+
+				@Override
+				public boolean cancel() {
+					return request.cancel();
+				}
+			};
+		}
+
+		@Override
+		public void releaseConnection(HttpClientConnection conn, Object newState, long validDuration,
+				TimeUnit timeUnit) {
+			delegate.releaseConnection(conn, newState, validDuration, timeUnit);
+		}
+
+		@Override
+		public void connect(HttpClientConnection conn, HttpRoute route, int connectTimeout, HttpContext context)
+				throws IOException {
+			delegate.connect(conn, route, connectTimeout, context);
+		}
+
+		@Override
+		public void upgrade(HttpClientConnection conn, HttpRoute route, HttpContext context) throws IOException {
+			delegate.upgrade(conn, route, context);
+		}
+
+		@Override
+		public void routeComplete(HttpClientConnection conn, HttpRoute route, HttpContext context)
+				throws IOException {
+			delegate.routeComplete(conn, route, context);
+		}
+
+		@Override
+		public void closeIdleConnections(long idletime, TimeUnit timeUnit) {
+			delegate.closeIdleConnections(idletime, timeUnit);
+		}
+
+		@Override
+		public void closeExpiredConnections() {
+			delegate.closeExpiredConnections();
+		}
+
+		@Override
+		public void shutdown() {
+			delegate.shutdown();
+		}
+	}
+
+	private static class TimedSocketFactory implements ConnectionSocketFactory {
+		private final ConnectionSocketFactory delegate;
+
+		TimedSocketFactory(ConnectionSocketFactory delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Socket createSocket(HttpContext context) throws IOException {
+			return delegate.createSocket(context);
+		}
+
+		@Override
+		public Socket connectSocket(int connectTimeout, Socket sock, HttpHost host, InetSocketAddress remoteAddress,
+				InetSocketAddress localAddress, HttpContext context) throws IOException {
+			ApiCallContext call = ApiCallContext.current();
+			if (call == null) {
+				return delegate.connectSocket(connectTimeout, sock, host, remoteAddress, localAddress, context);
+			}
+			long start = System.nanoTime();
+			Socket socket = delegate.connectSocket(connectTimeout, sock, host, remoteAddress, localAddress, context);
+			call.phase(CallPhase.CONNECT, start, System.nanoTime());
+			return socket;
+		}
+	}
+
+	private static final class TimedLayeredSocketFactory extends TimedSocketFactory
+			implements LayeredConnectionSocketFactory {
+		private final LayeredConnectionSocketFactory delegate;
+
+		TimedLayeredSocketFactory(LayeredConnectionSocketFactory delegate) {
+			super(delegate);
+			this.delegate = delegate;
+		}
+
+		// connects the plain socket itself and then layers TLS on top, as the delegate would, to time both apart
+		@Override
+		public Socket connectSocket(int connectTimeout, Socket sock, HttpHost host, InetSocketAddress remoteAddress,
+				InetSocketAddress localAddress, HttpContext context) throws IOException {
+			ApiCallContext call = ApiCallContext.current();
+			Socket socket = sock != null ? sock : delegate.createSocket(context);
+			if (call == null || socket instanceof SSLSocket) {
+				return super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+			}
+
+			long start = System.nanoTime();
+			if (localAddress != null) {
+				socket.bind(localAddress);
+			}
+			try {
+				if (connectTimeout > 0 && socket.getSoTimeout() == 0) {
+					socket.setSoTimeout(connectTimeout);
+				}
+				socket.connect(remoteAddress, connectTimeout);
+			} catch (SocketTimeoutException e) {
+				socket.close();
+				throw new ConnectTimeoutException(e, host, remoteAddress.getAddress());
+			} catch (IOException e) {
+				socket.close();
+				throw e;
+			}
+			call.phase(CallPhase.CONNECT, start, System.nanoTime());
+			return createLayeredSocket(socket, host.getHostName(), remoteAddress.getPort(), context);
+		}
+
+		@Override
+		public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context)
+				throws IOException, UnknownHostException {
+			ApiCallContext call = ApiCallContext.current();
+			if (call == null) {
+				return delegate.createLayeredSocket(socket, target, port, context);
+			}
+			long start = System.nanoTime();
+			Socket layered = delegate.createLayeredSocket(socket, target, port, context);
+			call.phase(CallPhase.TLS, start, System.nanoTime());
+			return layered;
+		}
+	}
+}
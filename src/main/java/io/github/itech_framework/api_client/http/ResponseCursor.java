@@ -0,0 +1,27 @@
+package io.github.itech_framework.api_client.http;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily decoded sequence of response elements, backed by an open HTTP
+ * response. API methods may return {@code ResponseCursor<T>},
+ * {@code Iterator<T>} or {@code Stream<T>} to consume a top-level JSON array
+ * or an {@code application/x-ndjson} body one element at a time. The
+ * connection is released when the cursor is exhausted or closed, so callers
+ * that stop early must close it, preferably with try-with-resources.
+ */
+public interface ResponseCursor<T> extends Iterator<T>, Closeable {
+
+	@Override
+	void close();
+
+	default Stream<T> stream() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+				.onClose(this::close);
+	}
+}
@@ -0,0 +1,67 @@
+package io.github.itech_framework.api_client.http;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Response body handed to the caller. Closing it after the body has been
+ * fully read releases the connection for reuse; closing it early closes the
+ * response first so the remaining bytes are not drained.
+ */
+public class ResponseInputStream extends FilterInputStream {
+	private final Closeable response;
+	private boolean eof;
+	private boolean closed;
+
+	public ResponseInputStream(InputStream content, Closeable response) {
+		super(content);
+		this.response = response;
+	}
+
+	@Override
+	public int read() throws IOException {
+		int b = super.read();
+		eof |= b < 0;
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int n = super.read(b, off, len);
+		eof |= n < 0;
+		return n;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (eof) {
+			try {
+				super.close();
+			} finally {
+				closeResponse();
+			}
+		} else {
+			try {
+				closeResponse();
+			} finally {
+				try {
+					super.close();
+				} catch (IOException e) {
+					// the connection has already been discarded
+				}
+			}
+		}
+	}
+
+	private void closeResponse() throws IOException {
+		if (response != null) {
+			response.close();
+		}
+	}
+}
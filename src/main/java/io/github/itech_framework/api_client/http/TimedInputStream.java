@@ -0,0 +1,55 @@
+package io.github.itech_framework.api_client.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream that sums the time spent inside its read calls, which separates
+ * waiting for body bytes from deserializing them when a response is parsed
+ * while it streams in.
+ */
+public class TimedInputStream extends FilterInputStream {
+	private long nanos;
+
+	public TimedInputStream(InputStream in) {
+		super(in);
+	}
+
+	@Override
+	public int read() throws IOException {
+		long start = System.nanoTime();
+		try {
+			return super.read();
+		} finally {
+			nanos += System.nanoTime() - start;
+		}
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		long start = System.nanoTime();
+		try {
+			return super.read(b, off, len);
+		} finally {
+			nanos += System.nanoTime() - start;
+		}
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long start = System.nanoTime();
+		try {
+			return super.skip(n);
+		} finally {
+			nanos += System.nanoTime() - start;
+		}
+	}
+
+	/**
+	 * Nanoseconds spent reading so far.
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+}
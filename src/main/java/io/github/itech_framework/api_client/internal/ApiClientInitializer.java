@@ -1,12 +1,15 @@
 package io.github.itech_framework.api_client.internal;
 
 import io.github.itech_framework.api_client.handlers.ApiClientInvocationHandler;
+import io.github.itech_framework.api_client.handlers.GeneratedApiClient;
 import io.github.itech_framework.api_client.processor.ApiProcessor;
 import io.github.itech_framework.core.module.ComponentInitializer;
 import io.github.itech_framework.core.processor.components_processor.ComponentProcessor;
 import io.github.itech_framework.core.resourcecs.CleanupRegistry;
 import io.github.itech_framework.core.store.ComponentStore;
 
+import java.lang.reflect.Proxy;
+
 public class ApiClientInitializer implements ComponentInitializer {
 
     @Override
@@ -18,7 +21,11 @@ public class ApiClientInitializer implements ComponentInitializer {
 
         CleanupRegistry.register(()->{
             // get from component
-            Object handler = ComponentStore.getComponent(key);
+            Object component = ComponentStore.getComponent(key);
+            Object handler = component instanceof GeneratedApiClient
+                    ? ((GeneratedApiClient) component).getInvocationHandler()
+                    : component != null && Proxy.isProxyClass(component.getClass())
+                    ? Proxy.getInvocationHandler(component) : component;
             if(handler instanceof ApiClientInvocationHandler){
                 // close api handler
                 ((ApiClientInvocationHandler) handler).close();
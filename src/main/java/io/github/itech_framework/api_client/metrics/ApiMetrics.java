@@ -0,0 +1,144 @@
+package io.github.itech_framework.api_client.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.github.itech_framework.core.utils.PropertiesLoader;
+
+/**
+ * Process-wide registry of client metrics. Every API client registers its
+ * {@link ClientMetrics} when created and removes them when closed. Registered
+ * metrics are published as MXBeans under
+ * {@code io.github.itech_framework.api_client:type=ApiClient} and handed to
+ * every {@link Listener}, such as the {@link MicrometerBridge}.
+ *
+ * <p>
+ * Configuration properties:
+ * <ul>
+ * <li>{@code flexi.api.metrics.enabled} - record metrics (true)</li>
+ * <li>{@code flexi.api.metrics.jmx} - publish metrics over JMX (true)</li>
+ * <li>{@code flexi.api.metrics.percentiles} - comma separated latency
+ * quantiles (0.5,0.95,0.99)</li>
+ * <li>{@code flexi.api.metrics.window} - milliseconds covered by latency
+ * percentiles, between one and two windows (60000)</li>
+ * </ul>
+ */
+public final class ApiMetrics {
+	private static final Logger logger = LogManager.getLogger(ApiMetrics.class);
+	private static final String DOMAIN = "io.github.itech_framework.api_client";
+
+	private static final List<ClientMetrics> clients = new CopyOnWriteArrayList<>();
+	private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	private static final Map<ClientMetrics, List<ObjectName>> mbeans = new ConcurrentHashMap<>();
+
+	private ApiMetrics() {
+	}
+
+	public static boolean isEnabled() {
+		return Boolean.parseBoolean(PropertiesLoader.getProperty("flexi.api.metrics.enabled", "true").trim());
+	}
+
+	public static double[] quantiles() {
+		String value = PropertiesLoader.getProperty("flexi.api.metrics.percentiles", "0.5,0.95,0.99");
+		return Arrays.stream(value.split(",")).map(String::trim).filter(quantile -> !quantile.isEmpty())
+				.mapToDouble(Double::parseDouble).toArray();
+	}
+
+	public static long window() {
+		return Long.parseLong(PropertiesLoader.getProperty("flexi.api.metrics.window", "60000").trim());
+	}
+
+	public static void register(ClientMetrics metrics) {
+		clients.add(metrics);
+		if (Boolean.parseBoolean(PropertiesLoader.getProperty("flexi.api.metrics.jmx", "true").trim())) {
+			registerMBeans(metrics);
+		}
+		for (Listener listener : listeners) {
+			listener.registered(metrics);
+		}
+	}
+
+	public static void unregister(ClientMetrics metrics) {
+		if (!clients.remove(metrics)) {
+			return;
+		}
+		List<ObjectName> names = mbeans.remove(metrics);
+		if (names != null) {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			for (ObjectName name : names) {
+				try {
+					server.unregisterMBean(name);
+				} catch (JMException e) {
+					logger.debug("Failed to unregister MBean {}: {}", name, e.getMessage());
+				}
+			}
+		}
+		for (Listener listener : listeners) {
+			listener.unregistered(metrics);
+		}
+	}
+
+	public static List<ClientMetrics> getClients() {
+		return List.copyOf(clients);
+	}
+
+	/**
+	 * Adds a listener and hands it the metrics of all clients registered so
+	 * far.
+	 */
+	public static void addListener(Listener listener) {
+		listeners.add(listener);
+		for (ClientMetrics metrics : clients) {
+			listener.registered(metrics);
+		}
+	}
+
+	public static void removeListener(Listener listener) {
+		listeners.remove(listener);
+	}
+
+	private static void registerMBeans(ClientMetrics metrics) {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		List<ObjectName> names = new ArrayList<>();
+		try {
+			String client = DOMAIN + ":type=ApiClient,name=" + metrics.getClientName();
+			names.add(register(server, metrics, new ObjectName(client)));
+			for (MethodMetrics method : metrics.getMethods()) {
+				names.add(register(server, method, new ObjectName(client + ",method=" + method.getMethodName())));
+			}
+		} catch (InstanceAlreadyExistsException e) {
+			logger.debug("Metrics of another {} client are already published over JMX", metrics.getClientName());
+		} catch (JMException e) {
+			logger.warn("Failed to publish metrics of {} over JMX: {}", metrics.getClientName(), e.getMessage());
+		}
+		mbeans.put(metrics, names);
+	}
+
+	private static ObjectName register(MBeanServer server, Object mbean, ObjectName name) throws JMException {
+		server.registerMBean(mbean, name);
+		return name;
+	}
+
+	/**
+	 * Notified when clients are created and closed.
+	 */
+	public interface Listener {
+		void registered(ClientMetrics metrics);
+
+		default void unregistered(ClientMetrics metrics) {
+		}
+	}
+}
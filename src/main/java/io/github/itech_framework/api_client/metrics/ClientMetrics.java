@@ -0,0 +1,77 @@
+package io.github.itech_framework.api_client.metrics;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+/**
+ * Metrics of one API client: one {@link MethodMetrics} per interface method
+ * plus gauges of the connection pool the client uses.
+ */
+public class ClientMetrics implements ClientMetricsMXBean {
+	private final String clientName;
+	private final Map<Method, MethodMetrics> methods;
+	private final PoolingHttpClientConnectionManager connectionManager;
+
+	public ClientMetrics(String clientName, Map<Method, MethodMetrics> methods,
+			PoolingHttpClientConnectionManager connectionManager) {
+		this.clientName = clientName;
+		this.methods = Map.copyOf(methods);
+		this.connectionManager = connectionManager;
+	}
+
+	public MethodMetrics forMethod(Method method) {
+		return methods.get(method);
+	}
+
+	public Collection<MethodMetrics> getMethods() {
+		return methods.values();
+	}
+
+	@Override
+	public String getClientName() {
+		return clientName;
+	}
+
+	@Override
+	public long getCalls() {
+		return methods.values().stream().mapToLong(MethodMetrics::getCalls).sum();
+	}
+
+	@Override
+	public long getFailures() {
+		return methods.values().stream().mapToLong(MethodMetrics::getFailures).sum();
+	}
+
+	@Override
+	public long getRejections() {
+		return methods.values().stream().mapToLong(MethodMetrics::getRejections).sum();
+	}
+
+	@Override
+	public long getInFlight() {
+		return methods.values().stream().mapToLong(MethodMetrics::getInFlight).sum();
+	}
+
+	@Override
+	public int getPoolLeased() {
+		return connectionManager.getTotalStats().getLeased();
+	}
+
+	@Override
+	public int getPoolAvailable() {
+		return connectionManager.getTotalStats().getAvailable();
+	}
+
+	@Override
+	public int getPoolPending() {
+		return connectionManager.getTotalStats().getPending();
+	}
+
+	@Override
+	public int getPoolMax() {
+		return connectionManager.getTotalStats().getMax();
+	}
+}
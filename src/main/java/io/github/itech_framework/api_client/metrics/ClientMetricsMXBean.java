@@ -0,0 +1,25 @@
+package io.github.itech_framework.api_client.metrics;
+
+/**
+ * JMX view of the totals of one API client and of its connection pool. The
+ * pool may be shared with other clients.
+ */
+public interface ClientMetricsMXBean {
+	String getClientName();
+
+	long getCalls();
+
+	long getFailures();
+
+	long getRejections();
+
+	long getInFlight();
+
+	int getPoolLeased();
+
+	int getPoolAvailable();
+
+	int getPoolPending();
+
+	int getPoolMax();
+}
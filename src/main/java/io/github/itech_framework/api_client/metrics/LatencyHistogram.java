@@ -0,0 +1,139 @@
+package io.github.itech_framework.api_client.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear histogram of latencies in nanoseconds. Every power of two is
+ * split into eight buckets, so a reported percentile is within about 6% of the
+ * recorded value. Recording increments one array slot and two adders and
+ * never allocates, the first recording of each window also copies the
+ * buckets.
+ * <p>
+ * Counts, totals and the maximum are cumulative. Percentiles cover the
+ * latencies recorded in the most recent one to two windows, however rarely
+ * they are read, so they follow changes in latency instead of being dominated
+ * by the whole uptime.
+ */
+public class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	// 2^40 ns is about 18 minutes, longer calls share the last bucket
+	private static final int MAX_EXPONENT = 40;
+	private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder total = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+	private final long windowNanos;
+
+	private long[] olderBaseline = new long[BUCKET_COUNT];
+	private long[] newerBaseline = new long[BUCKET_COUNT];
+	private volatile long rotatedAt = System.nanoTime();
+
+	public LatencyHistogram(long window, TimeUnit unit) {
+		this.windowNanos = unit.toNanos(window);
+	}
+
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		long now = System.nanoTime();
+		if (now - rotatedAt >= windowNanos) {
+			rotate(now);
+		}
+		buckets.incrementAndGet(indexOf(value));
+		count.increment();
+		total.add(value);
+		max.accumulate(value);
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getTotalNanos() {
+		return total.sum();
+	}
+
+	public long getMaxNanos() {
+		return max.get();
+	}
+
+	/**
+	 * Returns the latency in nanoseconds at each of the given quantiles
+	 * ({@code 0.0} to {@code 1.0}) over the recent window, {@code 0} when
+	 * nothing was recorded in it.
+	 */
+	public synchronized long[] percentiles(double... quantiles) {
+		rotate(System.nanoTime());
+		long[] current = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			current[i] = buckets.get(i);
+		}
+
+		long samples = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			current[i] -= olderBaseline[i];
+			samples += current[i];
+		}
+
+		long[] result = new long[quantiles.length];
+		if (samples == 0) {
+			return result;
+		}
+		for (int q = 0; q < quantiles.length; q++) {
+			long rank = Math.max(1, (long) Math.ceil(quantiles[q] * samples));
+			long seen = 0;
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				seen += current[i];
+				if (seen >= rank) {
+					result[q] = Math.min(midpoint(i), getMaxNanos());
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
+	// windows stay aligned, one that passed without recordings ended with the buckets as they are now
+	private synchronized void rotate(long now) {
+		long elapsed = now - rotatedAt;
+		if (elapsed < windowNanos) {
+			return;
+		}
+		long[] snapshot = olderBaseline;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			snapshot[i] = buckets.get(i);
+		}
+		if (elapsed < 2 * windowNanos) {
+			olderBaseline = newerBaseline;
+			newerBaseline = snapshot;
+			rotatedAt += windowNanos;
+		} else {
+			System.arraycopy(snapshot, 0, newerBaseline, 0, BUCKET_COUNT);
+			olderBaseline = snapshot;
+			rotatedAt = now;
+		}
+	}
+
+	static int indexOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		int index = (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+		return Math.min(index, BUCKET_COUNT - 1);
+	}
+
+	static long midpoint(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int shift = index / SUB_BUCKETS - 1;
+		long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+		return lower + ((1L << shift) >> 1);
+	}
+}
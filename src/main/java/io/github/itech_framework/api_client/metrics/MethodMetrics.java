@@ -0,0 +1,198 @@
+package io.github.itech_framework.api_client.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+import org.apache.http.HttpEntity;
+
+import io.github.itech_framework.api_client.exceptions.CircuitBreakerOpenException;
+import io.github.itech_framework.api_client.exceptions.ConcurrencyLimitExceededException;
+import io.github.itech_framework.api_client.exceptions.RateLimitExceededException;
+import io.github.itech_framework.api_client.http.CountingEntity;
+import io.github.itech_framework.api_client.resilience.ConcurrencyLimiter;
+
+/**
+ * Counters of one API method. A call is counted once however many attempts it
+ * takes; statuses and bytes are counted per HTTP exchange, bytes as the bodies are
+ * actually written and read. Calls refused by a
+ * rate limiter, concurrency limiter or open circuit count as rejections and
+ * are left out of the latency histogram.
+ */
+public class MethodMetrics implements MethodMetricsMXBean {
+	private final String clientName;
+	private final String methodName;
+	private final double[] quantiles;
+	private final ConcurrencyLimiter concurrencyLimiter;
+
+	private final LongAdder calls = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder rejections = new LongAdder();
+	private final LongAdder retries = new LongAdder();
+	private final LongAdder inFlight = new LongAdder();
+	private final LongAdder bytesIn = new LongAdder();
+	private final LongAdder bytesOut = new LongAdder();
+	private final LongAdder[] statusClasses = new LongAdder[5];
+	private final LatencyHistogram latency;
+	// created once so metering an exchange or retrying a call allocates no callbacks
+	private final LongConsumer bytesInCounter = bytesIn::add;
+	private final LongConsumer bytesOutCounter = bytesOut::add;
+	private final Runnable retryCounter = retries::increment;
+
+	public MethodMetrics(String clientName, String methodName, double[] quantiles, long window,
+			ConcurrencyLimiter concurrencyLimiter) {
+		this.clientName = clientName;
+		this.methodName = methodName;
+		this.quantiles = quantiles.clone();
+		this.concurrencyLimiter = concurrencyLimiter;
+		this.latency = new LatencyHistogram(window, TimeUnit.MILLISECONDS);
+		for (int i = 0; i < statusClasses.length; i++) {
+			statusClasses[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Marks the start of a call and returns the start time to pass to
+	 * {@link #stop(long, Throwable)}.
+	 */
+	public long start() {
+		inFlight.increment();
+		return System.nanoTime();
+	}
+
+	public void stop(long start, Throwable error) {
+		inFlight.decrement();
+		calls.increment();
+		if (error instanceof RateLimitExceededException || error instanceof ConcurrencyLimitExceededException
+				|| error instanceof CircuitBreakerOpenException) {
+			rejections.increment();
+			return;
+		}
+		if (error != null) {
+			failures.increment();
+		}
+		latency.record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Callback counting a retry, shared by every call of the method.
+	 */
+	public Runnable getRetryCounter() {
+		return retryCounter;
+	}
+
+	public void recordResponse(int statusCode) {
+		int statusClass = statusCode / 100;
+		if (statusClass >= 1 && statusClass <= 5) {
+			statusClasses[statusClass - 1].increment();
+		}
+	}
+
+	/**
+	 * Wraps a request body so the bytes written for it are counted as sent.
+	 */
+	public HttpEntity meterRequest(HttpEntity entity) {
+		return new CountingEntity(entity, bytesOutCounter);
+	}
+
+	/**
+	 * Wraps a response body so the bytes read from it are counted as received.
+	 */
+	public CountingEntity meterResponse(HttpEntity entity) {
+		return new CountingEntity(entity, bytesInCounter);
+	}
+
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+
+	public double[] getQuantiles() {
+		return quantiles.clone();
+	}
+
+	public long getStatusCount(int statusClass) {
+		return statusClasses[statusClass - 1].sum();
+	}
+
+	@Override
+	public String getClientName() {
+		return clientName;
+	}
+
+	@Override
+	public String getMethodName() {
+		return methodName;
+	}
+
+	@Override
+	public long getCalls() {
+		return calls.sum();
+	}
+
+	@Override
+	public long getFailures() {
+		return failures.sum();
+	}
+
+	@Override
+	public long getRejections() {
+		return rejections.sum();
+	}
+
+	@Override
+	public long getRetries() {
+		return retries.sum();
+	}
+
+	@Override
+	public long getInFlight() {
+		return inFlight.sum();
+	}
+
+	@Override
+	public long getBytesIn() {
+		return bytesIn.sum();
+	}
+
+	@Override
+	public long getBytesOut() {
+		return bytesOut.sum();
+	}
+
+	@Override
+	public Map<String, Long> getStatusCounts() {
+		Map<String, Long> result = new LinkedHashMap<>();
+		for (int i = 0; i < statusClasses.length; i++) {
+			result.put((i + 1) + "xx", statusClasses[i].sum());
+		}
+		return result;
+	}
+
+	@Override
+	public double getLatencyMean() {
+		long count = latency.getCount();
+		return count == 0 ? 0 : latency.getTotalNanos() / (double) count / 1_000_000;
+	}
+
+	@Override
+	public double getLatencyMax() {
+		return latency.getMaxNanos() / 1_000_000.0;
+	}
+
+	@Override
+	public Map<String, Double> getLatencyPercentiles() {
+		long[] values = latency.percentiles(quantiles);
+		Map<String, Double> result = new LinkedHashMap<>();
+		for (int i = 0; i < quantiles.length; i++) {
+			result.put(String.valueOf(quantiles[i]), values[i] / 1_000_000.0);
+		}
+		return result;
+	}
+
+	@Override
+	public int getConcurrencyLimit() {
+		return concurrencyLimiter != null ? concurrencyLimiter.getLimit() : -1;
+	}
+}
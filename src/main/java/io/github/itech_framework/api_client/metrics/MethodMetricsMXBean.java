@@ -0,0 +1,45 @@
+package io.github.itech_framework.api_client.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the metrics of one API method. Latencies are in milliseconds.
+ */
+public interface MethodMetricsMXBean {
+	String getClientName();
+
+	String getMethodName();
+
+	long getCalls();
+
+	long getFailures();
+
+	long getRejections();
+
+	long getRetries();
+
+	long getInFlight();
+
+	long getBytesIn();
+
+	long getBytesOut();
+
+	/**
+	 * Responses by status class, keyed {@code 1xx} to {@code 5xx}.
+	 */
+	Map<String, Long> getStatusCounts();
+
+	double getLatencyMean();
+
+	double getLatencyMax();
+
+	/**
+	 * Recent latency percentiles keyed by quantile, e.g. {@code 0.99}.
+	 */
+	Map<String, Double> getLatencyPercentiles();
+
+	/**
+	 * Current adaptive concurrency limit, {@code -1} without a limiter.
+	 */
+	int getConcurrencyLimit();
+}
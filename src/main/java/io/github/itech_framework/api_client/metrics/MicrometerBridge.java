@@ -0,0 +1,108 @@
+package io.github.itech_framework.api_client.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * Publishes the metrics of all API clients to a Micrometer
+ * {@link MeterRegistry}. Meters read the client counters when the registry
+ * polls them, so nothing is added to the request path. Requires
+ * {@code io.micrometer:micrometer-core} on the classpath.
+ *
+ * <pre>
+ * MicrometerBridge.bindTo(meterRegistry);
+ * </pre>
+ */
+public class MicrometerBridge implements ApiMetrics.Listener {
+	private final MeterRegistry registry;
+	private final Map<ClientMetrics, List<Meter>> meters = new ConcurrentHashMap<>();
+
+	private MicrometerBridge(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * Binds the metrics of current and future clients to the registry until
+	 * {@link #close()} is called.
+	 */
+	public static MicrometerBridge bindTo(MeterRegistry registry) {
+		MicrometerBridge bridge = new MicrometerBridge(registry);
+		ApiMetrics.addListener(bridge);
+		return bridge;
+	}
+
+	public void close() {
+		ApiMetrics.removeListener(this);
+		meters.keySet().forEach(this::unregistered);
+	}
+
+	@Override
+	public void registered(ClientMetrics client) {
+		List<Meter> result = new ArrayList<>();
+		Tags clientTags = Tags.of("client", client.getClientName());
+		result.add(Gauge.builder("api.client.pool.leased", client, ClientMetrics::getPoolLeased).tags(clientTags)
+				.register(registry));
+		result.add(Gauge.builder("api.client.pool.available", client, ClientMetrics::getPoolAvailable)
+				.tags(clientTags).register(registry));
+		result.add(Gauge.builder("api.client.pool.pending", client, ClientMetrics::getPoolPending).tags(clientTags)
+				.register(registry));
+		result.add(Gauge.builder("api.client.pool.max", client, ClientMetrics::getPoolMax).tags(clientTags)
+				.register(registry));
+
+		for (MethodMetrics method : client.getMethods()) {
+			Tags tags = clientTags.and("method", method.getMethodName());
+			result.add(FunctionTimer.builder("api.client.calls", method, m -> m.getLatency().getCount(),
+					m -> m.getLatency().getTotalNanos(), TimeUnit.NANOSECONDS).tags(tags).register(registry));
+			result.add(TimeGauge.builder("api.client.calls.max", method, TimeUnit.NANOSECONDS,
+					m -> m.getLatency().getMaxNanos()).tags(tags).register(registry));
+			double[] quantiles = method.getQuantiles();
+			for (int i = 0; i < quantiles.length; i++) {
+				int index = i;
+				result.add(TimeGauge.builder("api.client.calls.percentile", method, TimeUnit.NANOSECONDS,
+						m -> m.getLatency().percentiles(quantiles)[index])
+						.tags(tags.and("quantile", String.valueOf(quantiles[i]))).register(registry));
+			}
+			result.add(FunctionCounter.builder("api.client.failures", method, MethodMetrics::getFailures).tags(tags)
+					.register(registry));
+			result.add(FunctionCounter.builder("api.client.rejections", method, MethodMetrics::getRejections)
+					.tags(tags).register(registry));
+			result.add(FunctionCounter.builder("api.client.retries", method, MethodMetrics::getRetries).tags(tags)
+					.register(registry));
+			result.add(Gauge.builder("api.client.inflight", method, MethodMetrics::getInFlight).tags(tags)
+					.register(registry));
+			result.add(FunctionCounter.builder("api.client.bytes.in", method, MethodMetrics::getBytesIn)
+					.baseUnit("bytes").tags(tags).register(registry));
+			result.add(FunctionCounter.builder("api.client.bytes.out", method, MethodMetrics::getBytesOut)
+					.baseUnit("bytes").tags(tags).register(registry));
+			for (int statusClass = 1; statusClass <= 5; statusClass++) {
+				int current = statusClass;
+				result.add(FunctionCounter.builder("api.client.responses", method, m -> m.getStatusCount(current))
+						.tags(tags.and("status", statusClass + "xx")).register(registry));
+			}
+			if (method.getConcurrencyLimit() >= 0) {
+				result.add(Gauge.builder("api.client.concurrency.limit", method, MethodMetrics::getConcurrencyLimit)
+						.tags(tags).register(registry));
+			}
+		}
+		meters.put(client, result);
+	}
+
+	@Override
+	public void unregistered(ClientMetrics client) {
+		List<Meter> removed = meters.remove(client);
+		if (removed != null) {
+			removed.forEach(registry::remove);
+		}
+	}
+}
@@ -2,10 +2,12 @@ package io.github.itech_framework.api_client.processor;
 
 import io.github.itech_framework.api_client.annotations.ApiClient;
 import io.github.itech_framework.api_client.handlers.ApiClientInvocationHandler;
+import io.github.itech_framework.api_client.handlers.GeneratedApiClient;
 import io.github.itech_framework.core.processor.components_processor.ComponentProcessor;
 import io.github.itech_framework.core.store.ComponentStore;
 import io.github.itech_framework.core.exceptions.FrameworkException;
 import io.github.itech_framework.core.utils.AnnotationUtils;
+import io.github.itech_framework.core.utils.PropertiesLoader;
 
 import java.lang.reflect.Proxy;
 
@@ -33,26 +35,55 @@ public class ApiProcessor {
 
     private static void registerApiClientProxy(Class<?> clazz) {
         try {
-            Object proxy = createApiClientProxy(clazz);
-            registerInComponentStore(clazz, proxy);
+            Object client = createApiClient(clazz);
+            registerInComponentStore(clazz, client);
         } catch (Exception e) {
             throw new FrameworkException("Failed to create API client proxy for: " + clazz.getName(), e);
         }
     }
 
-    private static Object createApiClientProxy(Class<?> clazz) {
+    // Prefer the implementation generated at build time, a proxy otherwise
+    private static Object createApiClient(Class<?> clazz) throws ReflectiveOperationException {
+        Class<?> generated = findGeneratedClient(clazz);
+        ApiClientInvocationHandler handler = new ApiClientInvocationHandler(clazz);
+        if (generated == null) {
+            return createApiClientProxy(clazz, handler);
+        }
+        try {
+            return generated.getConstructor(ApiClientInvocationHandler.class).newInstance(handler);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            handler.close();
+            throw e;
+        }
+    }
+
+    private static Class<?> findGeneratedClient(Class<?> clazz) {
+        if (!Boolean.parseBoolean(PropertiesLoader.getProperty("flexi.api.generatedClients", "true"))) {
+            return null;
+        }
+        try {
+            Class<?> generated = Class.forName(GeneratedApiClient.implementationName(clazz), true,
+                    clazz.getClassLoader());
+            return clazz.isAssignableFrom(generated) && GeneratedApiClient.class.isAssignableFrom(generated)
+                    ? generated : null;
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Object createApiClientProxy(Class<?> clazz, ApiClientInvocationHandler handler) {
         return Proxy.newProxyInstance(
                 clazz.getClassLoader(),
                 new Class[]{clazz},
-                new ApiClientInvocationHandler(clazz)
+                handler
         );
     }
 
-    private static void registerInComponentStore(Class<?> clazz, Object proxy) {
+    private static void registerInComponentStore(Class<?> clazz, Object client) {
         String key = clazz.getName();
         if (ComponentStore.components.containsKey(key)) {
             throw new FrameworkException("Duplicate API client registration: " + key);
         }
-        ComponentStore.registerComponent(key, proxy, ComponentProcessor.DEFAULT_LEVEL);
+        ComponentStore.registerComponent(key, client, ComponentProcessor.DEFAULT_LEVEL);
     }
 }
\ No newline at end of file
@@ -0,0 +1,190 @@
+package io.github.itech_framework.api_client.resilience;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.github.itech_framework.api_client.annotations.resilience.CircuitBreaker;
+import io.github.itech_framework.api_client.exceptions.ApiException;
+import io.github.itech_framework.api_client.exceptions.CircuitBreakerOpenException;
+
+/**
+ * Circuit breaker over a count-based sliding window. Outcomes are recorded in
+ * a ring of atomic slots with running totals, so recording a call never
+ * blocks; the thresholds are only evaluated when a failed or slow call is
+ * recorded, which keeps the success path to a handful of atomic operations.
+ */
+public class Circuit {
+	private static final Logger logger = LogManager.getLogger(Circuit.class);
+
+	private static final int CLOSED = 0;
+	private static final int OPEN = 1;
+	private static final int HALF_OPEN = 2;
+
+	private static final int RECORDED = 1;
+	private static final int FAILED = 2;
+	private static final int SLOW = 4;
+
+	private final String name;
+	private final int failureRateThreshold;
+	private final int slowCallRateThreshold;
+	private final long slowCallNanos;
+	private final int minimumCalls;
+	private final long openNanos;
+	private final int halfOpenCalls;
+
+	private final AtomicIntegerArray window;
+	private final AtomicLong position = new AtomicLong();
+	private final AtomicInteger calls = new AtomicInteger();
+	private final AtomicInteger failures = new AtomicInteger();
+	private final AtomicInteger slowCalls = new AtomicInteger();
+
+	private final AtomicInteger state = new AtomicInteger(CLOSED);
+	private volatile long openedAt;
+	private final AtomicInteger trialPermits = new AtomicInteger();
+	private final AtomicInteger trialSuccesses = new AtomicInteger();
+
+	public Circuit(String name, CircuitBreaker config) {
+		this.name = name;
+		this.failureRateThreshold = config.failureRateThreshold();
+		this.slowCallRateThreshold = config.slowCallRateThreshold();
+		this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.slowCallDuration());
+		this.minimumCalls = Math.max(1, config.minimumCalls());
+		this.openNanos = TimeUnit.MILLISECONDS.toNanos(config.openDuration());
+		this.halfOpenCalls = Math.max(1, config.halfOpenCalls());
+		this.window = new AtomicIntegerArray(Math.max(1, config.windowSize()));
+	}
+
+	/**
+	 * Admits a call or throws {@link CircuitBreakerOpenException}. Every
+	 * admitted call must be followed by {@link #onSuccess(long)} or
+	 * {@link #onError(long, Throwable)}.
+	 */
+	public void acquirePermission() {
+		int current = state.get();
+		if (current == CLOSED) {
+			return;
+		}
+		if (current == OPEN) {
+			if (System.nanoTime() - openedAt < openNanos) {
+				throw new CircuitBreakerOpenException(name);
+			}
+			if (state.compareAndSet(OPEN, HALF_OPEN)) {
+				trialSuccesses.set(0);
+				trialPermits.set(halfOpenCalls);
+				logger.info("Circuit breaker {} is half-open", name);
+			}
+		}
+		while (true) {
+			int permits = trialPermits.get();
+			if (permits <= 0) {
+				if (state.get() == CLOSED) {
+					return;
+				}
+				throw new CircuitBreakerOpenException(name);
+			}
+			if (trialPermits.compareAndSet(permits, permits - 1)) {
+				return;
+			}
+		}
+	}
+
+	public void onSuccess(long durationNanos) {
+		record(durationNanos >= slowCallNanos ? RECORDED | SLOW : RECORDED);
+	}
+
+	public void onError(long durationNanos, Throwable error) {
+		if (!isFailure(error)) {
+			onSuccess(durationNanos);
+			return;
+		}
+		record(durationNanos >= slowCallNanos ? RECORDED | FAILED | SLOW : RECORDED | FAILED);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getState() {
+		return switch (state.get()) {
+		case OPEN -> "OPEN";
+		case HALF_OPEN -> "HALF_OPEN";
+		default -> "CLOSED";
+		};
+	}
+
+	private void record(int outcome) {
+		boolean healthy = (outcome & (FAILED | SLOW)) == 0;
+		int current = state.get();
+		if (current == HALF_OPEN) {
+			if (!healthy) {
+				open(HALF_OPEN);
+			} else if (trialSuccesses.incrementAndGet() >= halfOpenCalls) {
+				// cleared before closing, so the outcomes that opened the circuit never count again
+				reset();
+				if (state.compareAndSet(HALF_OPEN, CLOSED)) {
+					logger.info("Circuit breaker {} is closed", name);
+				}
+			}
+			return;
+		}
+		if (current == OPEN) {
+			return;
+		}
+
+		int slot = (int) (position.getAndIncrement() % window.length());
+		int previous = window.getAndSet(slot, outcome);
+		if (previous == 0) {
+			calls.incrementAndGet();
+		}
+		adjust(failures, previous, outcome, FAILED);
+		adjust(slowCalls, previous, outcome, SLOW);
+
+		if (!healthy) {
+			int total = calls.get();
+			if (total >= minimumCalls && (failures.get() * 100 >= failureRateThreshold * total
+					|| slowCalls.get() * 100 >= slowCallRateThreshold * total)) {
+				open(CLOSED);
+			}
+		}
+	}
+
+	private void open(int from) {
+		if (state.compareAndSet(from, OPEN)) {
+			openedAt = System.nanoTime();
+			logger.warn("Circuit breaker {} is open", name);
+		}
+	}
+
+	// clears slot by slot like record() fills them, so the totals stay exact while calls are recorded concurrently
+	private void reset() {
+		for (int i = 0; i < window.length(); i++) {
+			int previous = window.getAndSet(i, 0);
+			if (previous != 0) {
+				calls.decrementAndGet();
+				adjust(failures, previous, 0, FAILED);
+				adjust(slowCalls, previous, 0, SLOW);
+			}
+		}
+	}
+
+	private static void adjust(AtomicInteger counter, int previous, int outcome, int flag) {
+		int delta = ((outcome & flag) != 0 ? 1 : 0) - ((previous & flag) != 0 ? 1 : 0);
+		if (delta != 0) {
+			counter.addAndGet(delta);
+		}
+	}
+
+	private static boolean isFailure(Throwable error) {
+		if (error instanceof IOException || error instanceof Error) {
+			return true;
+		}
+		return error instanceof ApiException && !(error instanceof CircuitBreakerOpenException)
+				&& ((ApiException) error).getStatusCode() >= 500;
+	}
+}
@@ -0,0 +1,211 @@
+package io.github.itech_framework.api_client.resilience;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.itech_framework.api_client.annotations.resilience.ConcurrencyLimit;
+import io.github.itech_framework.api_client.concurrent.ApiExecutors;
+import io.github.itech_framework.api_client.exceptions.ApiException;
+import io.github.itech_framework.api_client.exceptions.CircuitBreakerOpenException;
+import io.github.itech_framework.api_client.exceptions.ConcurrencyLimitExceededException;
+import io.github.itech_framework.api_client.utils.enums.LimitAlgorithm;
+
+/**
+ * Adaptive limit on in-flight calls. Admission is a single compare-and-set on
+ * the in-flight counter; callers that do not fit wait in a queue and are
+ * handed the slots of completing calls. Each completed call feeds its
+ * round-trip time and outcome into the limit algorithm.
+ */
+public class ConcurrencyLimiter {
+	private static final double BACKOFF_RATIO = 0.9;
+	private static final double SMOOTHING = 0.2;
+	private static final double RTT_TOLERANCE = 2.0;
+	private static final int MIN_RTT_WINDOW = 500;
+
+	private final String name;
+	private final LimitAlgorithm algorithm;
+	private final int minLimit;
+	private final int maxLimit;
+	private final long maxQueueWaitNanos;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final Queue<CompletableFuture<Void>> waiters = new ConcurrentLinkedQueue<>();
+	private volatile int limit;
+	private double estimatedLimit;
+	private double minRtt;
+	private int samples;
+
+	public ConcurrencyLimiter(String name, ConcurrencyLimit config) {
+		this.name = name;
+		this.algorithm = config.algorithm();
+		this.minLimit = Math.max(1, config.minLimit());
+		this.maxLimit = Math.max(minLimit, config.maxLimit());
+		this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(config.maxQueueWait());
+		this.estimatedLimit = Math.min(maxLimit, Math.max(minLimit, config.initialLimit()));
+		this.limit = (int) estimatedLimit;
+	}
+
+	/**
+	 * Takes a slot, waiting for up to the configured queue time.
+	 */
+	public void acquire() throws InterruptedException {
+		if (tryAcquire()) {
+			return;
+		}
+		if (maxQueueWaitNanos <= 0) {
+			throw new ConcurrencyLimitExceededException(name);
+		}
+		CompletableFuture<Void> waiter = enqueue();
+		try {
+			waiter.get(maxQueueWaitNanos, TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			if (waiter.completeExceptionally(new ConcurrencyLimitExceededException(name))) {
+				throw new ConcurrencyLimitExceededException(name);
+			}
+		} catch (ExecutionException e) {
+			throw (ConcurrencyLimitExceededException) e.getCause();
+		} catch (InterruptedException e) {
+			if (!waiter.cancel(false)) {
+				release();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Takes a slot without blocking; the returned future completes once the
+	 * slot is granted or fails when the queue time has elapsed.
+	 */
+	public CompletableFuture<Void> acquireAsync() {
+		if (tryAcquire()) {
+			return CompletableFuture.completedFuture(null);
+		}
+		if (maxQueueWaitNanos <= 0) {
+			return CompletableFuture.failedFuture(new ConcurrencyLimitExceededException(name));
+		}
+		CompletableFuture<Void> waiter = enqueue();
+		if (waiter.isDone()) {
+			return waiter;
+		}
+		ScheduledFuture<?> timeout = ApiExecutors.scheduler().schedule(
+				() -> waiter.completeExceptionally(new ConcurrencyLimitExceededException(name)), maxQueueWaitNanos,
+				TimeUnit.NANOSECONDS);
+		// a granted waiter's timeout is removed from the scheduler instead of lingering until it fires
+		waiter.whenComplete((slot, error) -> timeout.cancel(false));
+		return waiter;
+	}
+
+	/**
+	 * Returns a slot taken at {@code startNanos} and updates the limit from the
+	 * call's outcome.
+	 *
+	 * @param error the call's failure, {@code null} on success
+	 */
+	public void release(long startNanos, Throwable error) {
+		if (!(error instanceof CircuitBreakerOpenException)) {
+			onSample(System.nanoTime() - startNanos, isOverload(error));
+		}
+		release();
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	private boolean tryAcquire() {
+		while (true) {
+			int current = inFlight.get();
+			if (current >= limit) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	private CompletableFuture<Void> enqueue() {
+		CompletableFuture<Void> waiter = new CompletableFuture<>();
+		waiters.add(waiter);
+		// a slot may have been freed before the waiter was visible
+		drain();
+		return waiter;
+	}
+
+	private void release() {
+		inFlight.decrementAndGet();
+		drain();
+	}
+
+	private void drain() {
+		while (!waiters.isEmpty() && tryAcquire()) {
+			CompletableFuture<Void> waiter = waiters.poll();
+			if (waiter == null || !waiter.complete(null)) {
+				inFlight.decrementAndGet();
+				if (waiter == null) {
+					return;
+				}
+			}
+		}
+	}
+
+	private synchronized void onSample(long rttNanos, boolean overloaded) {
+		double current = estimatedLimit;
+		double next;
+		if (algorithm == LimitAlgorithm.AIMD) {
+			if (overloaded) {
+				next = current * BACKOFF_RATIO;
+			} else if (inFlight.get() * 2 >= current) {
+				next = current + 1;
+			} else {
+				next = current;
+			}
+		} else {
+			double rtt = Math.max(1, rttNanos);
+			// the no-load round-trip time is re-learned periodically so the limit follows baseline shifts
+			if (++samples >= MIN_RTT_WINDOW) {
+				samples = 0;
+				minRtt = 0;
+			}
+			minRtt = minRtt == 0 ? rtt : Math.min(minRtt, rtt);
+			double gradient = overloaded ? 0.5 : Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * minRtt / rtt));
+			double target = current * gradient + Math.sqrt(current);
+			if (inFlight.get() * 2 < current) {
+				// not enough load to justify growing
+				target = Math.min(target, current);
+			}
+			next = current * (1 - SMOOTHING) + target * SMOOTHING;
+		}
+		estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+		limit = (int) estimatedLimit;
+	}
+
+	private static boolean isOverload(Throwable error) {
+		if (error == null) {
+			return false;
+		}
+		if (error instanceof IOException) {
+			return true;
+		}
+		if (!(error instanceof ApiException)) {
+			return false;
+		}
+		int statusCode = ((ApiException) error).getStatusCode();
+		return statusCode == 429 || statusCode >= 500;
+	}
+}
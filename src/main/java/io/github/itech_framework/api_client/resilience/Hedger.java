@@ -0,0 +1,155 @@
+package io.github.itech_framework.api_client.resilience;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.itech_framework.api_client.annotations.resilience.Hedge;
+import io.github.itech_framework.api_client.concurrent.ApiExecutors;
+
+/**
+ * Runs hedged calls: further attempts are started from the shared scheduler
+ * while earlier ones are still outstanding, the first successful attempt
+ * completes the call and every other attempt is aborted. A call fails only
+ * once all of its attempts have failed and no hedge handed to the executor
+ * is still to start.
+ */
+public class Hedger {
+	private static final int MIN_HEDGES = 5;
+
+	private final long fixedDelayNanos;
+	private final long minDelayNanos;
+	private final int maxHedges;
+	private final RetryBudget budget;
+	private final LatencyTracker latencies;
+	private final Executor executor;
+
+	public Hedger(Hedge config, Executor executor) {
+		this.fixedDelayNanos = config.delay() >= 0 ? TimeUnit.MILLISECONDS.toNanos(config.delay()) : -1;
+		this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, config.minDelay()));
+		this.maxHedges = Math.max(0, config.maxHedges());
+		this.budget = new RetryBudget(config.budgetPercent(), MIN_HEDGES);
+		this.latencies = new LatencyTracker(config.percentile());
+		this.executor = executor;
+	}
+
+	/**
+	 * @param attempts starts one attempt of the call each time it is invoked
+	 */
+	public CompletableFuture<Object> execute(Callable<Attempt> attempts) {
+		budget.recordCall();
+		Execution execution = new Execution(attempts);
+		execution.pending.incrementAndGet();
+		execution.launch();
+		execution.scheduleHedge(1);
+		return execution.result;
+	}
+
+	/**
+	 * Current hedge delay in nanoseconds.
+	 */
+	public long getDelayNanos() {
+		if (fixedDelayNanos >= 0) {
+			return fixedDelayNanos;
+		}
+		return Math.max(minDelayNanos, latencies.getPercentile());
+	}
+
+	/**
+	 * A started attempt and the way to abort it.
+	 */
+	public static final class Attempt {
+		private final CompletableFuture<Object> result;
+		private final Runnable abort;
+
+		public Attempt(CompletableFuture<Object> result, Runnable abort) {
+			this.result = result;
+			this.abort = abort;
+		}
+	}
+
+	private final class Execution {
+		private final Callable<Attempt> attempts;
+		private final CompletableFuture<Object> result = new CompletableFuture<>();
+		private final List<Attempt> launched = new CopyOnWriteArrayList<>();
+		private final AtomicInteger pending = new AtomicInteger();
+		private volatile Throwable lastError;
+		private volatile ScheduledFuture<?> nextHedge;
+
+		Execution(Callable<Attempt> attempts) {
+			this.attempts = attempts;
+			result.whenComplete((value, error) -> {
+				ScheduledFuture<?> hedge = nextHedge;
+				if (hedge != null) {
+					hedge.cancel(false);
+				}
+				for (Attempt attempt : launched) {
+					if (!attempt.result.isDone()) {
+						attempt.abort.run();
+					}
+				}
+			});
+		}
+
+		void launch() {
+			long start = System.nanoTime();
+			Attempt attempt;
+			try {
+				attempt = attempts.call();
+			} catch (Exception e) {
+				fail(e);
+				return;
+			}
+			launched.add(attempt);
+			if (result.isDone()) {
+				attempt.abort.run();
+			}
+			attempt.result.whenComplete((value, error) -> {
+				if (error == null) {
+					latencies.record(System.nanoTime() - start);
+					result.complete(value);
+				} else {
+					fail(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+				}
+			});
+		}
+
+		void scheduleHedge(int hedge) {
+			if (hedge > maxHedges || result.isDone()) {
+				return;
+			}
+			nextHedge = ApiExecutors.scheduler().schedule(() -> {
+				if (result.isDone() || !budget.tryAcquireRetry()) {
+					return;
+				}
+				// counted before the hand-off, so a failing earlier attempt waits for this one
+				pending.incrementAndGet();
+				try {
+					executor.execute(this::launch);
+				} catch (RejectedExecutionException e) {
+					release();
+					return;
+				}
+				scheduleHedge(hedge + 1);
+			}, getDelayNanos(), TimeUnit.NANOSECONDS);
+		}
+
+		private void fail(Throwable error) {
+			lastError = error;
+			release();
+		}
+
+		private void release() {
+			if (pending.decrementAndGet() == 0) {
+				result.completeExceptionally(lastError);
+			}
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package io.github.itech_framework.api_client.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the most recent latencies of a method in a ring and derives a
+ * percentile from them. The percentile is recomputed every
+ * {@value #RECOMPUTE_INTERVAL} samples by a single thread; readers always get
+ * the last computed value without blocking.
+ */
+public class LatencyTracker {
+	private static final int SIZE = 512;
+	private static final int RECOMPUTE_INTERVAL = 64;
+
+	private final int percentile;
+	private final AtomicLongArray samples = new AtomicLongArray(SIZE);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicBoolean computing = new AtomicBoolean();
+	private volatile long computedAt;
+	private volatile long value = -1;
+
+	public LatencyTracker(int percentile) {
+		this.percentile = Math.max(1, Math.min(100, percentile));
+	}
+
+	public void record(long nanos) {
+		long index = count.getAndIncrement();
+		samples.set((int) (index % SIZE), nanos);
+		if (index + 1 - computedAt >= RECOMPUTE_INTERVAL && computing.compareAndSet(false, true)) {
+			try {
+				long total = Math.min(index + 1, SIZE);
+				long[] sorted = new long[(int) total];
+				for (int i = 0; i < total; i++) {
+					sorted[i] = samples.get(i);
+				}
+				Arrays.sort(sorted);
+				value = sorted[(int) Math.min(total - 1, total * percentile / 100)];
+				computedAt = index + 1;
+			} finally {
+				computing.set(false);
+			}
+		}
+	}
+
+	/**
+	 * Returns the latency percentile in nanoseconds, {@code -1} until enough
+	 * samples have been recorded.
+	 */
+	public long getPercentile() {
+		return value;
+	}
+}
@@ -0,0 +1,69 @@
+package io.github.itech_framework.api_client.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.itech_framework.api_client.exceptions.RateLimitExceededException;
+import io.github.itech_framework.api_client.utils.enums.RateLimitMode;
+
+/**
+ * Lock-free token bucket. Instead of counting tokens the bucket keeps the
+ * time at which it will next be full again (the generic cell rate algorithm):
+ * reserving a permit advances that time by one emission interval with a
+ * single compare-and-set, and the caller waits for however far it lies more
+ * than one period ahead.
+ */
+public class RateLimiter {
+	private final String name;
+	private final long intervalNanos;
+	private final long periodNanos;
+	private final long maxWaitNanos;
+	private final AtomicLong fullAt = new AtomicLong(System.nanoTime());
+
+	public RateLimiter(String name, int permits, long periodMillis, RateLimitMode mode, long timeoutMillis) {
+		this.name = name;
+		this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+		this.intervalNanos = Math.max(1, periodNanos / Math.max(1, permits));
+		this.maxWaitNanos = switch (mode) {
+		case FAIL_FAST -> 0;
+		case TIMEOUT -> TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		default -> Long.MAX_VALUE;
+		};
+	}
+
+	/**
+	 * Reserves a permit and returns how many nanoseconds the caller has to wait
+	 * before using it.
+	 *
+	 * @throws RateLimitExceededException when the wait would exceed what the
+	 *                                    mode allows; nothing is reserved then
+	 */
+	public long reserve() {
+		while (true) {
+			long now = System.nanoTime();
+			long current = fullAt.get();
+			long next = (current - now > 0 ? current : now) + intervalNanos;
+			long wait = Math.max(0, next - periodNanos - now);
+			if (wait > maxWaitNanos) {
+				throw new RateLimitExceededException(name);
+			}
+			if (fullAt.compareAndSet(current, next)) {
+				return wait;
+			}
+		}
+	}
+
+	/**
+	 * Reserves a permit and blocks the calling thread until it can be used.
+	 */
+	public void acquire() throws InterruptedException {
+		long wait = reserve();
+		if (wait > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+}
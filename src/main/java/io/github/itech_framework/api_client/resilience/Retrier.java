@@ -0,0 +1,101 @@
+package io.github.itech_framework.api_client.resilience;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.github.itech_framework.api_client.concurrent.ApiExecutors;
+
+/**
+ * Runs calls under a {@link RetryPolicy} and a client-wide
+ * {@link RetryBudget}. Blocking calls sleep between attempts; asynchronous
+ * calls schedule the next attempt on the shared scheduler, which hands it to
+ * the client's executor, so no thread is held during the backoff.
+ */
+public class Retrier {
+	private static final Logger logger = LogManager.getLogger(Retrier.class);
+
+	private final RetryBudget budget;
+	private final Executor executor;
+
+	public Retrier(RetryBudget budget, Executor executor) {
+		this.budget = budget;
+		this.executor = executor;
+	}
+
+	/**
+	 * Runs the call until it succeeds or the policy or budget stops retrying.
+	 *
+	 * @param onRetry notified before each retry, may be {@code null}
+	 */
+	public Object execute(RetryPolicy policy, Callable<Object> call, Runnable onRetry) throws Exception {
+		budget.recordCall();
+		for (int attempt = 1;; attempt++) {
+			try {
+				return call.call();
+			} catch (Exception e) {
+				long delay = policy.backoff(attempt, e);
+				if (delay < 0 || !budget.tryAcquireRetry()) {
+					throw e;
+				}
+				logger.debug("Retrying in {} ms after attempt {} failed: {}", delay, attempt, e.toString());
+				if (onRetry != null) {
+					onRetry.run();
+				}
+				Thread.sleep(delay);
+			}
+		}
+	}
+
+	public CompletableFuture<Object> executeAsync(RetryPolicy policy, Supplier<CompletableFuture<Object>> call,
+			Runnable onRetry) {
+		budget.recordCall();
+		CompletableFuture<Object> result = new CompletableFuture<>();
+		attempt(policy, call, onRetry, 1, result);
+		return result;
+	}
+
+	private void attempt(RetryPolicy policy, Supplier<CompletableFuture<Object>> call, Runnable onRetry,
+			int attempt, CompletableFuture<Object> result) {
+		if (result.isDone()) {
+			return;
+		}
+		CompletableFuture<Object> future;
+		try {
+			future = call.get();
+		} catch (RuntimeException e) {
+			future = CompletableFuture.failedFuture(e);
+		}
+		future.whenComplete((value, error) -> {
+			if (error == null) {
+				result.complete(value);
+				return;
+			}
+			Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause()
+					: error;
+			long delay = policy.backoff(attempt, cause);
+			if (delay < 0 || !budget.tryAcquireRetry()) {
+				result.completeExceptionally(cause);
+				return;
+			}
+			logger.debug("Retrying in {} ms after attempt {} failed: {}", delay, attempt, cause.toString());
+			if (onRetry != null) {
+				onRetry.run();
+			}
+			ApiExecutors.scheduler().schedule(() -> {
+				try {
+					executor.execute(() -> attempt(policy, call, onRetry, attempt + 1, result));
+				} catch (RejectedExecutionException e) {
+					result.completeExceptionally(cause);
+				}
+			}, delay, TimeUnit.MILLISECONDS);
+		});
+	}
+}
@@ -0,0 +1,45 @@
+package io.github.itech_framework.api_client.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps retries to a share of the calls made, so that retries cannot multiply
+ * the load on a failing upstream. Every call deposits a fraction of a retry
+ * and every retry withdraws a whole one; the balance never exceeds the reserve
+ * of retries that is available to low-traffic clients.
+ */
+public class RetryBudget {
+	private static final long SCALE = 1000;
+
+	private final long depositPerCall;
+	private final long maxBalance;
+	private final AtomicLong balance;
+
+	/**
+	 * @param percent    retries allowed per 100 calls
+	 * @param minRetries retries available regardless of traffic
+	 */
+	public RetryBudget(int percent, int minRetries) {
+		this.depositPerCall = percent * SCALE / 100;
+		this.maxBalance = Math.max(1, minRetries) * SCALE;
+		this.balance = new AtomicLong(maxBalance);
+	}
+
+	public void recordCall() {
+		if (balance.get() < maxBalance) {
+			balance.accumulateAndGet(depositPerCall, (current, deposit) -> Math.min(maxBalance, current + deposit));
+		}
+	}
+
+	public boolean tryAcquireRetry() {
+		while (true) {
+			long current = balance.get();
+			if (current < SCALE) {
+				return false;
+			}
+			if (balance.compareAndSet(current, current - SCALE)) {
+				return true;
+			}
+		}
+	}
+}
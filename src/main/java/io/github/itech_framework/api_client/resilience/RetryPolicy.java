@@ -0,0 +1,86 @@
+package io.github.itech_framework.api_client.resilience;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.github.itech_framework.api_client.annotations.resilience.Retry;
+import io.github.itech_framework.api_client.exceptions.ApiException;
+import io.github.itech_framework.api_client.exceptions.CircuitBreakerOpenException;
+import io.github.itech_framework.api_client.exceptions.ConcurrencyLimitExceededException;
+import io.github.itech_framework.api_client.exceptions.RateLimitExceededException;
+import io.github.itech_framework.api_client.exceptions.ServiceUnavailableException;
+import io.github.itech_framework.api_client.exceptions.TooManyRequestsException;
+
+/**
+ * Immutable retry rules of a single API method, compiled from {@link Retry}.
+ */
+public final class RetryPolicy {
+	private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "PUT", "DELETE", "OPTIONS");
+
+	private final int maxAttempts;
+	private final long initialBackoff;
+	private final long maxBackoff;
+	private final double multiplier;
+	private final int[] statusCodes;
+
+	private RetryPolicy(Retry retry) {
+		this.maxAttempts = retry.maxAttempts();
+		this.initialBackoff = Math.max(0, retry.initialBackoff());
+		this.maxBackoff = Math.max(initialBackoff, retry.maxBackoff());
+		this.multiplier = Math.max(1.0, retry.multiplier());
+		this.statusCodes = retry.statusCodes().clone();
+		Arrays.sort(statusCodes);
+	}
+
+	/**
+	 * Returns the policy for a method, or {@code null} when it must not be
+	 * retried.
+	 */
+	public static RetryPolicy of(Retry retry, String httpMethod) {
+		if (retry == null || retry.maxAttempts() <= 1
+				|| (!retry.nonIdempotent() && !IDEMPOTENT_METHODS.contains(httpMethod))) {
+			return null;
+		}
+		return new RetryPolicy(retry);
+	}
+
+	/**
+	 * Returns the delay in milliseconds before the next attempt, or {@code -1}
+	 * when the failure of the given attempt is final.
+	 *
+	 * @param attempt number of the attempt that failed, starting at 1
+	 */
+	public long backoff(int attempt, Throwable failure) {
+		if (attempt >= maxAttempts || !isRetryable(failure)) {
+			return -1;
+		}
+		double cap = Math.min(maxBackoff, initialBackoff * Math.pow(multiplier, attempt - 1));
+		long delay = ThreadLocalRandom.current().nextLong((long) cap + 1);
+
+		Duration retryAfter = failure instanceof TooManyRequestsException
+				? ((TooManyRequestsException) failure).getRetryAfter()
+				: failure instanceof ServiceUnavailableException
+						? ((ServiceUnavailableException) failure).getRetryAfter()
+						: null;
+		if (retryAfter != null) {
+			if (retryAfter.toMillis() > maxBackoff) {
+				return -1;
+			}
+			delay = Math.max(delay, retryAfter.toMillis());
+		}
+		return delay;
+	}
+
+	private boolean isRetryable(Throwable failure) {
+		if (failure instanceof IOException) {
+			return true;
+		}
+		return failure instanceof ApiException && !(failure instanceof CircuitBreakerOpenException)
+				&& !(failure instanceof RateLimitExceededException)
+				&& !(failure instanceof ConcurrencyLimitExceededException)
+				&& Arrays.binarySearch(statusCodes, ((ApiException) failure).getStatusCode()) >= 0;
+	}
+}
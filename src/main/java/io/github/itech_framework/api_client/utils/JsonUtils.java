@@ -1,14 +1,33 @@
 package io.github.itech_framework.api_client.utils;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.BeanDescription;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import io.github.itech_framework.core.exceptions.FrameworkException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.function.Function;
+
 public class JsonUtils {
     private static final ObjectMapper mapper = new ObjectMapper()
             .registerModule(new JavaTimeModule())
@@ -16,6 +35,10 @@ public class JsonUtils {
             .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
             .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
+    // Streaming writes flush once at the end instead of after every element
+    private static final ObjectWriter streamWriter = mapper.writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
     private JsonUtils() {} // Prevent instantiation
 
     // Convert object to JSON string
@@ -47,6 +70,43 @@ public class JsonUtils {
         }
     }
 
+    // Create a generator that leaves the target stream open when closed
+    public static JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return mapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    // Write a value to a generator created by createGenerator
+    public static void writeValue(JsonGenerator generator, Object value) throws IOException {
+        streamWriter.writeValue(generator, value);
+    }
+
+    // Stream JSON from an input stream into a generic type, returns null for empty content
+    public static <T> T fromJson(InputStream input, Charset charset, TypeReference<T> typeRef) throws IOException {
+        JsonParser parser = isUnicode(charset)
+                ? mapper.getFactory().createParser(input)
+                : mapper.getFactory().createParser(new InputStreamReader(input, charset));
+        try (parser) {
+            if (parser.nextToken() == null) {
+                return null;
+            }
+            return mapper.readValue(parser, typeRef);
+        }
+    }
+
+    // Create a reusable reader for the given type
+    public static ObjectReader readerFor(Type type) {
+        return mapper.readerFor(mapper.getTypeFactory().constructType(type));
+    }
+
+    // Lazily read a top-level JSON array or a sequence of root-level values
+    public static <T> MappingIterator<T> readValues(InputStream input, Charset charset, ObjectReader reader)
+            throws IOException {
+        return isUnicode(charset)
+                ? reader.readValues(input)
+                : reader.readValues(new InputStreamReader(input, charset));
+    }
+
     // Check if string is valid JSON
     public static boolean isValidJson(String json) {
         try {
@@ -57,6 +117,27 @@ public class JsonUtils {
         }
     }
 
+    // Convert an already deserialized value into a JSON tree
+    public static JsonNode toTree(Object value) {
+        return mapper.valueToTree(value);
+    }
+
+    // Read one serialized property of the given type without building a tree, null when the type has no such property
+    public static Function<Object, Object> propertyReader(Class<?> type, String property) {
+        SerializationConfig config = mapper.getSerializationConfig();
+        BeanDescription description = config.introspect(mapper.constructType(type));
+        for (BeanPropertyDefinition definition : description.findProperties()) {
+            AnnotatedMember accessor = definition.getAccessor();
+            if (definition.getName().equals(property) && accessor != null) {
+                if (config.canOverrideAccessModifiers()) {
+                    accessor.fixAccess(config.isEnabled(MapperFeature.OVERRIDE_PUBLIC_ACCESS_MODIFIERS));
+                }
+                return accessor::getValue;
+            }
+        }
+        return null;
+    }
+
     // Pretty-print JSON
     public static String toPrettyJson(Object object) {
         try {
@@ -65,4 +146,9 @@ public class JsonUtils {
             throw new FrameworkException("JSON pretty-print failed", e);
         }
     }
+
+    // Jackson auto-detects UTF-8/16/32 from raw bytes, anything else needs a decoding reader
+    private static boolean isUnicode(Charset charset) {
+        return charset == null || charset.name().startsWith("UTF-");
+    }
 }
\ No newline at end of file
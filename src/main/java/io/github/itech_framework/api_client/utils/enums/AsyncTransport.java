@@ -0,0 +1,5 @@
+package io.github.itech_framework.api_client.utils.enums;
+
+public enum AsyncTransport {
+    DEFAULT, EXECUTOR, NON_BLOCKING
+}
@@ -0,0 +1,24 @@
+package io.github.itech_framework.api_client.utils.enums;
+
+public enum CallPhase {
+    /** Waiting in the client's executor before an asynchronous call starts. */
+    QUEUE,
+    /** Waiting for a connection from the pool. */
+    LEASE,
+    /** Resolving the host name of a new connection. */
+    DNS,
+    /** Opening the TCP connection. */
+    CONNECT,
+    /** TLS handshake of a new connection. */
+    TLS,
+    /** Writing the request line, headers and body. */
+    REQUEST,
+    /** Waiting for the response headers after the request was written. */
+    TTFB,
+    /** Waiting for response body bytes. */
+    BODY,
+    /** Waiting in the decode executor after a non-blocking response has arrived. */
+    DECODE_QUEUE,
+    /** Deserializing the response body, without the time spent waiting for bytes. */
+    DECODE
+}
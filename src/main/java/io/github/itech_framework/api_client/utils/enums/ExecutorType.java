@@ -0,0 +1,5 @@
+package io.github.itech_framework.api_client.utils.enums;
+
+public enum ExecutorType {
+    DEFAULT, VIRTUAL, PLATFORM
+}
@@ -0,0 +1,8 @@
+package io.github.itech_framework.api_client.utils.enums;
+
+public enum LimitAlgorithm {
+    /** Additive increase while the limit is in use, multiplicative decrease on overload. */
+    AIMD,
+    /** Scales the limit down as the round-trip time grows beyond twice the no-load round-trip time. */
+    GRADIENT
+}
@@ -0,0 +1,10 @@
+package io.github.itech_framework.api_client.utils.enums;
+
+public enum RateLimitMode {
+    /** Wait as long as needed for a permit. */
+    BLOCK,
+    /** Wait at most the configured timeout, then fail. */
+    TIMEOUT,
+    /** Fail immediately when no permit is available. */
+    FAIL_FAST
+}
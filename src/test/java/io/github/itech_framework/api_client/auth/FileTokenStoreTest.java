@@ -0,0 +1,166 @@
+package io.github.itech_framework.api_client.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.itech_framework.core.exceptions.FrameworkException;
+
+class FileTokenStoreTest {
+    private static final TokenData TOKEN = new TokenData("access-secret", "refresh-secret",
+            Instant.parse("2026-01-01T01:00:00Z"), Instant.parse("2026-01-01T00:45:00Z"));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsTokens() throws IOException {
+        FileTokenStore store = store("passphrase");
+        TokenData other = new TokenData("other", null, TOKEN.expiration(), TOKEN.refreshAt());
+
+        store.save("client-a", TOKEN);
+        store.save("client-b", other);
+
+        assertEquals(TOKEN, store.load("client-a"));
+        assertEquals(other, store.load("client-b"));
+        assertEquals(TOKEN, store("passphrase").load("client-a"));
+    }
+
+    @Test
+    void loadsNothingForUnknownOrRemovedKeys() throws IOException {
+        FileTokenStore store = store("passphrase");
+        assertNull(store.load("client"));
+
+        store.save("client", TOKEN);
+        store.remove("client");
+
+        assertNull(store.load("client"));
+    }
+
+    @Test
+    void replacesTokensWithoutLeavingTemporaryFiles() throws IOException {
+        FileTokenStore store = store("passphrase");
+        TokenData renewed = new TokenData("renewed", "refresh-secret", TOKEN.expiration(), TOKEN.refreshAt());
+
+        store.save("client", TOKEN);
+        store.save("client", renewed);
+
+        assertEquals(renewed, store.load("client"));
+        assertEquals(1, files().size());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.noneMatch(file -> file.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    void encryptsTokensOnDisk() throws IOException {
+        store("passphrase").save("client", TOKEN);
+
+        Path file = files().get(0);
+        String content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+        assertFalse(content.contains("secret"));
+        assertFalse(file.getFileName().toString().contains("client"));
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(file));
+        }
+    }
+
+    @Test
+    void usesAFreshIvForEverySave() throws IOException {
+        FileTokenStore store = store("passphrase");
+
+        store.save("client", TOKEN);
+        byte[] first = Files.readAllBytes(files().get(0));
+        store.save("client", TOKEN);
+        byte[] second = Files.readAllBytes(files().get(0));
+
+        assertFalse(Arrays.equals(first, second));
+    }
+
+    @Test
+    void rejectsTokensWrittenWithAnotherPassphrase() throws IOException {
+        store("passphrase").save("client", TOKEN);
+
+        assertThrows(IOException.class, () -> store("other passphrase").load("client"));
+    }
+
+    @Test
+    void rejectsModifiedTokenFiles() throws IOException {
+        FileTokenStore store = store("passphrase");
+        store.save("client", TOKEN);
+        Path file = files().get(0);
+        byte[] content = Files.readAllBytes(file);
+        content[content.length - 1] ^= 1;
+        Files.write(file, content);
+
+        assertThrows(IOException.class, () -> store.load("client"));
+    }
+
+    @Test
+    void rejectsTokenFilesMovedToAnotherKey() throws IOException {
+        FileTokenStore store = store("passphrase");
+        store.save("client-a", TOKEN);
+        Path fileA = files().get(0);
+        store.save("client-b", new TokenData("other", null, TOKEN.expiration(), TOKEN.refreshAt()));
+        Path fileB = files().stream().filter(file -> !file.equals(fileA)).findFirst().orElseThrow();
+
+        Files.copy(fileA, fileB, StandardCopyOption.REPLACE_EXISTING);
+
+        assertThrows(IOException.class, () -> store.load("client-b"));
+    }
+
+    @Test
+    void rejectsUnrecognizedFiles() throws IOException {
+        FileTokenStore store = store("passphrase");
+        store.save("client", TOKEN);
+        Files.write(files().get(0), new byte[] { 9, 1, 2 });
+
+        assertThrows(IOException.class, () -> store.load("client"));
+    }
+
+    @Test
+    void requiresAPassphrase() {
+        assertThrows(FrameworkException.class, () -> new FileTokenStore(directory, new char[0]));
+        assertThrows(FrameworkException.class, () -> new FileTokenStore(directory, null));
+    }
+
+    @Test
+    void locksAndReleasesKeys() throws IOException {
+        FileTokenStore store = store("passphrase");
+
+        try (TokenStore.Lock lock = store.lock("client")) {
+            store.save("client", TOKEN);
+        }
+        try (TokenStore.Lock lock = store.lock("client")) {
+            assertEquals(TOKEN, store.load("client"));
+        }
+    }
+
+    private FileTokenStore store(String passphrase) {
+        return new FileTokenStore(directory, passphrase.toCharArray());
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".token")).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.itech_framework.api_client.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.itech_framework.api_client.annotations.authentications.OAuth2;
+
+class TokenManagerTest {
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private HttpServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        TokenManager.setTokenStore(null);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/token", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            String body = "{\"access_token\":\"token-" + tokenRequests.incrementAndGet() + "\",\"expires_in\":2}";
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void longLivedTokenKeepsOneMinuteBuffer() {
+        TokenData token = TokenManager.newTokenData("access", "refresh", 3600, NOW);
+
+        assertEquals(Duration.ofSeconds(3540), Duration.between(NOW, token.expiration()));
+        assertEquals(Duration.ofSeconds(2832), Duration.between(NOW, token.refreshAt()));
+        assertEquals("refresh", token.refreshToken());
+    }
+
+    @Test
+    void shortLivedTokenScalesBufferWithLifetime() {
+        TokenData minute = TokenManager.newTokenData("access", null, 60, NOW);
+        assertEquals(Duration.ofSeconds(54), Duration.between(NOW, minute.expiration()));
+        assertEquals(Duration.ofMillis(43_200), Duration.between(NOW, minute.refreshAt()));
+
+        TokenData seconds = TokenManager.newTokenData("access", null, 5, NOW);
+        assertEquals(Duration.ofMillis(4_500), Duration.between(NOW, seconds.expiration()));
+        assertEquals(Duration.ofMillis(3_600), Duration.between(NOW, seconds.refreshAt()));
+    }
+
+    @Test
+    void tinyLifetimeKeepsMinimumUsableTimeAndRefreshDelay() {
+        for (long expiresIn : new long[] { 1, 0, -5 }) {
+            TokenData token = TokenManager.newTokenData("access", null, expiresIn, NOW);
+            Duration usable = Duration.between(NOW, token.expiration());
+            Duration refresh = Duration.between(NOW, token.refreshAt());
+
+            assertEquals(Duration.ofMillis(TokenManager.MIN_USABLE_MILLIS), usable, "expires_in " + expiresIn);
+            assertEquals(Duration.ofMillis(TokenManager.MIN_REFRESH_DELAY_MILLIS), refresh, "expires_in " + expiresIn);
+        }
+    }
+
+    @Test
+    void refreshIsNeverAfterExpiration() {
+        for (long expiresIn = 0; expiresIn <= 700; expiresIn++) {
+            TokenData token = TokenManager.newTokenData("access", null, expiresIn, NOW);
+
+            assertTrue(token.refreshAt().isAfter(NOW), "expires_in " + expiresIn);
+            assertFalse(token.refreshAt().isAfter(token.expiration()), "expires_in " + expiresIn);
+        }
+    }
+
+    @Test
+    void usedTokenIsRefreshedAhead() throws InterruptedException {
+        OAuth2 config = oauth2("used");
+        assertEquals("token-1", TokenManager.getToken(config));
+        Thread.sleep(500);
+        assertEquals("token-1", TokenManager.getToken(config));
+
+        // a two second token is refreshed after 1.44 s and expires after 1.8 s
+        long deadline = System.currentTimeMillis() + 3_000;
+        while (tokenRequests.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(2, tokenRequests.get());
+        assertEquals("token-2", TokenManager.getToken(config));
+    }
+
+    @Test
+    void unusedTokenIsLeftToExpire() throws InterruptedException {
+        OAuth2 config = oauth2("unused");
+        assertEquals("token-1", TokenManager.getToken(config));
+
+        Thread.sleep(2_000);
+        assertEquals(1, tokenRequests.get());
+        assertEquals("token-2", TokenManager.getToken(config));
+        assertEquals(2, tokenRequests.get());
+    }
+
+    private OAuth2 oauth2(String clientId) {
+        String tokenUrl = "http://localhost:" + server.getAddress().getPort() + "/token";
+        return new OAuth2() {
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return OAuth2.class;
+            }
+
+            @Override
+            public String clientId() {
+                return clientId;
+            }
+
+            @Override
+            public String clientSecret() {
+                return "secret";
+            }
+
+            @Override
+            public String tokenUrl() {
+                return tokenUrl;
+            }
+        };
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.itech_framework.api_client.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.client.methods.HttpGet;
+import org.junit.jupiter.api.Test;
+
+class RequestCoalescerTest {
+	private static final String URI = "http://localhost/items/1";
+
+	private final RequestCoalescer coalescer = new RequestCoalescer();
+
+	@Test
+	void sharesInFlightExchangeWithinScope() throws Exception {
+		AtomicInteger exchanges = new AtomicInteger();
+		CompletableFuture<Object> response = new CompletableFuture<>();
+
+		CompletableFuture<Object> first = coalescer.executeAsync("scope", new HttpGet(URI), () -> {
+			exchanges.incrementAndGet();
+			return response;
+		});
+		CompletableFuture<Object> second = coalescer.executeAsync("scope", new HttpGet(URI), () -> {
+			exchanges.incrementAndGet();
+			return CompletableFuture.completedFuture("unexpected");
+		});
+		response.complete("value");
+
+		assertEquals("value", first.get(1, TimeUnit.SECONDS));
+		assertEquals("value", second.get(1, TimeUnit.SECONDS));
+		assertEquals(1, exchanges.get());
+		assertEquals(0, coalescer.inFlight());
+	}
+
+	@Test
+	void keepsScopesSendingSameRequestApart() throws Exception {
+		CompletableFuture<Object> map = new CompletableFuture<>();
+		CompletableFuture<Object> text = new CompletableFuture<>();
+
+		CompletableFuture<Object> first = coalescer.executeAsync("asMap", new HttpGet(URI), () -> map);
+		CompletableFuture<Object> second = coalescer.executeAsync("asText", new HttpGet(URI), () -> text);
+		assertEquals(2, coalescer.inFlight());
+		map.complete("map");
+		text.complete("text");
+
+		assertEquals("map", first.get(1, TimeUnit.SECONDS));
+		assertEquals("text", second.get(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void keepsDifferentHeadersApart() throws Exception {
+		HttpGet english = new HttpGet(URI);
+		english.addHeader("Accept-Language", "en");
+		CompletableFuture<Object> pending = new CompletableFuture<>();
+
+		coalescer.executeAsync("scope", english, () -> pending);
+		CompletableFuture<Object> other = coalescer.executeAsync("scope", new HttpGet(URI),
+				() -> CompletableFuture.completedFuture("own"));
+
+		assertEquals("own", other.get(1, TimeUnit.SECONDS));
+		pending.complete("shared");
+	}
+
+	@Test
+	void sharesFailureWithWaitingCallers() throws Exception {
+		IOException failure = new IOException("down");
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> {
+			try {
+				return coalescer.execute("scope", new HttpGet(URI), () -> {
+					started.countDown();
+					release.await();
+					throw failure;
+				});
+			} catch (Exception e) {
+				return e;
+			}
+		});
+		started.await();
+		CompletableFuture<Object> follower = coalescer.executeAsync("scope", new HttpGet(URI),
+				() -> CompletableFuture.completedFuture("unexpected"));
+		release.countDown();
+
+		assertSame(failure, leader.get(1, TimeUnit.SECONDS));
+		ExecutionException thrown = assertThrows(ExecutionException.class, () -> follower.get(1, TimeUnit.SECONDS));
+		assertSame(failure, thrown.getCause());
+	}
+
+	@Test
+	void settlesWaitingCallersWhenTheExchangeThrowsAnError() throws Exception {
+		AssertionError failure = new AssertionError("broken");
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> {
+			try {
+				return coalescer.execute("scope", new HttpGet(URI), () -> {
+					started.countDown();
+					release.await();
+					throw failure;
+				});
+			} catch (Throwable e) {
+				return e;
+			}
+		});
+		started.await();
+		CompletableFuture<Object> follower = coalescer.executeAsync("scope", new HttpGet(URI),
+				() -> CompletableFuture.completedFuture("unexpected"));
+		release.countDown();
+
+		assertSame(failure, leader.get(1, TimeUnit.SECONDS));
+		ExecutionException thrown = assertThrows(ExecutionException.class, () -> follower.get(1, TimeUnit.SECONDS));
+		assertSame(failure, thrown.getCause());
+		assertEquals(0, coalescer.inFlight());
+	}
+
+	@Test
+	void releasesTheKeyWhenStartingAnAsyncExchangeThrowsAnError() throws Exception {
+		StackOverflowError failure = new StackOverflowError();
+
+		assertSame(failure, assertThrows(StackOverflowError.class,
+				() -> coalescer.executeAsync("scope", new HttpGet(URI), () -> {
+					throw failure;
+				})));
+
+		assertEquals(0, coalescer.inFlight());
+		assertEquals("next", coalescer.executeAsync("scope", new HttpGet(URI),
+				() -> CompletableFuture.completedFuture("next")).get(1, TimeUnit.SECONDS));
+	}
+}
@@ -0,0 +1,103 @@
+package io.github.itech_framework.api_client.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Test;
+
+class ResponseCacheTest {
+	private static final String URI = "http://localhost/items/1";
+
+	private final ResponseCache cache = new ResponseCache(3, 1000);
+
+	@Test
+	void keepsScopesSharingUriApart() {
+		HttpGet request = new HttpGet(URI);
+		cache.store("asMap", request, cacheable(), "map", 10);
+		cache.store("asText", request, cacheable(), "text", 10);
+
+		assertEquals("map", cache.lookup("asMap", new HttpGet(URI)).getValue());
+		assertEquals("text", cache.lookup("asText", new HttpGet(URI)).getValue());
+		assertNull(cache.lookup("other", new HttpGet(URI)));
+	}
+
+	@Test
+	void keepsVariantsOfVaryingResponses() {
+		HttpResponse response = cacheable();
+		response.addHeader("Vary", "Accept-Language");
+		cache.store("scope", get("en"), response, "hello", 10);
+		cache.store("scope", get("fr"), response, "bonjour", 10);
+
+		assertEquals("hello", cache.lookup("scope", get("en")).getValue());
+		assertEquals("bonjour", cache.lookup("scope", get("fr")).getValue());
+		assertNull(cache.lookup("scope", get("de")));
+		assertEquals(2, cache.size());
+
+		cache.store("scope", get("en"), response, "hi", 10);
+		assertEquals("hi", cache.lookup("scope", get("en")).getValue());
+		assertEquals(2, cache.size());
+		assertEquals(20, cache.sizeInBytes());
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedEntries() {
+		cache.store("scope", new HttpGet(URI + "/a"), cacheable(), "a", 10);
+		cache.store("scope", new HttpGet(URI + "/b"), cacheable(), "b", 10);
+		cache.store("scope", new HttpGet(URI + "/c"), cacheable(), "c", 10);
+		cache.lookup("scope", new HttpGet(URI + "/a"));
+		cache.store("scope", new HttpGet(URI + "/d"), cacheable(), "d", 10);
+
+		assertEquals(3, cache.size());
+		assertNull(cache.lookup("scope", new HttpGet(URI + "/b")));
+		assertEquals("a", cache.lookup("scope", new HttpGet(URI + "/a")).getValue());
+
+		cache.store("scope", new HttpGet(URI + "/e"), cacheable(), "e", 990);
+		assertEquals(1000, cache.sizeInBytes());
+		assertEquals("e", cache.lookup("scope", new HttpGet(URI + "/e")).getValue());
+	}
+
+	@Test
+	void skipsUncacheableResponses() {
+		HttpResponse noStore = cacheable();
+		noStore.setHeader("Cache-Control", "no-store");
+		cache.store("scope", new HttpGet(URI), noStore, "value", 10);
+		cache.store("scope", new HttpGet(URI), new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK"), "value", 10);
+
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void revalidatesEntryInPlace() {
+		HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+		response.addHeader("ETag", "\"v1\"");
+		cache.store("scope", new HttpGet(URI), response, "value", 10);
+		ResponseCache.Entry entry = cache.lookup("scope", new HttpGet(URI));
+
+		HttpGet conditional = new HttpGet(URI);
+		cache.addValidators(conditional, entry);
+		assertEquals("\"v1\"", conditional.getFirstHeader("If-None-Match").getValue());
+
+		HttpResponse notModified = new BasicHttpResponse(HttpVersion.HTTP_1_1, 304, "Not Modified");
+		notModified.addHeader("Cache-Control", "max-age=60");
+		assertSame(entry.getValue(), cache.revalidated(entry, notModified));
+		assertTrue(cache.lookup("scope", new HttpGet(URI)).isFresh());
+	}
+
+	private static HttpGet get(String language) {
+		HttpGet request = new HttpGet(URI);
+		request.addHeader("Accept-Language", language);
+		return request;
+	}
+
+	private static HttpResponse cacheable() {
+		HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+		response.addHeader("Cache-Control", "max-age=60");
+		return response;
+	}
+}
@@ -0,0 +1,183 @@
+package io.github.itech_framework.api_client.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+class MicroBatcherTest {
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> new Thread(task, "client"));
+	private final List<List<Object>> calls = new CopyOnWriteArrayList<>();
+	private final List<String> threads = new CopyOnWriteArrayList<>();
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void dispatchesFullBatchOnSubmittingThread() throws Exception {
+		MicroBatcher batcher = new MicroBatcher(this::echo, "", 3, 60_000, executor);
+
+		CompletableFuture<Object> a = batcher.submit("a");
+		CompletableFuture<Object> b = batcher.submit("b");
+		CompletableFuture<Object> duplicate = batcher.submit("a");
+		CompletableFuture<Object> c = batcher.submit("c");
+
+		assertEquals(List.of(List.of("a", "b", "c")), calls);
+		assertEquals(Thread.currentThread().getName(), threads.get(0));
+		assertEquals("value-a", a.get(1, TimeUnit.SECONDS));
+		assertEquals("value-a", duplicate.get(1, TimeUnit.SECONDS));
+		assertEquals("value-b", b.get(1, TimeUnit.SECONDS));
+		assertEquals("value-c", c.get(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void dispatchesExpiredBatchOnExecutor() throws Exception {
+		MicroBatcher batcher = new MicroBatcher(this::echo, "", 100, 5, executor);
+
+		CompletableFuture<Object> a = batcher.submit("a");
+		CompletableFuture<Object> b = batcher.submit("b");
+
+		assertEquals("value-a", a.get(5, TimeUnit.SECONDS));
+		assertEquals("value-b", b.get(5, TimeUnit.SECONDS));
+		assertEquals(List.of(List.of("a", "b")), calls);
+		assertEquals(List.of("client"), threads);
+	}
+
+	@Test
+	void failsExpiredBatchWhenExecutorRejects() {
+		executor.shutdown();
+		MicroBatcher batcher = new MicroBatcher(this::echo, "", 100, 1, executor);
+
+		ExecutionException thrown = assertThrows(ExecutionException.class,
+				() -> batcher.submit("a").get(5, TimeUnit.SECONDS));
+		assertTrue(thrown.getCause() instanceof RejectedExecutionException);
+		assertTrue(calls.isEmpty());
+	}
+
+	@Test
+	void matchesElementsOnKeyProperty() throws Exception {
+		MicroBatcher batcher = new MicroBatcher(keys -> CompletableFuture.completedFuture(
+				List.of(Map.of("id", 2, "name", "two"), Map.of("id", 1, "name", "one"))), "id", 100, 60_000,
+				executor);
+
+		CompletableFuture<Object> one = batcher.submit(1);
+		CompletableFuture<Object> two = batcher.submit(2);
+		CompletableFuture<Object> missing = batcher.submit(3);
+		batcher.flush();
+
+		assertEquals(Map.of("id", 1, "name", "one"), one.get(1, TimeUnit.SECONDS));
+		assertEquals(Map.of("id", 2, "name", "two"), two.get(1, TimeUnit.SECONDS));
+		assertNull(missing.get(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void failsEveryKeyWhenBulkCallFails() {
+		IllegalStateException failure = new IllegalStateException("down");
+		MicroBatcher batcher = new MicroBatcher(keys -> CompletableFuture.failedFuture(failure), "", 100, 60_000,
+				executor);
+
+		CompletableFuture<Object> a = batcher.submit("a");
+		CompletableFuture<Object> b = batcher.submit("b");
+		batcher.flush();
+
+		assertSame(failure, assertThrows(ExecutionException.class, () -> a.get(1, TimeUnit.SECONDS)).getCause());
+		assertSame(failure, assertThrows(ExecutionException.class, () -> b.get(1, TimeUnit.SECONDS)).getCause());
+	}
+
+	@Test
+	void matchesRecordsAndBeansOnKeyProperty() throws Exception {
+		MicroBatcher batcher = new MicroBatcher(keys -> CompletableFuture.completedFuture(
+				List.of(new Item(2, "two"), new Renamed("a"), new Item(1, "one"))), "id", 100, 60_000, executor);
+
+		CompletableFuture<Object> one = batcher.submit(1);
+		CompletableFuture<Object> two = batcher.submit(2);
+		CompletableFuture<Object> renamed = batcher.submit("a");
+		batcher.flush();
+
+		assertEquals(new Item(1, "one"), one.get(1, TimeUnit.SECONDS));
+		assertEquals(new Item(2, "two"), two.get(1, TimeUnit.SECONDS));
+		assertEquals("a", ((Renamed) renamed.get(1, TimeUnit.SECONDS)).getCode());
+	}
+
+	@Test
+	void failsEveryKeyWhenBulkCallThrowsError() {
+		AssertionError failure = new AssertionError("bug");
+		MicroBatcher batcher = new MicroBatcher(keys -> {
+			throw failure;
+		}, "", 100, 60_000, executor);
+
+		CompletableFuture<Object> a = batcher.submit("a");
+		CompletableFuture<Object> b = batcher.submit("b");
+		assertSame(failure, assertThrows(AssertionError.class, batcher::flush));
+
+		assertSame(failure, assertThrows(ExecutionException.class, () -> a.get(1, TimeUnit.SECONDS)).getCause());
+		assertSame(failure, assertThrows(ExecutionException.class, () -> b.get(1, TimeUnit.SECONDS)).getCause());
+	}
+
+	@Test
+	void failsEveryKeyWhenSplittingThrowsError() {
+		AssertionError failure = new AssertionError("bug");
+		List<Object> broken = new AbstractList<>() {
+			@Override
+			public Object get(int index) {
+				throw failure;
+			}
+
+			@Override
+			public int size() {
+				return 2;
+			}
+		};
+		MicroBatcher batcher = new MicroBatcher(keys -> CompletableFuture.completedFuture(broken), "", 100, 60_000,
+				executor);
+
+		CompletableFuture<Object> a = batcher.submit("a");
+		batcher.flush();
+
+		assertSame(failure, assertThrows(ExecutionException.class, () -> a.get(1, TimeUnit.SECONDS)).getCause());
+	}
+
+	record Item(int id, String name) {
+	}
+
+	public static class Renamed {
+		private final String code;
+
+		Renamed(String code) {
+			this.code = code;
+		}
+
+		@JsonProperty("id")
+		public String getCode() {
+			return code;
+		}
+	}
+
+	private CompletableFuture<Object> echo(List<Object> keys) {
+		calls.add(keys);
+		threads.add(Thread.currentThread().getName());
+		List<Object> values = new ArrayList<>();
+		keys.forEach(key -> values.add("value-" + key));
+		return CompletableFuture.completedFuture(values);
+	}
+}
@@ -0,0 +1,45 @@
+package io.github.itech_framework.api_client.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.itech_framework.api_client.utils.enums.CallPhase;
+
+class ApiCallContextTest {
+	private static final int THREADS = 4;
+	private static final int PHASES = 100_000;
+
+	@Test
+	void sumsPhasesReportedConcurrently() throws Exception {
+		ApiCallContext call = new ApiCallContext("client", Object.class.getMethod("toString"), "GET", "/items",
+				new ApiEventListener[0]);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> attempts = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			Thread attempt = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				for (int j = 0; j < PHASES; j++) {
+					call.phase(CallPhase.TTFB, j, j + 1);
+				}
+			});
+			attempt.start();
+			attempts.add(attempt);
+		}
+		start.countDown();
+		for (Thread attempt : attempts) {
+			attempt.join();
+		}
+
+		assertEquals((long) THREADS * PHASES, call.getDuration(CallPhase.TTFB));
+	}
+}
@@ -0,0 +1,98 @@
+package io.github.itech_framework.api_client.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.itech_framework.api_client.annotations.ApiClient;
+import io.github.itech_framework.api_client.annotations.batching.Batched;
+import io.github.itech_framework.api_client.annotations.methods.GET;
+import io.github.itech_framework.api_client.annotations.methods.POST;
+import io.github.itech_framework.api_client.annotations.parameters.Body;
+import io.github.itech_framework.api_client.annotations.parameters.Path;
+
+class BatchingTest {
+	@ApiClient(baseUrl = TestServer.BASE_URL)
+	interface SetBulkApi {
+		@GET("/items/{id}")
+		@Batched(value = "batchGet", keyProperty = "id", maxDelay = 20)
+		CompletableFuture<Map<String, Object>> getItem(@Path("id") String id);
+
+		@POST("/items/batchGet")
+		List<Map<String, Object>> batchGet(@Body Set<String> ids);
+	}
+
+	@ApiClient(baseUrl = TestServer.BASE_URL)
+	interface ArrayBulkApi {
+		@GET("/items/{id}")
+		@Batched("batchGet")
+		CompletableFuture<Map<String, Object>> getItem(@Path("id") String id);
+
+		@POST("/items/batchGet")
+		List<Map<String, Object>> batchGet(@Body String[] ids);
+	}
+
+	private final List<String> bodies = new CopyOnWriteArrayList<>();
+	private TestServer server;
+	private ApiClientInvocationHandler handler;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = TestServer.create().context("/items/batchGet", exchange -> {
+			String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+			bodies.add(body);
+			// answers in reverse order, so elements must be matched on their key
+			StringBuilder response = new StringBuilder("[");
+			String[] ids = body.replaceAll("[\\[\\]\"\\s]", "").split(",");
+			for (int i = ids.length - 1; i >= 0; i--) {
+				response.append("{\"id\":\"").append(ids[i]).append("\"}").append(i > 0 ? "," : "");
+			}
+			TestServer.respond(exchange, 200, "application/json",
+					response.append(']').toString().getBytes(StandardCharsets.UTF_8));
+		}).start();
+	}
+
+	@AfterEach
+	void stopServer() {
+		if (handler != null) {
+			handler.close();
+		}
+		server.close();
+	}
+
+	@Test
+	void sendsBatchToBulkMethodTakingSet() throws Exception {
+		handler = new ApiClientInvocationHandler(SetBulkApi.class);
+		SetBulkApi api = TestServer.client(SetBulkApi.class, handler);
+
+		CompletableFuture<Map<String, Object>> a = api.getItem("a");
+		CompletableFuture<Map<String, Object>> b = api.getItem("b");
+		CompletableFuture<Map<String, Object>> again = api.getItem("a");
+
+		assertEquals(Map.of("id", "a"), a.get(5, TimeUnit.SECONDS));
+		assertEquals(Map.of("id", "b"), b.get(5, TimeUnit.SECONDS));
+		assertEquals(Map.of("id", "a"), again.get(5, TimeUnit.SECONDS));
+		assertEquals(List.of("[\"a\",\"b\"]"), bodies);
+	}
+
+	@Test
+	void rejectsBulkMethodNotTakingCollection() {
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+				() -> new ApiClientInvocationHandler(ArrayBulkApi.class));
+
+		assertTrue(thrown.getMessage().contains("batchGet"));
+	}
+}
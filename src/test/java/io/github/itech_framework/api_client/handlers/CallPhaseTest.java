@@ -0,0 +1,99 @@
+package io.github.itech_framework.api_client.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.itech_framework.api_client.annotations.ApiClient;
+import io.github.itech_framework.api_client.annotations.methods.GET;
+import io.github.itech_framework.api_client.events.ApiCallContext;
+import io.github.itech_framework.api_client.events.ApiEventListener;
+import io.github.itech_framework.api_client.events.ApiEvents;
+import io.github.itech_framework.api_client.utils.enums.AsyncTransport;
+import io.github.itech_framework.api_client.utils.enums.CallPhase;
+
+class CallPhaseTest {
+	@ApiClient(baseUrl = TestServer.BASE_URL)
+	interface BlockingApi {
+		@GET("/item")
+		CompletableFuture<Map<String, Object>> get();
+	}
+
+	@ApiClient(baseUrl = TestServer.BASE_URL, asyncTransport = AsyncTransport.NON_BLOCKING)
+	interface NonBlockingApi {
+		@GET("/item")
+		CompletableFuture<Map<String, Object>> get();
+	}
+
+	private final List<CallPhase> phases = new CopyOnWriteArrayList<>();
+	private final CountDownLatch ended = new CountDownLatch(1);
+	private final ApiEventListener listener = new ApiEventListener() {
+		@Override
+		public void phase(ApiCallContext call, CallPhase phase, long startNanos, long endNanos) {
+			phases.add(phase);
+		}
+
+		@Override
+		public void callEnd(ApiCallContext call, Throwable error) {
+			ended.countDown();
+		}
+	};
+	private TestServer server;
+	private ApiClientInvocationHandler handler;
+
+	@BeforeEach
+	void start() throws IOException {
+		server = TestServer.create()
+				.context("/item", exchange -> TestServer.respond(exchange, 200, "application/json",
+						"{\"id\":1}".getBytes()))
+				.start();
+		ApiEvents.addListener(listener);
+	}
+
+	@AfterEach
+	void stop() {
+		ApiEvents.removeListener(listener);
+		if (handler != null) {
+			handler.close();
+		}
+		server.close();
+	}
+
+	@Test
+	void reportsDecodeQueueAfterNonBlockingResponse() throws Exception {
+		handler = new ApiClientInvocationHandler(NonBlockingApi.class);
+		NonBlockingApi api = TestServer.client(NonBlockingApi.class, handler);
+
+		assertEquals(Map.of("id", 1), api.get().get(5, TimeUnit.SECONDS));
+		assertTrue(ended.await(5, TimeUnit.SECONDS));
+
+		assertTrue(phases.contains(CallPhase.TTFB), phases.toString());
+		assertTrue(phases.contains(CallPhase.DECODE_QUEUE), phases.toString());
+		assertTrue(phases.indexOf(CallPhase.TTFB) < phases.indexOf(CallPhase.DECODE_QUEUE), phases.toString());
+		assertFalse(phases.contains(CallPhase.QUEUE), phases.toString());
+	}
+
+	@Test
+	void reportsQueueBeforeExecutorCall() throws Exception {
+		handler = new ApiClientInvocationHandler(BlockingApi.class);
+		BlockingApi api = TestServer.client(BlockingApi.class, handler);
+
+		assertEquals(Map.of("id", 1), api.get().get(5, TimeUnit.SECONDS));
+		assertTrue(ended.await(5, TimeUnit.SECONDS));
+
+		assertEquals(CallPhase.QUEUE, phases.get(0), phases.toString());
+		assertFalse(phases.contains(CallPhase.DECODE_QUEUE), phases.toString());
+	}
+}
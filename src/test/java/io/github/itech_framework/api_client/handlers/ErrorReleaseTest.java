@@ -0,0 +1,61 @@
+package io.github.itech_framework.api_client.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.itech_framework.api_client.annotations.ApiClient;
+import io.github.itech_framework.api_client.annotations.methods.POST;
+import io.github.itech_framework.api_client.annotations.parameters.Body;
+import io.github.itech_framework.api_client.annotations.resilience.ConcurrencyLimit;
+import io.github.itech_framework.api_client.resilience.ConcurrencyLimiter;
+
+class ErrorReleaseTest {
+	// the blocking client shuts its connection pool down when an Error escapes, so it must not be shared
+	@ApiClient(baseUrl = TestServer.BASE_URL, sharedPool = false)
+	interface LimitedApi {
+		@POST("/echo")
+		@ConcurrencyLimit(initialLimit = 1, minLimit = 1, maxLimit = 1)
+		Map<String, Object> send(@Body Object body);
+	}
+
+	public static class Exploding {
+		public String getValue() {
+			throw new AssertionError("serializer bug");
+		}
+	}
+
+	private TestServer server;
+	private ApiClientInvocationHandler handler;
+	private LimitedApi api;
+
+	@BeforeEach
+	void start() throws IOException {
+		server = TestServer.create()
+				.context("/echo", exchange -> TestServer.respond(exchange, 200, "application/json",
+						exchange.getRequestBody().readAllBytes()))
+				.start();
+		handler = new ApiClientInvocationHandler(LimitedApi.class);
+		api = TestServer.client(LimitedApi.class, handler);
+	}
+
+	@AfterEach
+	void stop() {
+		handler.close();
+		server.close();
+	}
+
+	@Test
+	void errorReturnsConcurrencySlot() {
+		assertThrows(AssertionError.class, () -> api.send(new Exploding()));
+
+		ConcurrencyLimiter limiter = handler.getConcurrencyLimiters().iterator().next();
+		assertEquals(0, limiter.getInFlight());
+	}
+}
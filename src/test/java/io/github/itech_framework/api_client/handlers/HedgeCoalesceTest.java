@@ -0,0 +1,128 @@
+package io.github.itech_framework.api_client.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.itech_framework.api_client.annotations.ApiClient;
+import io.github.itech_framework.api_client.annotations.caching.Coalesced;
+import io.github.itech_framework.api_client.annotations.methods.GET;
+import io.github.itech_framework.api_client.annotations.methods.PUT;
+import io.github.itech_framework.api_client.annotations.parameters.Body;
+import io.github.itech_framework.api_client.annotations.resilience.Hedge;
+
+class HedgeCoalesceTest {
+	private static final int CALLERS = 6;
+
+	@ApiClient(baseUrl = TestServer.BASE_URL)
+	interface HedgedApi {
+		@GET("/slow")
+		@Coalesced
+		@Hedge(delay = 100, maxHedges = 1, budgetPercent = 100)
+		Map<String, Object> get();
+
+		@GET("/slow")
+		@Coalesced
+		@Hedge(delay = 100, maxHedges = 1, budgetPercent = 100)
+		CompletableFuture<Map<String, Object>> getAsync();
+	}
+
+	@ApiClient(baseUrl = TestServer.BASE_URL)
+	interface StreamedApi {
+		@PUT("/slow")
+		@Hedge(delay = 100)
+		Map<String, Object> put(@Body Stream<Integer> items);
+	}
+
+	private final AtomicInteger requests = new AtomicInteger();
+	private final CountDownLatch release = new CountDownLatch(1);
+	private TestServer server;
+	private ApiClientInvocationHandler handler;
+	private HedgedApi api;
+
+	@BeforeEach
+	void start() throws IOException {
+		server = TestServer.create().executor(Executors.newCachedThreadPool()).context("/slow", exchange -> {
+			requests.incrementAndGet();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			TestServer.respond(exchange, 200, "application/json", "{\"ok\":true}".getBytes());
+		}).start();
+		handler = new ApiClientInvocationHandler(HedgedApi.class);
+		api = TestServer.client(HedgedApi.class, handler);
+	}
+
+	@AfterEach
+	void stop() {
+		release.countDown();
+		handler.close();
+		server.close();
+	}
+
+	@Test
+	void coalescesHedgedAsyncCalls() throws Exception {
+		List<CompletableFuture<Map<String, Object>>> results = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			results.add(api.getAsync());
+		}
+		awaitHedge();
+
+		for (CompletableFuture<Map<String, Object>> result : results) {
+			assertEquals(Map.of("ok", true), result.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(2, requests.get(), "one attempt and one hedge for all callers");
+	}
+
+	@Test
+	void coalescesHedgedBlockingCalls() throws Exception {
+		ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+		try {
+			List<CompletableFuture<Map<String, Object>>> results = new ArrayList<>();
+			for (int i = 0; i < CALLERS; i++) {
+				results.add(CompletableFuture.supplyAsync(api::get, callers));
+			}
+			awaitHedge();
+
+			for (CompletableFuture<Map<String, Object>> result : results) {
+				assertEquals(Map.of("ok", true), result.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			callers.shutdown();
+		}
+		assertTrue(requests.get() <= 2, requests.get() + " requests");
+	}
+
+	@Test
+	void rejectsHedgeOnStreamedBody() {
+		assertThrows(IllegalArgumentException.class, () -> new ApiClientInvocationHandler(StreamedApi.class));
+	}
+
+	// lets the first attempt and its hedge reach the server before any response is sent
+	private void awaitHedge() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 2_000;
+		while (requests.get() < 2 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		Thread.sleep(200);
+		release.countDown();
+	}
+}
@@ -0,0 +1,123 @@
+package io.github.itech_framework.api_client.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.itech_framework.api_client.annotations.ApiClient;
+import io.github.itech_framework.api_client.annotations.caching.Cached;
+import io.github.itech_framework.api_client.annotations.methods.GET;
+import io.github.itech_framework.api_client.annotations.methods.POST;
+import io.github.itech_framework.api_client.annotations.parameters.Body;
+import io.github.itech_framework.api_client.annotations.parameters.Query;
+import io.github.itech_framework.api_client.metrics.MethodMetrics;
+
+class MetricsTest {
+	private static final byte[] RESPONSE = "{\"id\":1,\"name\":\"chunked\"}".getBytes();
+
+	@ApiClient(baseUrl = TestServer.BASE_URL)
+	interface ItemApi {
+		@POST("/items")
+		Map<String, Object> create(@Body Map<String, Object> item);
+
+		@GET("/items")
+		InputStream find(@Query("id") String id);
+
+		@GET("/items")
+		InputStream find(@Query("id") int id);
+
+		@GET("/items")
+		@Cached
+		Map<String, Object> get(@Query("id") String id);
+	}
+
+	private final AtomicLong received = new AtomicLong();
+	private TestServer server;
+	private ApiClientInvocationHandler handler;
+
+	@BeforeEach
+	void start() throws IOException {
+		server = TestServer.create().context("/items", exchange -> {
+			received.addAndGet(exchange.getRequestBody().readAllBytes().length);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			// a zero length sends the body chunked
+			exchange.sendResponseHeaders(200, 0);
+			exchange.getResponseBody().write(RESPONSE);
+			exchange.close();
+		}).start();
+	}
+
+	@AfterEach
+	void stop() {
+		if (handler != null) {
+			handler.close();
+		}
+		server.close();
+	}
+
+	@Test
+	void countsChunkedBodiesInBothDirections() throws Exception {
+		ItemApi api = create();
+
+		api.create(Map.of("name", "chunked"));
+
+		MethodMetrics metrics = handler.getMetrics().forMethod(ItemApi.class.getMethod("create", Map.class));
+		assertEquals(received.get(), metrics.getBytesOut());
+		assertEquals(RESPONSE.length, metrics.getBytesIn());
+	}
+
+	@Test
+	void countsStreamedBodiesAsTheyAreRead() throws Exception {
+		ItemApi api = create();
+
+		try (InputStream content = api.find("1")) {
+			content.readAllBytes();
+		}
+
+		MethodMetrics metrics = handler.getMetrics().forMethod(ItemApi.class.getMethod("find", String.class));
+		assertEquals(RESPONSE.length, metrics.getBytesIn());
+	}
+
+	@Test
+	void countsCachedResponsesOnce() throws Exception {
+		ItemApi api = create();
+
+		assertEquals(Map.of("id", 1, "name", "chunked"), api.get("1"));
+
+		MethodMetrics metrics = handler.getMetrics().forMethod(ItemApi.class.getMethod("get", String.class));
+		assertEquals(RESPONSE.length, metrics.getBytesIn());
+	}
+
+	@Test
+	void sharesRetryCounterAcrossCalls() throws Exception {
+		create();
+
+		MethodMetrics metrics = handler.getMetrics().forMethod(ItemApi.class.getMethod("create", Map.class));
+		assertSame(metrics.getRetryCounter(), metrics.getRetryCounter());
+		metrics.getRetryCounter().run();
+		assertEquals(1, metrics.getRetries());
+	}
+
+	@Test
+	void numbersOverloadsBySignature() throws Exception {
+		create();
+
+		assertEquals("find", handler.getMetrics().forMethod(ItemApi.class.getMethod("find", String.class))
+				.getMethodName());
+		assertEquals("find#2", handler.getMetrics().forMethod(ItemApi.class.getMethod("find", int.class))
+				.getMethodName());
+	}
+
+	private ItemApi create() {
+		handler = new ApiClientInvocationHandler(ItemApi.class);
+		return TestServer.client(ItemApi.class, handler);
+	}
+}
@@ -0,0 +1,81 @@
+package io.github.itech_framework.api_client.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.itech_framework.api_client.annotations.ApiClient;
+import io.github.itech_framework.api_client.annotations.methods.POST;
+import io.github.itech_framework.api_client.annotations.parameters.Part;
+import io.github.itech_framework.api_client.utils.enums.AsyncTransport;
+
+class MultipartUploadTest {
+	@ApiClient(baseUrl = TestServer.BASE_URL)
+	interface BlockingApi {
+		@POST("/upload")
+		String upload(@Part("note") String note, @Part(value = "file", filename = "a.bin") byte[] file);
+	}
+
+	@ApiClient(baseUrl = TestServer.BASE_URL, asyncTransport = AsyncTransport.NON_BLOCKING)
+	interface NonBlockingApi {
+		@POST("/upload")
+		CompletableFuture<String> upload(@Part("note") String note,
+				@Part(value = "file", filename = "a.bin") byte[] file);
+	}
+
+	private TestServer server;
+	private ApiClientInvocationHandler handler;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = TestServer.create().context("/upload", exchange -> {
+			String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+			byte[] body = exchange.getRequestBody().readAllBytes();
+			String boundary = contentType.substring(contentType.indexOf("boundary=") + "boundary=".length());
+			String text = new String(body, StandardCharsets.ISO_8859_1);
+			// echoes the parts the server could find, so a truncated or unreadable body fails the test
+			String reply = text.contains("name=\"note\"") + "," + text.contains("\r\nhello\r\n") + ","
+					+ text.contains("filename=\"a.bin\"") + "," + text.endsWith("--" + boundary + "--\r\n") + ","
+					+ body.length;
+			TestServer.respond(exchange, 200, "text/plain", reply.getBytes(StandardCharsets.UTF_8));
+		}).start();
+	}
+
+	@AfterEach
+	void stopServer() {
+		if (handler != null) {
+			handler.close();
+		}
+		server.close();
+	}
+
+	@Test
+	void sendsSmallMultipartOnBlockingTransport() {
+		handler = new ApiClientInvocationHandler(BlockingApi.class);
+		BlockingApi api = TestServer.client(BlockingApi.class, handler);
+
+		assertUploaded(api.upload("hello", new byte[] { 1, 2, 3 }));
+	}
+
+	@Test
+	void sendsSmallMultipartOnNonBlockingTransport() throws Exception {
+		handler = new ApiClientInvocationHandler(NonBlockingApi.class);
+		NonBlockingApi api = TestServer.client(NonBlockingApi.class, handler);
+
+		assertUploaded(api.upload("hello", new byte[] { 1, 2, 3 }).get(10, TimeUnit.SECONDS));
+	}
+
+	private static void assertUploaded(String reply) {
+		String[] found = reply.split(",");
+		assertEquals("true,true,true,true", String.join(",", found[0], found[1], found[2], found[3]), reply);
+		assertTrue(Integer.parseInt(found[4]) > 0);
+	}
+}
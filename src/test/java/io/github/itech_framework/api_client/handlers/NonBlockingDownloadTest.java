@@ -0,0 +1,114 @@
+package io.github.itech_framework.api_client.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.itech_framework.api_client.annotations.ApiClient;
+import io.github.itech_framework.api_client.annotations.methods.GET;
+import io.github.itech_framework.api_client.annotations.parameters.DownloadTo;
+import io.github.itech_framework.api_client.exceptions.NotFoundException;
+import io.github.itech_framework.api_client.utils.enums.AsyncTransport;
+
+class NonBlockingDownloadTest {
+	private static final int HALF = 512 * 1024;
+
+	@ApiClient(baseUrl = TestServer.BASE_URL, asyncTransport = AsyncTransport.NON_BLOCKING)
+	interface DownloadApi {
+		@GET("/file")
+		CompletableFuture<Path> download(@DownloadTo Path target);
+
+		@GET("/missing")
+		CompletableFuture<Path> missing(@DownloadTo Path target);
+	}
+
+	@TempDir
+	Path directory;
+
+	private final byte[] body = new byte[2 * HALF];
+	private final AtomicBoolean partialFileSeen = new AtomicBoolean();
+	private Path target;
+	private TestServer server;
+	private ApiClientInvocationHandler handler;
+	private DownloadApi api;
+
+	@BeforeEach
+	void start() throws IOException {
+		new Random(3).nextBytes(body);
+		target = directory.resolve("download.bin");
+		server = TestServer.create().context("/file", exchange -> {
+			exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+			exchange.sendResponseHeaders(200, 0);
+			try (OutputStream output = exchange.getResponseBody()) {
+				output.write(body, 0, HALF);
+				output.flush();
+				// the rest is only sent once the first half has reached the file
+				partialFileSeen.set(awaitFileSize(target, 1, 5_000));
+				output.write(body, HALF, HALF);
+			}
+		}).context("/missing", exchange -> TestServer.respond(exchange, 404, "application/json",
+				"{\"code\":\"GONE\"}".getBytes())).start();
+		handler = new ApiClientInvocationHandler(DownloadApi.class);
+		api = TestServer.client(DownloadApi.class, handler);
+	}
+
+	@AfterEach
+	void stop() {
+		handler.close();
+		server.close();
+	}
+
+	@Test
+	void writesBodyToFileAsItArrives() throws Exception {
+		Path result = api.download(target).get(10, TimeUnit.SECONDS);
+
+		assertEquals(target, result);
+		assertArrayEquals(body, Files.readAllBytes(target));
+		assertTrue(partialFileSeen.get(), "body was buffered before it was written to the file");
+	}
+
+	@Test
+	void failsWithoutCreatingFileOnErrorStatus() {
+		ExecutionException thrown = assertThrows(ExecutionException.class,
+				() -> api.missing(target).get(10, TimeUnit.SECONDS));
+
+		assertInstanceOf(NotFoundException.class, thrown.getCause());
+		assertFalse(Files.exists(target));
+	}
+
+	private static boolean awaitFileSize(Path file, long size, long timeoutMillis) {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		while (System.currentTimeMillis() < deadline) {
+			try {
+				if (Files.exists(file) && Files.size(file) >= size) {
+					return true;
+				}
+				Thread.sleep(10);
+			} catch (IOException e) {
+				// the file is being created, try again
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,70 @@
+package io.github.itech_framework.api_client.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.itech_framework.api_client.annotations.ApiClient;
+import io.github.itech_framework.api_client.annotations.methods.PUT;
+import io.github.itech_framework.api_client.annotations.parameters.Body;
+import io.github.itech_framework.api_client.annotations.resilience.Retry;
+import io.github.itech_framework.api_client.exceptions.ServiceUnavailableException;
+
+class RetryBodyTest {
+	@ApiClient(baseUrl = TestServer.BASE_URL)
+	@Retry(maxAttempts = 3, initialBackoff = 1)
+	interface ItemsApi {
+		@PUT("/items")
+		Map<String, Object> putList(@Body List<Integer> items);
+
+		@PUT("/items")
+		Map<String, Object> putStream(@Body Stream<Integer> items);
+	}
+
+	private final AtomicInteger attempts = new AtomicInteger();
+	private TestServer server;
+	private ApiClientInvocationHandler handler;
+	private ItemsApi api;
+
+	@BeforeEach
+	void start() throws IOException {
+		server = TestServer.create().context("/items", exchange -> {
+			exchange.getRequestBody().readAllBytes();
+			if (attempts.incrementAndGet() == 1) {
+				exchange.sendResponseHeaders(503, -1);
+				exchange.close();
+			} else {
+				TestServer.respond(exchange, 200, "application/json", "{\"ok\":true}".getBytes());
+			}
+		}).start();
+		handler = new ApiClientInvocationHandler(ItemsApi.class);
+		api = TestServer.client(ItemsApi.class, handler);
+	}
+
+	@AfterEach
+	void stop() {
+		handler.close();
+		server.close();
+	}
+
+	@Test
+	void repeatableBodyIsRetried() {
+		assertEquals(Map.of("ok", true), api.putList(List.of(1, 2, 3)));
+		assertEquals(2, attempts.get());
+	}
+
+	@Test
+	void streamedBodyIsNotRetried() {
+		assertThrows(ServiceUnavailableException.class, () -> api.putStream(Stream.of(1, 2, 3)));
+		assertEquals(1, attempts.get());
+	}
+}
@@ -0,0 +1,68 @@
+package io.github.itech_framework.api_client.handlers;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local HTTP server for handler tests. It binds a free port and, once started,
+ * publishes its address as the {@value #BASE_URL_PROPERTY} system property,
+ * which clients declared with {@code @ApiClient(baseUrl = TestServer.BASE_URL)}
+ * resolve when their handler is created. Every test gets a port of its own, so
+ * a pooled connection to the server of an earlier test is never reused.
+ */
+final class TestServer implements AutoCloseable {
+	static final String BASE_URL_PROPERTY = "test.server.baseUrl";
+	static final String BASE_URL = "${" + BASE_URL_PROPERTY + "}";
+
+	private final HttpServer server;
+
+	private TestServer(HttpServer server) {
+		this.server = server;
+	}
+
+	static TestServer create() throws IOException {
+		return new TestServer(HttpServer.create(new InetSocketAddress("localhost", 0), 0));
+	}
+
+	TestServer context(String path, HttpHandler handler) {
+		server.createContext(path, handler);
+		return this;
+	}
+
+	TestServer executor(Executor executor) {
+		server.setExecutor(executor);
+		return this;
+	}
+
+	TestServer start() {
+		server.start();
+		System.setProperty(BASE_URL_PROPERTY, "http://localhost:" + server.getAddress().getPort());
+		return this;
+	}
+
+	@Override
+	public void close() {
+		System.clearProperty(BASE_URL_PROPERTY);
+		server.stop(0);
+	}
+
+	/**
+	 * Sends a complete response with a declared length and closes the exchange.
+	 */
+	static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+		exchange.getResponseHeaders().add("Content-Type", contentType);
+		exchange.sendResponseHeaders(status, body.length);
+		exchange.getResponseBody().write(body);
+		exchange.close();
+	}
+
+	static <T> T client(Class<T> api, ApiClientInvocationHandler handler) {
+		return api.cast(Proxy.newProxyInstance(api.getClassLoader(), new Class<?>[] { api }, handler));
+	}
+}
@@ -0,0 +1,116 @@
+package io.github.itech_framework.api_client.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class UriTemplateTest {
+	private static final String BASE = "http://localhost:8080/api";
+
+	@Test
+	void encodesReservedCharactersInPathValues() {
+		UriTemplate template = UriTemplate.compile(BASE, "/items/{id}", Map.of("id", 0), List.of(), Map.of());
+
+		assertEquals(BASE + "/items/a%20b%2Fc%3Fd%23e%25f%26g%3Dh%2Bi",
+				template.expand(new Object[] { "a b/c?d#e%f&g=h+i" }).toString());
+	}
+
+	@Test
+	void keepsUnreservedAndSubDelimiterCharactersInPathValues() {
+		UriTemplate template = UriTemplate.compile(BASE, "/items/{id}", Map.of("id", 0), List.of(), Map.of());
+
+		assertEquals(BASE + "/items/a-b._~!$'()*,;:@c",
+				template.expand(new Object[] { "a-b._~!$'()*,;:@c" }).toString());
+	}
+
+	@Test
+	void encodesNonAsciiValuesAsUtf8() {
+		UriTemplate template = UriTemplate.compile(BASE, "/items/{id}", Map.of("id", 0),
+				List.of(Map.entry("q", 1)), Map.of());
+
+		assertEquals(BASE + "/items/caf%C3%A9?q=%F0%9F%98%80%20%E2%82%AC",
+				template.expand(new Object[] { "caf\u00e9", "\uD83D\uDE00 \u20AC" }).toString());
+	}
+
+	@Test
+	void encodesQueryNamesAndValues() {
+		UriTemplate template = UriTemplate.compile(BASE, "/search", Map.of(), List.of(Map.entry("a b", 0)),
+				Map.of());
+
+		assertEquals(BASE + "/search?a%20b=x%26y%3Dz%2B1/?:@",
+				template.expand(new Object[] { "x&y=z+1/?:@" }).toString());
+	}
+
+	@Test
+	void substitutesPathParametersInTemplateOrder() {
+		UriTemplate template = UriTemplate.compile(BASE, "/users/{user}/items/{item}",
+				Map.of("item", 0, "user", 1), List.of(), Map.of());
+
+		assertEquals(BASE + "/users/7/items/42", template.expand(new Object[] { 42, 7 }).toString());
+	}
+
+	@Test
+	void keepsTemplateLiteralsAlreadyEncoded() {
+		UriTemplate template = UriTemplate.compile(BASE, "/a%20b/{id}", Map.of("id", 0), List.of(), Map.of());
+
+		assertEquals(BASE + "/a%20b/x", template.expand(new Object[] { "x" }).toString());
+	}
+
+	@Test
+	void encodesIllegalCharactersInTemplateLiterals() {
+		UriTemplate template = UriTemplate.compile(BASE, "/my items/{id}", Map.of("id", 0), List.of(), Map.of());
+
+		assertEquals(BASE + "/my%20items/x", template.expand(new Object[] { "x" }).toString());
+	}
+
+	@Test
+	void repeatsCollectionAndArrayQueryValuesAndSkipsNulls() {
+		UriTemplate template = UriTemplate.compile(BASE, "/search", Map.of(),
+				List.of(Map.entry("tag", 0), Map.entry("id", 1), Map.entry("name", 2), Map.entry("page", 3)),
+				Map.of());
+
+		assertEquals(BASE + "/search?tag=a&tag=c&id=1&id=2&page=3", template.expand(new Object[] {
+				Arrays.asList("a", null, "c"), new int[] { 1, 2 }, null, 3 }).toString());
+	}
+
+	@Test
+	void appendsToAQueryInTheTemplate() {
+		UriTemplate template = UriTemplate.compile(BASE, "/search?fixed=1", Map.of(), List.of(Map.entry("q", 0)),
+				Map.of());
+
+		assertEquals(BASE + "/search?fixed=1&q=x", template.expand(new Object[] { "x" }).toString());
+	}
+
+	@Test
+	void appendsStaticQueryAfterDynamicParameters() {
+		Map<String, String> staticQuery = new LinkedHashMap<>();
+		staticQuery.put("api key", "a&b");
+		staticQuery.put("v", "2");
+		UriTemplate template = UriTemplate.compile(BASE, "/search", Map.of(), List.of(Map.entry("q", 0)),
+				staticQuery);
+
+		assertEquals(BASE + "/search?q=x&api%20key=a%26b&v=2", template.expand(new Object[] { "x" }).toString());
+		assertEquals(BASE + "/search?api%20key=a%26b&v=2", template.expand(new Object[] { null }).toString());
+	}
+
+	@Test
+	void rejectsNullPathValues() {
+		UriTemplate template = UriTemplate.compile(BASE, "/items/{id}", Map.of("id", 0), List.of(), Map.of());
+
+		assertThrows(IllegalArgumentException.class, () -> template.expand(new Object[] { null }));
+	}
+
+	@Test
+	void rejectsMalformedTemplates() {
+		assertThrows(IllegalArgumentException.class,
+				() -> UriTemplate.compile(BASE, "/items/{id", Map.of("id", 0), List.of(), Map.of()));
+		assertThrows(IllegalArgumentException.class,
+				() -> UriTemplate.compile(BASE, "/items/{other}", Map.of("id", 0), List.of(), Map.of()));
+	}
+}
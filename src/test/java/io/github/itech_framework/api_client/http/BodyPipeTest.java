@@ -0,0 +1,105 @@
+package io.github.itech_framework.api_client.http;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BodyPipeTest {
+
+	@Test
+	void transfersBodyLargerThanBuffer() throws Exception {
+		byte[] body = new byte[300 * 1024 + 17];
+		new Random(7).nextBytes(body);
+		BodyPipe pipe = new BodyPipe(16 * 1024);
+
+		Thread writer = new Thread(() -> {
+			try (OutputStream output = pipe.output()) {
+				output.write(body, 0, 5);
+				output.write(body[5]);
+				output.write(body, 6, body.length - 6);
+			} catch (IOException e) {
+				pipe.fail(e);
+			}
+		});
+		writer.start();
+
+		assertArrayEquals(body, readAll(pipe.input()));
+		writer.join();
+	}
+
+	@Test
+	void rethrowsWriterFailureAfterWrittenBytes() throws Exception {
+		IOException failure = new IOException("serialization failed");
+		BodyPipe pipe = new BodyPipe(64 * 1024);
+
+		Thread writer = new Thread(() -> {
+			try {
+				pipe.output().write(new byte[10_000]);
+				throw failure;
+			} catch (IOException e) {
+				pipe.fail(e);
+			}
+		});
+		writer.start();
+
+		InputStream input = pipe.input();
+		IOException thrown = assertThrows(IOException.class, () -> readAll(input));
+		assertSame(failure, thrown);
+		// the body never looks complete, however often it is read
+		assertThrows(IOException.class, input::read);
+		writer.join();
+	}
+
+	@Test
+	void wrapsUncheckedWriterFailure() throws Exception {
+		BodyPipe pipe = new BodyPipe(64 * 1024);
+		IllegalStateException cause = new IllegalStateException("boom");
+		pipe.fail(cause);
+
+		IOException thrown = assertThrows(IOException.class, () -> readAll(pipe.input()));
+		assertSame(cause, thrown.getCause());
+	}
+
+	@Test
+	void unblocksWriterWhenReaderCloses() throws Exception {
+		BodyPipe pipe = new BodyPipe(8 * 1024);
+		IOException[] writerFailure = new IOException[1];
+
+		Thread writer = new Thread(() -> {
+			try {
+				OutputStream output = pipe.output();
+				while (true) {
+					output.write(new byte[4096]);
+				}
+			} catch (IOException e) {
+				writerFailure[0] = e;
+			}
+		});
+		writer.start();
+
+		InputStream input = pipe.input();
+		input.read(new byte[100]);
+		input.close();
+		writer.join(5_000);
+
+		assertSame(IOException.class, writerFailure[0].getClass());
+	}
+
+	private static byte[] readAll(InputStream input) throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		byte[] buffer = new byte[1000];
+		int n;
+		while ((n = input.read(buffer)) != -1) {
+			result.write(buffer, 0, n);
+		}
+		return result.toByteArray();
+	}
+}
@@ -0,0 +1,51 @@
+package io.github.itech_framework.api_client.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.http.entity.ByteArrayEntity;
+import org.junit.jupiter.api.Test;
+
+class CountingEntityTest {
+	private static final byte[] BODY = "{\"id\":1,\"name\":\"counted\"}".getBytes();
+
+	@Test
+	void countsBytesReadAndReportsThemToListener() throws Exception {
+		LongAdder total = new LongAdder();
+		CountingEntity entity = new CountingEntity(new ByteArrayEntity(BODY), total::add);
+
+		try (InputStream content = entity.getContent()) {
+			content.read();
+			content.readAllBytes();
+		}
+
+		assertEquals(BODY.length, entity.getCount());
+		assertEquals(BODY.length, total.sum());
+	}
+
+	@Test
+	void countsBytesWrittenEachTime() throws Exception {
+		LongAdder total = new LongAdder();
+		CountingEntity entity = new CountingEntity(new ByteArrayEntity(BODY), total::add);
+
+		entity.writeTo(new ByteArrayOutputStream());
+		entity.writeTo(new ByteArrayOutputStream());
+
+		assertEquals(2L * BODY.length, entity.getCount());
+		assertEquals(2L * BODY.length, total.sum());
+	}
+
+	@Test
+	void countsWithoutListener() throws Exception {
+		CountingEntity entity = new CountingEntity(new ByteArrayEntity(BODY));
+
+		try (InputStream content = entity.getContent()) {
+			content.readAllBytes();
+		}
+
+		assertEquals(BODY.length, entity.getCount());
+	}
+}
@@ -0,0 +1,41 @@
+package io.github.itech_framework.api_client.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.junit.jupiter.api.Test;
+
+import io.github.itech_framework.api_client.annotations.ApiClient;
+
+class HttpConnectionPoolsTest {
+	private static final String BASE_URL = "http://pools.test:8080/api";
+	private static final HttpRoute ROUTE = new HttpRoute(new HttpHost("pools.test", 8080, "http"));
+
+	@ApiClient(baseUrl = BASE_URL, maxConnectionsPerRoute = 5)
+	interface SmallApi {
+	}
+
+	@ApiClient(baseUrl = BASE_URL, maxConnectionsPerRoute = 20)
+	interface LargeApi {
+	}
+
+	@Test
+	void sharedPoolKeepsLargestPerRouteLimit() {
+		HttpConnectionPools.Pool small = HttpConnectionPools.acquire(SmallApi.class.getAnnotation(ApiClient.class),
+				BASE_URL);
+		HttpConnectionPools.Pool large = HttpConnectionPools.acquire(LargeApi.class.getAnnotation(ApiClient.class),
+				BASE_URL);
+		HttpConnectionPools.Pool smallAgain = HttpConnectionPools.acquire(
+				SmallApi.class.getAnnotation(ApiClient.class), BASE_URL);
+		try {
+			assertSame(small, large);
+			assertEquals(20, large.getConnectionManager().getMaxPerRoute(ROUTE));
+		} finally {
+			HttpConnectionPools.release(smallAgain);
+			HttpConnectionPools.release(large);
+			HttpConnectionPools.release(small);
+		}
+	}
+}
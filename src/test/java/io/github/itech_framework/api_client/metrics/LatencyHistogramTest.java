@@ -0,0 +1,84 @@
+package io.github.itech_framework.api_client.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+	@Test
+	void smallValuesHaveExactBuckets() {
+		for (int value = 0; value < 8; value++) {
+			assertEquals(value, LatencyHistogram.indexOf(value));
+			assertEquals(value, LatencyHistogram.midpoint(value));
+		}
+	}
+
+	@Test
+	void bucketsGrowWithTheValue() {
+		int previous = LatencyHistogram.indexOf(0);
+		for (long value = 1; value < 1L << 42; value += Math.max(1, value / 20)) {
+			int index = LatencyHistogram.indexOf(value);
+			assertTrue(index == previous || index == previous + 1, "index of " + value);
+			previous = index;
+		}
+	}
+
+	@Test
+	void midpointIsWithinTheBucketAndCloseToItsValues() {
+		for (long value = 8; value < 1L << 40; value += Math.max(1, value / 7)) {
+			int index = LatencyHistogram.indexOf(value);
+			long midpoint = LatencyHistogram.midpoint(index);
+			assertEquals(index, LatencyHistogram.indexOf(midpoint), "midpoint of " + value);
+			assertTrue(Math.abs(midpoint - value) <= value / 16.0, midpoint + " for " + value);
+		}
+	}
+
+	@Test
+	void longerLatenciesShareTheLastBucket() {
+		assertEquals(LatencyHistogram.indexOf(1L << 41), LatencyHistogram.indexOf(Long.MAX_VALUE));
+	}
+
+	@Test
+	void percentilesFollowTheRecordedValues() {
+		LatencyHistogram histogram = new LatencyHistogram(1, TimeUnit.MINUTES);
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i * 1_000_000L);
+		}
+
+		long[] result = histogram.percentiles(0.5, 0.99, 1.0);
+
+		assertEquals(50_000_000, result[0], 50_000_000 / 16.0);
+		assertEquals(99_000_000, result[1], 99_000_000 / 16.0);
+		assertEquals(100_000_000, result[2], 100_000_000 / 16.0);
+		assertEquals(100, histogram.getCount());
+	}
+
+	@Test
+	void oldLatenciesLeaveThePercentilesWhenReadRarely() throws InterruptedException {
+		LatencyHistogram histogram = new LatencyHistogram(50, TimeUnit.MILLISECONDS);
+		histogram.record(5_000_000);
+
+		Thread.sleep(150);
+
+		assertArrayEquals(new long[] { 0 }, histogram.percentiles(0.5));
+		assertEquals(1, histogram.getCount());
+	}
+
+	@Test
+	void recentLatenciesStayAfterTheWindowTurns() throws InterruptedException {
+		LatencyHistogram histogram = new LatencyHistogram(200, TimeUnit.MILLISECONDS);
+		histogram.record(1_000_000);
+		Thread.sleep(250);
+		histogram.record(3_000_000);
+
+		long[] result = histogram.percentiles(0.0, 1.0);
+
+		assertEquals(1_000_000, result[0], 1_000_000 / 16.0);
+		assertEquals(3_000_000, result[1], 3_000_000 / 16.0);
+	}
+}
@@ -0,0 +1,149 @@
+package io.github.itech_framework.api_client.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.itech_framework.api_client.annotations.resilience.CircuitBreaker;
+import io.github.itech_framework.api_client.exceptions.CircuitBreakerOpenException;
+import io.github.itech_framework.api_client.exceptions.NotFoundException;
+import io.github.itech_framework.api_client.exceptions.ServerErrorException;
+
+class CircuitTest {
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+	@CircuitBreaker(windowSize = 4, minimumCalls = 4, failureRateThreshold = 50, slowCallDuration = 1000,
+			slowCallRateThreshold = 75, openDuration = 60_000)
+	void longOpen() {
+	}
+
+	@CircuitBreaker(windowSize = 4, minimumCalls = 4, failureRateThreshold = 50, openDuration = 0,
+			halfOpenCalls = 2)
+	void immediateHalfOpen() {
+	}
+
+	@Test
+	void opensAtFailureRateAndRejectsCalls() {
+		Circuit circuit = circuit("longOpen");
+		record(circuit, null, null, null);
+		assertEquals("CLOSED", circuit.getState());
+
+		record(circuit, new IOException("reset"));
+		assertEquals("CLOSED", circuit.getState());
+		record(circuit, new ServerErrorException("down", 502, null, null));
+
+		assertEquals("OPEN", circuit.getState());
+		assertThrows(CircuitBreakerOpenException.class, circuit::acquirePermission);
+	}
+
+	@Test
+	void needsMinimumCallsBeforeOpening() {
+		Circuit circuit = circuit("longOpen");
+		record(circuit, new IOException("a"), new IOException("b"), new IOException("c"));
+
+		assertEquals("CLOSED", circuit.getState());
+	}
+
+	@Test
+	void ignoresClientErrors() {
+		Circuit circuit = circuit("longOpen");
+		for (int i = 0; i < 8; i++) {
+			record(circuit, new NotFoundException("missing", null, null));
+		}
+
+		assertEquals("CLOSED", circuit.getState());
+	}
+
+	@Test
+	void opensAtSlowCallRate() {
+		Circuit circuit = circuit("longOpen");
+		circuit.onSuccess(FAST);
+		circuit.onSuccess(SLOW);
+		circuit.onSuccess(SLOW);
+		assertEquals("CLOSED", circuit.getState());
+		circuit.onSuccess(SLOW);
+
+		assertEquals("OPEN", circuit.getState());
+	}
+
+	@Test
+	void slidingWindowForgetsOldFailures() {
+		Circuit circuit = circuit("longOpen");
+		record(circuit, new IOException("a"), null, null, null);
+		// the failure leaves the window before the next one arrives
+		record(circuit, null, new IOException("b"));
+
+		assertEquals("CLOSED", circuit.getState());
+	}
+
+	@Test
+	void closesAfterSuccessfulTrialsWithClearedWindow() {
+		Circuit circuit = circuit("immediateHalfOpen");
+		record(circuit, null, null, new IOException("a"), new IOException("b"));
+		assertEquals("OPEN", circuit.getState());
+
+		circuit.acquirePermission();
+		assertEquals("HALF_OPEN", circuit.getState());
+		circuit.acquirePermission();
+		assertThrows(CircuitBreakerOpenException.class, circuit::acquirePermission);
+		circuit.onSuccess(FAST);
+		circuit.onSuccess(FAST);
+		assertEquals("CLOSED", circuit.getState());
+
+		// the failures that opened the circuit are gone, one more must not reopen it
+		record(circuit, new IOException("c"), null, null);
+		assertEquals("CLOSED", circuit.getState());
+		record(circuit, new IOException("d"));
+		assertEquals("OPEN", circuit.getState());
+	}
+
+	@Test
+	void failedTrialReopens() {
+		Circuit circuit = circuit("immediateHalfOpen");
+		record(circuit, null, null, new IOException("a"), new IOException("b"));
+
+		circuit.acquirePermission();
+		circuit.onError(FAST, new IOException("still down"));
+
+		assertEquals("OPEN", circuit.getState());
+	}
+
+	@Test
+	void errorSettlesTrialAsFailure() {
+		Circuit circuit = circuit("immediateHalfOpen");
+		record(circuit, null, null, new IOException("a"), new IOException("b"));
+
+		circuit.acquirePermission();
+		circuit.onError(FAST, new OutOfMemoryError("test"));
+
+		assertEquals("OPEN", circuit.getState());
+		// the next trial is admitted instead of the circuit staying half-open
+		circuit.acquirePermission();
+		assertEquals("HALF_OPEN", circuit.getState());
+	}
+
+	private Circuit circuit(String configMethod) {
+		try {
+			CircuitBreaker config = getClass().getDeclaredMethod(configMethod).getAnnotation(CircuitBreaker.class);
+			return new Circuit(configMethod, config);
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void record(Circuit circuit, Throwable... outcomes) {
+		for (Throwable outcome : outcomes) {
+			circuit.acquirePermission();
+			if (outcome == null) {
+				circuit.onSuccess(FAST);
+			} else {
+				circuit.onError(FAST, outcome);
+			}
+		}
+	}
+}
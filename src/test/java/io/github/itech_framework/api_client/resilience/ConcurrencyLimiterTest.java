@@ -0,0 +1,170 @@
+package io.github.itech_framework.api_client.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.itech_framework.api_client.annotations.resilience.ConcurrencyLimit;
+import io.github.itech_framework.api_client.concurrent.ApiExecutors;
+import io.github.itech_framework.api_client.exceptions.ConcurrencyLimitExceededException;
+import io.github.itech_framework.api_client.exceptions.NotFoundException;
+import io.github.itech_framework.api_client.exceptions.TooManyRequestsException;
+import io.github.itech_framework.api_client.utils.enums.LimitAlgorithm;
+
+class ConcurrencyLimiterTest {
+
+	@ConcurrencyLimit(algorithm = LimitAlgorithm.AIMD, initialLimit = 4, minLimit = 2, maxLimit = 5)
+	void aimd() {
+	}
+
+	@ConcurrencyLimit(algorithm = LimitAlgorithm.GRADIENT, initialLimit = 10, minLimit = 1, maxLimit = 100)
+	void gradient() {
+	}
+
+	@ConcurrencyLimit(initialLimit = 1, minLimit = 1, maxLimit = 1, maxQueueWait = 60_000)
+	void queued() {
+	}
+
+	@ConcurrencyLimit(initialLimit = 1, minLimit = 1, maxLimit = 1, maxQueueWait = 20)
+	void shortQueue() {
+	}
+
+	@ConcurrencyLimit(initialLimit = 1, minLimit = 1, maxLimit = 1)
+	void noQueue() {
+	}
+
+	@Test
+	void aimdGrowsUnderLoadUpToMaximum() throws Exception {
+		ConcurrencyLimiter limiter = limiter("aimd");
+		for (int i = 0; i < 4; i++) {
+			limiter.acquire();
+		}
+		limiter.release(System.nanoTime(), null);
+		assertEquals(5, limiter.getLimit());
+
+		limiter.acquire();
+		limiter.release(System.nanoTime(), null);
+		assertEquals(5, limiter.getLimit(), "limit exceeds the maximum");
+	}
+
+	@Test
+	void aimdBacksOffOnOverloadDownToMinimum() throws Exception {
+		ConcurrencyLimiter limiter = limiter("aimd");
+		for (int i = 0; i < 4; i++) {
+			limiter.acquire();
+		}
+		limiter.release(System.nanoTime(), new TooManyRequestsException("slow down", null, null));
+		assertEquals(3, limiter.getLimit());
+		limiter.release(System.nanoTime(), new IOException("reset"));
+		limiter.release(System.nanoTime(), new IOException("reset"));
+		limiter.release(System.nanoTime(), new IOException("reset"));
+		assertEquals(2, limiter.getLimit());
+
+		limiter.acquire();
+		limiter.release(System.nanoTime(), new IOException("reset"));
+		assertEquals(2, limiter.getLimit(), "limit falls below the minimum");
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	void aimdKeepsLimitWhenIdleOrOnClientErrors() throws Exception {
+		ConcurrencyLimiter limiter = limiter("aimd");
+		limiter.acquire();
+		limiter.release(System.nanoTime(), null);
+		assertEquals(4, limiter.getLimit());
+
+		limiter.acquire();
+		limiter.release(System.nanoTime(), new NotFoundException("missing", null, null));
+		assertEquals(4, limiter.getLimit());
+	}
+
+	@Test
+	void gradientGrowsWhileRoundTripTimeIsStable() throws Exception {
+		ConcurrencyLimiter limiter = limiter("gradient");
+		for (int i = 0; i < 10; i++) {
+			limiter.acquire();
+		}
+		for (int i = 0; i < 10; i++) {
+			limiter.release(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(10), null);
+			limiter.acquire();
+		}
+
+		assertTrue(limiter.getLimit() > 10, "limit " + limiter.getLimit());
+	}
+
+	@Test
+	void gradientShrinksAsRoundTripTimeGrows() throws Exception {
+		ConcurrencyLimiter limiter = limiter("gradient");
+		for (int i = 0; i < 10; i++) {
+			limiter.acquire();
+		}
+		limiter.release(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(10), null);
+		for (int i = 0; i < 9; i++) {
+			limiter.release(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(100), null);
+		}
+
+		assertTrue(limiter.getLimit() < 10, "limit " + limiter.getLimit());
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	void rejectsWithoutQueue() throws Exception {
+		ConcurrencyLimiter limiter = limiter("noQueue");
+		limiter.acquire();
+
+		assertThrows(ConcurrencyLimitExceededException.class, limiter::acquire);
+		ExecutionException thrown = assertThrows(ExecutionException.class, () -> limiter.acquireAsync().get());
+		assertTrue(thrown.getCause() instanceof ConcurrencyLimitExceededException);
+	}
+
+	@Test
+	void handsReleasedSlotToQueuedWaiterAndCancelsItsTimeout() throws Exception {
+		ConcurrencyLimiter limiter = limiter("queued");
+		ScheduledThreadPoolExecutor scheduler = (ScheduledThreadPoolExecutor) ApiExecutors.scheduler();
+		limiter.acquire();
+		int scheduled = scheduler.getQueue().size();
+
+		CompletableFuture<Void> waiter = limiter.acquireAsync();
+		assertFalse(waiter.isDone());
+		assertEquals(scheduled + 1, scheduler.getQueue().size());
+
+		limiter.release(System.nanoTime(), null);
+		waiter.get(1, TimeUnit.SECONDS);
+		assertEquals(1, limiter.getInFlight());
+		assertEquals(scheduled, scheduler.getQueue().size());
+	}
+
+	@Test
+	void failsQueuedWaiterAfterQueueTime() throws Exception {
+		ConcurrencyLimiter limiter = limiter("shortQueue");
+		limiter.acquire();
+
+		ExecutionException thrown = assertThrows(ExecutionException.class,
+				() -> limiter.acquireAsync().get(5, TimeUnit.SECONDS));
+		assertTrue(thrown.getCause() instanceof ConcurrencyLimitExceededException);
+		assertThrows(ConcurrencyLimitExceededException.class, limiter::acquire);
+
+		// the slot is not lost to the timed-out waiters
+		limiter.release(System.nanoTime(), null);
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	private ConcurrencyLimiter limiter(String configMethod) {
+		try {
+			ConcurrencyLimit config = getClass().getDeclaredMethod(configMethod)
+					.getAnnotation(ConcurrencyLimit.class);
+			return new ConcurrencyLimiter(configMethod, config);
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
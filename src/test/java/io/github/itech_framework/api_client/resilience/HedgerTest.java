@@ -0,0 +1,65 @@
+package io.github.itech_framework.api_client.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.itech_framework.api_client.annotations.resilience.Hedge;
+
+class HedgerTest {
+	@Hedge(delay = 10, maxHedges = 1, budgetPercent = 100)
+	void oneHedge() {
+	}
+
+	@Test
+	void failedAttemptWaitsForHandedOffHedge() throws Exception {
+		BlockingQueue<Runnable> handedOff = new LinkedBlockingQueue<>();
+		Hedger hedger = new Hedger(config(), handedOff::add);
+		CompletableFuture<Object> first = new CompletableFuture<>();
+		AtomicInteger attempts = new AtomicInteger();
+
+		CompletableFuture<Object> result = hedger.execute(() -> new Hedger.Attempt(
+				attempts.incrementAndGet() == 1 ? first : CompletableFuture.completedFuture("hedged"), () -> {
+				}));
+		Runnable hedge = handedOff.poll(2, TimeUnit.SECONDS);
+		first.completeExceptionally(new IOException("reset"));
+
+		assertFalse(result.isDone(), "the hedge has not started yet");
+		hedge.run();
+		assertEquals("hedged", result.get(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void failsWithLastErrorOnceEveryAttemptFailed() throws Exception {
+		BlockingQueue<Runnable> handedOff = new LinkedBlockingQueue<>();
+		Hedger hedger = new Hedger(config(), handedOff::add);
+		CompletableFuture<Object> first = new CompletableFuture<>();
+		AtomicInteger attempts = new AtomicInteger();
+
+		CompletableFuture<Object> result = hedger.execute(() -> new Hedger.Attempt(attempts.incrementAndGet() == 1
+				? first : CompletableFuture.failedFuture(new IOException("hedge failed")), () -> {
+				}));
+		handedOff.poll(2, TimeUnit.SECONDS).run();
+		assertFalse(result.isDone());
+		first.completeExceptionally(new IOException("first failed"));
+
+		ExecutionException error = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+		assertTrue(error.getCause() instanceof IOException);
+		assertEquals("first failed", error.getCause().getMessage());
+	}
+
+	private Hedge config() throws NoSuchMethodException {
+		return getClass().getDeclaredMethod("oneHedge").getAnnotation(Hedge.class);
+	}
+}
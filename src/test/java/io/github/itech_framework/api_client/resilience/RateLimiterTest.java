@@ -0,0 +1,113 @@
+package io.github.itech_framework.api_client.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.itech_framework.api_client.exceptions.RateLimitExceededException;
+import io.github.itech_framework.api_client.utils.enums.RateLimitMode;
+
+class RateLimiterTest {
+	private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+	@Test
+	void grantsAFullBucketAtOnce() {
+		RateLimiter limiter = new RateLimiter("burst", 10, 1_000, RateLimitMode.FAIL_FAST, 0);
+
+		for (int i = 0; i < 10; i++) {
+			assertEquals(0, limiter.reserve());
+		}
+		RateLimitExceededException refused = assertThrows(RateLimitExceededException.class, limiter::reserve);
+		assertTrue(refused.getMessage().contains("burst"), refused.getMessage());
+	}
+
+	@Test
+	void spacesPermitsAfterTheBurstByTheEmissionInterval() {
+		RateLimiter limiter = new RateLimiter("block", 10, 1_000, RateLimitMode.BLOCK, 0);
+		for (int i = 0; i < 10; i++) {
+			limiter.reserve();
+		}
+
+		long first = limiter.reserve();
+		long second = limiter.reserve();
+
+		assertTrue(first > 0 && first <= INTERVAL, "first wait " + first);
+		assertEquals(INTERVAL, second - first, INTERVAL / 10.0);
+	}
+
+	@Test
+	void refusesWaitsBeyondTheTimeoutWithoutReserving() {
+		RateLimiter limiter = new RateLimiter("timeout", 10, 1_000, RateLimitMode.TIMEOUT, 150);
+		for (int i = 0; i < 10; i++) {
+			limiter.reserve();
+		}
+		assertTrue(limiter.reserve() <= INTERVAL);
+
+		assertThrows(RateLimitExceededException.class, limiter::reserve);
+		assertThrows(RateLimitExceededException.class, limiter::reserve);
+	}
+
+	@Test
+	void refillsOnePermitPerInterval() throws InterruptedException {
+		RateLimiter limiter = new RateLimiter("refill", 10, 1_000, RateLimitMode.FAIL_FAST, 0);
+		for (int i = 0; i < 10; i++) {
+			limiter.reserve();
+		}
+
+		Thread.sleep(250);
+
+		assertEquals(0, limiter.reserve());
+		assertEquals(0, limiter.reserve());
+		assertThrows(RateLimitExceededException.class, limiter::reserve);
+	}
+
+	@Test
+	void acquireWaitsForThePermit() throws InterruptedException {
+		RateLimiter limiter = new RateLimiter("acquire", 10, 1_000, RateLimitMode.BLOCK, 0);
+		for (int i = 0; i < 10; i++) {
+			limiter.acquire();
+		}
+
+		long start = System.nanoTime();
+		limiter.acquire();
+
+		assertTrue(System.nanoTime() - start >= INTERVAL / 2, "acquired without waiting");
+	}
+
+	@Test
+	void concurrentCallersShareOneBucket() throws InterruptedException {
+		RateLimiter limiter = new RateLimiter("shared", 50, 60_000, RateLimitMode.FAIL_FAST, 0);
+		AtomicInteger granted = new AtomicInteger();
+		AtomicInteger refused = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 200; i++) {
+			executor.execute(() -> {
+				try {
+					start.await();
+					limiter.reserve();
+					granted.incrementAndGet();
+				} catch (RateLimitExceededException e) {
+					refused.incrementAndGet();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(50, granted.get());
+		assertEquals(150, refused.get());
+	}
+}